@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.ecommerce.config.JwtConfig;
 
@@ -12,6 +13,7 @@ import com.ecommerce.config.JwtConfig;
 @MapperScan("com.ecommerce.mapper")
 @EnableConfigurationProperties(JwtConfig.class)
 @EnableAsync
+@EnableScheduling
 public class EcommerceApplication {
 
     public static void main(String[] args) {
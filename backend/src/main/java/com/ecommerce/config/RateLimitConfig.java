@@ -0,0 +1,107 @@
+package com.ecommerce.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Validated
+public class RateLimitConfig {
+    private boolean enabled = true;
+    /** Checked in order; the first policy matching a request applies. */
+    @Valid
+    private List<Policy> policies = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    public enum KeyType {
+        /** Authenticated user id, or client IP for anonymous requests. */
+        USER,
+        /** Client IP, taken from X-Forwarded-For when the request came through a trusted proxy. */
+        IP,
+        /** X-API-Key header, or client IP when absent. */
+        API_KEY
+    }
+
+    public static class Policy {
+        private String name;
+        /** Path pattern relative to the context path, e.g. /products/** */
+        private String pattern;
+        /** HTTP methods the policy applies to; empty means all. */
+        private List<String> methods = new ArrayList<>();
+        /** Requests allowed per window; a zero limit would make Retry-After infinite. */
+        @Min(1)
+        private int limit;
+        private Duration window = Duration.ofMinutes(1);
+        private KeyType key = KeyType.USER;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+    }
+}
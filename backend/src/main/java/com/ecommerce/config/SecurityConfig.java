@@ -1,8 +1,13 @@
 package com.ecommerce.config;
 
+import com.ecommerce.security.ApiRateLimitFilter;
 import com.ecommerce.security.JwtAuthenticationFilter;
 import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.security.TokenRevocationList;
 import com.ecommerce.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -31,12 +36,21 @@ import java.util.List;
 public class SecurityConfig {
     
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, @Lazy UserService userService) {
-        return new JwtAuthenticationFilter(tokenProvider, userService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, @Lazy UserService userService,
+                                                           TokenRevocationList revocationList,
+                                                           @Value("${app.security.stateless-auth:false}") boolean statelessAuth) {
+        return new JwtAuthenticationFilter(tokenProvider, userService, revocationList, statelessAuth);
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public ApiRateLimitFilter apiRateLimitFilter(RateLimitConfig rateLimitConfig, ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        return new ApiRateLimitFilter(rateLimitConfig, objectMapper, meterRegistry);
+    }
+    
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           ApiRateLimitFilter apiRateLimitFilter) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
@@ -68,6 +82,7 @@ public class SecurityConfig {
                 
                 // Store endpoints - specific authenticated endpoints first
                 .requestMatchers("/stores/my-store").authenticated()
+                .requestMatchers("/stores/my-store/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/stores/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/stores/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/stores/**").authenticated()
@@ -86,7 +101,8 @@ public class SecurityConfig {
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(apiRateLimitFilter, JwtAuthenticationFilter.class);
         
         // For H2 Console  
         http.headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
@@ -1,8 +1,10 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.exception.TooManyRequestsException;
 import com.ecommerce.model.User;
 import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.security.LoginRateLimiter;
 import com.ecommerce.service.EmailService;
 import com.ecommerce.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,12 +13,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/auth")
 @Tag(name = "Authentication", description = "Authentication and user registration endpoints")
@@ -27,11 +33,14 @@ public class AuthController {
     private final UserService userService;
     private final JwtTokenProvider tokenProvider;
     private final EmailService emailService;
+    private final LoginRateLimiter loginRateLimiter;
     
-    public AuthController(UserService userService, JwtTokenProvider tokenProvider, EmailService emailService) {
+    public AuthController(UserService userService, JwtTokenProvider tokenProvider, EmailService emailService,
+                          LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
         this.tokenProvider = tokenProvider;
         this.emailService = emailService;
+        this.loginRateLimiter = loginRateLimiter;
     }
     
     @PostMapping("/register")
@@ -58,6 +67,8 @@ public class AuthController {
                 "Registration successful. Please check your email to verify your account."
             ));
             
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Registration failed: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -71,45 +82,53 @@ public class AuthController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Login successful",
             content = @Content(schema = @Schema(implementation = AuthResponse.class))),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid credentials",
+            content = @Content(schema = @Schema(implementation = com.ecommerce.dto.ApiResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Too many login attempts or server busy",
             content = @Content(schema = @Schema(implementation = com.ecommerce.dto.ApiResponse.class)))
     })
-    public ResponseEntity<com.ecommerce.dto.ApiResponse> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            logger.info("Login attempt for email: {}", request.getEmail());
-            
-            User user = userService.authenticateUser(request.getEmail(), request.getPassword());
-            logger.info("Authentication result for {}: {}", request.getEmail(), user != null ? "SUCCESS" : "FAILED");
-            
-            if (user == null) {
-                logger.warn("Authentication failed for email: {}", request.getEmail());
+    public CompletableFuture<ResponseEntity<com.ecommerce.dto.ApiResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                              HttpServletRequest httpRequest) {
+        logger.info("Login attempt for email: {}", request.getEmail());
+        // Client address, already taken from X-Forwarded-For when a trusted proxy sent the request
+        loginRateLimiter.acquire(httpRequest.getRemoteAddr(), request.getEmail());
+        
+        // The request thread is released while the password is checked on the hashing pool;
+        // tokens are issued on the task executor the future completes on, not on a hashing thread
+        return userService.authenticateUserAsync(request.getEmail(), request.getPassword())
+            .thenApply(user -> {
+                if (user == null) {
+                    loginRateLimiter.recordFailure(request.getEmail());
+                    logger.warn("Authentication failed for email: {}", request.getEmail());
+                    return ResponseEntity.badRequest()
+                        .body(com.ecommerce.dto.ApiResponse.error("Invalid email or password"));
+                }
+                loginRateLimiter.recordSuccess(request.getEmail());
+                
+                // Generate tokens
+                String accessToken = tokenProvider.generateAccessToken(user);
+                String refreshToken = tokenProvider.generateRefreshToken(user);
+                
+                AuthResponse authResponse = new AuthResponse(
+                    accessToken,
+                    refreshToken,
+                    tokenProvider.getExpirationTime(),
+                    user
+                );
+                
+                logger.info("User logged in successfully: {}", user.getEmail());
+                
+                return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success("Login successful", authResponse));
+            })
+            .exceptionally(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof TooManyRequestsException tooManyRequests) {
+                    throw tooManyRequests;
+                }
+                logger.error("Login failed: {}", cause.getMessage(), cause);
+                String message = cause instanceof RuntimeException ? cause.getMessage() : "Login failed";
                 return ResponseEntity.badRequest()
-                    .body(com.ecommerce.dto.ApiResponse.error("Invalid email or password"));
-            }
-            
-            // Generate tokens
-            String accessToken = tokenProvider.generateAccessToken(user);
-            String refreshToken = tokenProvider.generateRefreshToken(user);
-            
-            AuthResponse authResponse = new AuthResponse(
-                accessToken,
-                refreshToken,
-                tokenProvider.getExpirationTime(),
-                user
-            );
-            
-            logger.info("User logged in successfully: {}", user.getEmail());
-            
-            return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success("Login successful", authResponse));
-            
-        } catch (RuntimeException e) {
-            logger.error("Login failed with RuntimeException: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(com.ecommerce.dto.ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Login failed with unexpected exception: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest()
-                .body(com.ecommerce.dto.ApiResponse.error("Login failed"));
-        }
+                    .body(com.ecommerce.dto.ApiResponse.error(message));
+            });
     }
     
     @PostMapping("/refresh")
@@ -117,7 +136,7 @@ public class AuthController {
         try {
             String refreshToken = request.getRefreshToken();
             
-            if (!tokenProvider.validateToken(refreshToken)) {
+            if (!tokenProvider.validateToken(refreshToken) || tokenProvider.isRevoked(refreshToken)) {
                 return ResponseEntity.badRequest()
                     .body(com.ecommerce.dto.ApiResponse.error("Invalid refresh token"));
             }
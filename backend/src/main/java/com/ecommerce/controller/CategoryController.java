@@ -64,6 +64,18 @@ public class CategoryController {
         return ResponseEntity.ok(ApiResponse.success(categories));
     }
     
+    @GetMapping("/tree")
+    public ResponseEntity<ApiResponse> getCategoryTree() {
+        List<CategoryDto> categories = categoryService.getCategoryTree();
+        return ResponseEntity.ok(ApiResponse.success(categories));
+    }
+    
+    @GetMapping("/{categoryId}/path")
+    public ResponseEntity<ApiResponse> getCategoryPath(@PathVariable Long categoryId) {
+        List<CategoryDto> path = categoryService.getCategoryPath(categoryId);
+        return ResponseEntity.ok(ApiResponse.success(path));
+    }
+    
     @GetMapping("/{parentId}/children")
     public ResponseEntity<ApiResponse> getChildCategories(@PathVariable Long parentId) {
         List<CategoryDto> categories = categoryService.getChildCategories(parentId);
@@ -2,14 +2,23 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
 import com.ecommerce.model.Order;
+import com.ecommerce.model.Store;
+import com.ecommerce.service.OrderExportService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.StoreService;
 import com.ecommerce.util.SecurityUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,9 +27,14 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final StoreService storeService;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService,
+                          StoreService storeService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.storeService = storeService;
     }
     
     @PostMapping
@@ -103,6 +117,49 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/store/{storeId}/export")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<?> exportStoreOrders(
+            @PathVariable Long storeId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "true") boolean includeItems,
+            @RequestParam(defaultValue = "false") boolean includeAddresses,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            Store store = storeService.findById(storeId);
+            if (store == null) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Store not found"));
+            }
+            if (!SecurityUtils.isAdmin() && !store.getSellerId().equals(SecurityUtils.getCurrentUserId())) {
+                return ResponseEntity.status(403).body(ApiResponse.error("Unauthorized to export this store's orders"));
+            }
+            
+            OrderExportService.Format exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+            OrderExportRequest request = OrderExportRequest.builder()
+                .storeId(storeId)
+                .createdFrom(from != null ? from.atStartOfDay() : null)
+                .createdTo(to != null ? to.plusDays(1).atStartOfDay() : null)
+                .status(status != null ? Order.OrderStatus.valueOf(status.toUpperCase()) : null)
+                .includeItems(includeItems)
+                .includeAddresses(includeAddresses)
+                .build();
+            
+            String filename = "orders-store-" + storeId + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+            StreamingResponseBody body = out -> orderExportService.exportStoreOrders(request, exportFormat, gzip, out);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid format or status"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @PutMapping("/{orderId}/status")
     @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse> updateOrderStatus(
@@ -119,6 +176,32 @@ public class OrderController {
         }
     }
     
+    @PutMapping("/status/bulk")
+    @PreAuthorize("hasRole('SELLER') or hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> bulkUpdateOrderStatus(@Valid @RequestBody BulkOrderStatusRequest request) {
+        Order.OrderStatus orderStatus;
+        try {
+            orderStatus = Order.OrderStatus.valueOf(request.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid status: " + request.getStatus()));
+        }
+        Long storeId = null;
+        if (!SecurityUtils.isAdmin()) {
+            Store store = storeService.findBySellerId(SecurityUtils.getCurrentUserId());
+            if (store == null) {
+                return ResponseEntity.status(403).body(ApiResponse.error("Unauthorized to update these orders"));
+            }
+            storeId = store.getId();
+        }
+        try {
+            BulkOrderStatusResponse result = orderService.bulkUpdateOrderStatus(request.getOrderIds(), orderStatus, storeId);
+            String message = String.format("Updated %d of %d orders", result.getUpdated(), result.getRequested());
+            return ResponseEntity.ok(ApiResponse.success(message, result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @PutMapping("/{orderId}/cancel")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse> cancelOrder(@PathVariable Long orderId) {
@@ -6,6 +6,7 @@ import com.ecommerce.model.Product;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.service.FileUploadService;
 import com.ecommerce.service.ProductReviewService;
+import com.ecommerce.service.StoreAnalyticsAggregator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -41,6 +42,7 @@ public class ProductController {
     private final ProductService productService;
     private final FileUploadService fileUploadService;
     private final ProductReviewService productReviewService;
+    private final StoreAnalyticsAggregator storeAnalyticsAggregator;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('SELLER', 'ADMIN')")
@@ -73,12 +75,14 @@ public class ProductController {
     @GetMapping("/{productId}")
     public ResponseEntity<com.ecommerce.dto.ApiResponse> getProduct(@PathVariable Long productId) {
         ProductDto product = productService.getProductById(productId);
+        storeAnalyticsAggregator.recordProductView(product.getStoreId());
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(product));
     }
     
     @GetMapping("/slug/{slug}")
     public ResponseEntity<com.ecommerce.dto.ApiResponse> getProductBySlug(@PathVariable String slug) {
         ProductDto product = productService.getProductBySlug(slug);
+        storeAnalyticsAggregator.recordProductView(product.getStoreId());
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(product));
     }
     
@@ -220,13 +224,17 @@ public class ProductController {
     
     // Product Review Endpoints
     @GetMapping("/{productId}/reviews")
-    @Operation(summary = "Get product reviews", description = "Get all approved reviews for a specific product")
+    @Operation(summary = "Get product reviews", description = "Get approved reviews for a product one page at a time; pass nextCursor back as cursor for the next page")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
             content = @Content(schema = @Schema(implementation = ProductReviewDto.class)))
     })
-    public ResponseEntity<com.ecommerce.dto.ApiResponse> getProductReviews(@PathVariable Long productId) {
-        List<ProductReviewDto> reviews = productReviewService.getProductReviews(productId);
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "NEWEST") ReviewSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<ProductReviewDto> reviews = productReviewService.getProductReviews(productId, sort, cursor, limit);
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(reviews));
     }
     
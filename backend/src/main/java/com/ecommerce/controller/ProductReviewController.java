@@ -1,6 +1,7 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.model.ProductReview;
 import com.ecommerce.service.ProductReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,7 +18,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -63,14 +63,22 @@ public class ProductReviewController {
     }
 
     @GetMapping("/product/{productId}")
-    public ResponseEntity<com.ecommerce.dto.ApiResponse> getProductReviews(@PathVariable Long productId) {
-        List<ProductReviewDto> reviews = productReviewService.getProductReviews(productId);
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "NEWEST") ReviewSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<ProductReviewDto> reviews = productReviewService.getProductReviews(productId, sort, cursor, limit);
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(reviews));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<com.ecommerce.dto.ApiResponse> getUserReviews(@PathVariable Long userId) {
-        List<ProductReviewDto> reviews = productReviewService.getUserReviews(userId);
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> getUserReviews(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "NEWEST") ReviewSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<ProductReviewDto> reviews = productReviewService.getUserReviews(userId, sort, cursor, limit);
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(reviews));
     }
 
@@ -82,11 +90,20 @@ public class ProductReviewController {
 
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<com.ecommerce.dto.ApiResponse> getPendingReviews() {
-        List<ProductReviewDto> reviews = productReviewService.getPendingReviews();
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> getPendingReviews(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<ProductReviewDto> reviews = productReviewService.getPendingReviews(cursor, limit);
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(reviews));
     }
 
+    @PostMapping("/{reviewId}/helpful")
+    @PreAuthorize("hasAnyRole('BUYER', 'SELLER', 'ADMIN')")
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> markReviewHelpful(@PathVariable Long reviewId) {
+        productReviewService.markHelpful(reviewId);
+        return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success("Vote recorded successfully"));
+    }
+
     @PatchMapping("/{reviewId}/approve")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<com.ecommerce.dto.ApiResponse> approveReview(@PathVariable Long reviewId) {
@@ -103,6 +120,24 @@ public class ProductReviewController {
         return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success("Review rejected successfully"));
     }
 
+    @PutMapping("/status/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Moderate reviews in bulk", description = "Approve or reject many reviews with one set-based update")
+    public ResponseEntity<com.ecommerce.dto.ApiResponse> moderateReviews(@Valid @RequestBody BulkReviewModerationRequest request) {
+        ProductReview.ReviewStatus status;
+        try {
+            status = ProductReview.ReviewStatus.valueOf(request.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(com.ecommerce.dto.ApiResponse.error("Invalid status: " + request.getStatus()));
+        }
+        if (status == ProductReview.ReviewStatus.PENDING) {
+            return ResponseEntity.badRequest().body(com.ecommerce.dto.ApiResponse.error("Reviews can only be approved or rejected"));
+        }
+        BulkReviewModerationResponse result = productReviewService.moderateReviews(request.getReviewIds(), status);
+        String message = String.format("Updated %d of %d reviews", result.getUpdated(), result.getRequested());
+        return ResponseEntity.ok(com.ecommerce.dto.ApiResponse.success(message, result));
+    }
+
     @DeleteMapping("/{reviewId}")
     @PreAuthorize("hasAnyRole('BUYER', 'SELLER', 'ADMIN')")
     public ResponseEntity<com.ecommerce.dto.ApiResponse> deleteReview(@PathVariable Long reviewId) {
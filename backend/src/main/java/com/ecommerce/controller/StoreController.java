@@ -4,10 +4,14 @@ import com.ecommerce.dto.*;
 import com.ecommerce.model.Store;
 import com.ecommerce.model.StoreAnalytics;
 import com.ecommerce.model.StoreCustomization;
+import com.ecommerce.service.StoreAnalyticsAggregator;
 import com.ecommerce.service.StoreService;
+import com.ecommerce.service.StorefrontCache;
 import com.ecommerce.util.SecurityUtils;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -15,15 +19,18 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/stores")
 public class StoreController {
     
     private final StoreService storeService;
+    private final StoreAnalyticsAggregator storeAnalyticsAggregator;
     
-    public StoreController(StoreService storeService) {
+    public StoreController(StoreService storeService, StoreAnalyticsAggregator storeAnalyticsAggregator) {
         this.storeService = storeService;
+        this.storeAnalyticsAggregator = storeAnalyticsAggregator;
     }
     
     @PostMapping
@@ -61,6 +68,7 @@ public class StoreController {
             return ResponseEntity.notFound().build();
         }
         
+        storeAnalyticsAggregator.recordStoreVisit(id);
         return ResponseEntity.ok(ApiResponse.success("Store retrieved successfully", store));
     }
     
@@ -73,9 +81,34 @@ public class StoreController {
         }
         
         Store storeWithDetails = storeService.findByIdWithDetails(store.getId());
+        storeAnalyticsAggregator.recordStoreVisit(store.getId());
         return ResponseEntity.ok(ApiResponse.success("Store retrieved successfully", storeWithDetails));
     }
     
+    @GetMapping("/{id}/storefront")
+    public ResponseEntity<byte[]> getStorefront(@PathVariable Long id) {
+        StorefrontCache.Storefront storefront = storeService.getStorefront(id);
+        
+        if (storefront == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        storeAnalyticsAggregator.recordStoreVisit(id);
+        return storefrontResponse(storefront);
+    }
+    
+    @GetMapping("/slug/{slug}/storefront")
+    public ResponseEntity<byte[]> getStorefrontBySlug(@PathVariable String slug) {
+        StorefrontCache.Storefront storefront = storeService.getStorefrontBySlug(slug);
+        
+        if (storefront == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        storeAnalyticsAggregator.recordStoreVisit(storefront.storeId());
+        return storefrontResponse(storefront);
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('SELLER')")
     public ResponseEntity<ApiResponse> updateStore(
@@ -186,7 +219,8 @@ public class StoreController {
     public ResponseEntity<ApiResponse> listStores(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false, defaultValue = "active") String status) {
+            @RequestParam(required = false, defaultValue = "active") String status,
+            @RequestParam(defaultValue = "false") boolean openNow) {
         
         List<Store> stores;
         
@@ -199,6 +233,9 @@ public class StoreController {
         } else {
             stores = storeService.findActiveStores();
         }
+        if (openNow) {
+            stores = storeService.filterOpenNow(stores);
+        }
         
         return ResponseEntity.ok(ApiResponse.success("Stores retrieved successfully", stores));
     }
@@ -209,6 +246,18 @@ public class StoreController {
         return ResponseEntity.ok(ApiResponse.success("Top rated stores retrieved successfully", stores));
     }
     
+    @GetMapping("/open-now")
+    public ResponseEntity<ApiResponse> getOpenNow(@RequestParam List<Long> ids) {
+        Map<Long, Boolean> open = storeService.getOpenNow(ids);
+        return ResponseEntity.ok(ApiResponse.success("Store open status retrieved successfully", open));
+    }
+    
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<ApiResponse> getStoreRank(@PathVariable Long id) {
+        StoreRankResponse rank = storeService.getStoreRank(id);
+        return ResponseEntity.ok(ApiResponse.success("Store rank retrieved successfully", rank));
+    }
+    
     // Admin endpoints
     @PutMapping("/{id}/verification")
     @PreAuthorize("hasRole('ADMIN')")
@@ -239,6 +288,26 @@ public class StoreController {
         }
     }
     
+    @GetMapping("/my-store/stats")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<ApiResponse> getMyStoreStats() {
+        try {
+            Long sellerId = SecurityUtils.getCurrentUserId();
+            Store store = storeService.findBySellerId(sellerId);
+            
+            if (store == null) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Store not found"));
+            }
+            
+            StoreDashboardStatsResponse stats = storeService.getStoreDashboardStats(store.getId(), sellerId);
+            return ResponseEntity.ok(ApiResponse.success("Store statistics retrieved successfully", stats));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse> getStoreStats() {
@@ -276,7 +345,7 @@ public class StoreController {
             List<StoreAnalytics> analytics = storeService.getAnalyticsRange(store.getId(), sellerId, startDate, endDate);
             
             // Calculate summary stats
-            AnalyticsSummaryResponse summary = storeService.calculateAnalyticsSummary(analytics, startDate, endDate);
+            AnalyticsSummaryResponse summary = storeService.calculateAnalyticsSummary(store.getId(), startDate, endDate);
             
             StoreAnalyticsResponse response = new StoreAnalyticsResponse();
             response.setAnalytics(analytics);
@@ -288,4 +357,13 @@ public class StoreController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+    
+    // Conditional GETs are answered with 304 by Spring from the ETag on the response
+    private ResponseEntity<byte[]> storefrontResponse(StorefrontCache.Storefront storefront) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(storefront.etag())
+                .body(storefront.body());
+    }
 }
\ No newline at end of file
@@ -29,6 +29,8 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class WishlistController {
     
+    private static final int MAX_CHECK_PRODUCT_IDS = 500;
+    
     private final WishlistService wishlistService;
     
     @PostMapping
@@ -93,6 +95,24 @@ public class WishlistController {
         return ResponseEntity.ok(ApiResponse.success("Check completed", inWishlist));
     }
     
+    @GetMapping("/check")
+    @PreAuthorize("hasRole('BUYER')")
+    @Operation(summary = "Check products against wishlist", description = "Returns which of the given product IDs are in the user's wishlist")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Check completed")
+    })
+    public ResponseEntity<ApiResponse> findWishlistedProducts(
+            @Parameter(description = "Product IDs to check") @RequestParam List<Long> productIds) {
+        
+        if (productIds.size() > MAX_CHECK_PRODUCT_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("At most " + MAX_CHECK_PRODUCT_IDS + " product IDs can be checked at once"));
+        }
+        Long userId = SecurityUtils.getCurrentUserId();
+        List<Long> wishlisted = wishlistService.findWishlistedProducts(userId, productIds);
+        return ResponseEntity.ok(ApiResponse.success("Check completed", wishlisted));
+    }
+    
     @GetMapping("/product-ids")
     @PreAuthorize("hasRole('BUYER')")
     @Operation(summary = "Get wishlist product IDs", description = "Retrieves all product IDs in the user's wishlist")
@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkOrderStatusRequest {
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 5000, message = "At most 5000 orders can be updated per request")
+    private List<Long> orderIds;
+    
+    @NotBlank(message = "Status is required")
+    private String status;
+}
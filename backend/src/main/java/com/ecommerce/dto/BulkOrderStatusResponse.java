@@ -0,0 +1,30 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusResponse {
+    private String targetStatus;
+    private int requested;
+    private int updated;
+    private int failed;
+    private List<OrderResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderResult {
+        private Long orderId;
+        private boolean success;
+        private String previousStatus;
+        private String message;
+    }
+}
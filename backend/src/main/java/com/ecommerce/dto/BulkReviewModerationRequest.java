@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkReviewModerationRequest {
+    @NotEmpty(message = "At least one review ID is required")
+    @Size(max = 5000, message = "At most 5000 reviews can be moderated per request")
+    private List<Long> reviewIds;
+    
+    @NotBlank(message = "Status is required")
+    private String status;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkReviewModerationResponse {
+    private String targetStatus;
+    private int requested;
+    private int updated;
+    private int unchanged; // already in the target status
+    private int notFound;
+}
@@ -28,6 +28,7 @@ public class CategoryDto {
     
     // Additional fields
     private Integer productCount;
+    private Integer subtreeProductCount; // active products here and in all subcategories
     private List<CategoryDto> children;
     
     public static CategoryDto fromCategory(Category category) {
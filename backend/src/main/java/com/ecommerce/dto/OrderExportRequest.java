@@ -0,0 +1,26 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderExportRequest {
+    private Long storeId;
+    private LocalDateTime createdFrom; // inclusive
+    private LocalDateTime createdTo;   // exclusive
+    private Order.OrderStatus status;
+    @Builder.Default
+    private boolean includeItems = true;
+    @Builder.Default
+    private boolean includeAddresses = false;
+    /** Read from the archive tables instead of the hot ones. */
+    private boolean archived;
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order item line joined with its order (and optionally the shipping address),
+ * as streamed by {@code OrderMapper.streamStoreOrderExport}.
+ */
+@Data
+public class OrderExportRow {
+    // Order
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private String status;
+    private String paymentStatus;
+    private String paymentMethod;
+    private BigDecimal subtotalAmount;
+    private BigDecimal taxAmount;
+    private BigDecimal shippingAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime cancelledAt;
+
+    // Item
+    private Long itemId;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal priceAtTime;
+    private BigDecimal totalPrice;
+
+    // Shipping address
+    private String shipFirstName;
+    private String shipLastName;
+    private String shipPhone;
+    private String shipStreet;
+    private String shipCity;
+    private String shipState;
+    private String shipPostalCode;
+    private String shipCountry;
+}
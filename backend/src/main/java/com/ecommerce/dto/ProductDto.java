@@ -20,6 +20,7 @@ public class ProductDto {
     private Long id;
     private Long sellerId;
     private String sellerName;
+    private Long storeId;
     private Long categoryId;
     private String categoryName;
     private String categorySlug;
@@ -86,6 +87,7 @@ public class ProductDto {
         ProductDto dto = ProductDto.builder()
                 .id(product.getId())
                 .sellerId(product.getSellerId())
+                .storeId(product.getStoreId())
                 .categoryId(product.getCategoryId())
                 .name(product.getName())
                 .slug(product.getSlug())
@@ -22,6 +22,7 @@ public class ProductReviewDto {
     private String comment;
     private Boolean isVerifiedPurchase;
     private String status;
+    private Integer helpfulCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -40,6 +41,7 @@ public class ProductReviewDto {
                 .comment(review.getComment())
                 .isVerifiedPurchase(review.getIsVerifiedPurchase())
                 .status(review.getStatus() != null ? review.getStatus().name() : null)
+                .helpfulCount(review.getHelpfulCount())
                 .createdAt(review.getCreatedAt())
                 .updatedAt(review.getUpdatedAt())
                 .build();
@@ -0,0 +1,12 @@
+package com.ecommerce.dto;
+
+/**
+ * Orderings offered by review listings. Ties are broken by review id so keyset cursors
+ * are stable.
+ */
+public enum ReviewSort {
+    NEWEST,
+    HIGHEST_RATED,
+    LOWEST_RATED,
+    MOST_HELPFUL
+}
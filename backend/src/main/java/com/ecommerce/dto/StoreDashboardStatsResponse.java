@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoreDashboardStatsResponse {
+    private Long storeId;
+    private Long totalOrders;
+    private BigDecimal totalRevenue;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoreRankResponse {
+    private Long storeId;
+    private Integer rank; // null when the store is not on the top-rated leaderboard
+    private Integer rankedStores;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Store;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything a store page renders: the store with seller, customization and operating
+ * hours, plus its first page of active products.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorefrontResponse {
+    private Store store;
+    private List<ProductDto> products;
+}
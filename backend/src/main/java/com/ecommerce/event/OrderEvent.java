@@ -0,0 +1,27 @@
+package com.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable order lifecycle event as delivered by {@link OrderEventBus}.
+ * The outbox id is stable across redeliveries and can be used for de-duplication.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrderEvent {
+    private final Long outboxId;
+    private final OrderEventType type;
+    private final Long orderId;
+    private final Map<String, Object> payload;
+    private final LocalDateTime occurredAt;
+
+    public Object get(String key) {
+        return payload != null ? payload.get(key) : null;
+    }
+}
@@ -0,0 +1,259 @@
+package com.ecommerce.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process event bus for order lifecycle events.
+ *
+ * Events are hashed by order id onto a fixed set of partitions. Each partition is a
+ * single-producer/single-consumer ring buffer drained by its own thread, which calls
+ * every listener in turn, so events of one order are always delivered in order.
+ * The only producer is {@link OutboxRelay}; once all listeners have seen an event its
+ * outbox id is handed back through {@link #drainDelivered} so the relay can mark the
+ * row published. An event a listener still fails on after {@code max-delivery-attempts}
+ * quick retries is handed back through {@link #drainFailed} instead, and the relay
+ * delivers it again later. Anything not acknowledged before a crash is relayed again on
+ * restart.
+ */
+@Slf4j
+@Component
+public class OrderEventBus {
+
+    private final ObjectProvider<OrderEventListener> listenerProvider;
+    private final MeterRegistry meterRegistry;
+    private final int partitionCount;
+    private final int ringSize;
+    private final int maxDeliveryAttempts;
+
+    private final List<OrderEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+    private final Queue<DeliveryFailure> failed = new ConcurrentLinkedQueue<>();
+    private Partition[] partitions;
+    private Timer deliveryLatency;
+    private volatile boolean listenersResolved;
+    private volatile boolean running;
+
+    public OrderEventBus(ObjectProvider<OrderEventListener> listenerProvider,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.events.partitions:8}") int partitionCount,
+                         @Value("${app.events.ring-size:4096}") int ringSize,
+                         @Value("${app.events.max-delivery-attempts:3}") int maxDeliveryAttempts) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("app.events.ring-size must be a power of two");
+        }
+        this.listenerProvider = listenerProvider;
+        this.meterRegistry = meterRegistry;
+        this.partitionCount = partitionCount;
+        this.ringSize = ringSize;
+        this.maxDeliveryAttempts = maxDeliveryAttempts;
+    }
+
+    @PostConstruct
+    public void start() {
+        deliveryLatency = Timer.builder("order.events.delivery.latency")
+                .description("Time from outbox write to delivery to all listeners")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        partitions = new Partition[partitionCount];
+        running = true;
+        for (int i = 0; i < partitionCount; i++) {
+            Partition partition = new Partition(i, ringSize);
+            partitions[i] = partition;
+            Gauge.builder("order.events.consumer.lag", partition, Partition::backlog)
+                    .description("Events published to the partition but not yet delivered")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+            Thread thread = new Thread(partition, "order-events-" + i);
+            thread.setDaemon(true);
+            partition.consumer = thread;
+            thread.start();
+        }
+        log.info("Order event bus started with {} partitions of {} slots", partitionCount, ringSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.consumer);
+        }
+    }
+
+    /**
+     * Registers a listener in addition to the {@link OrderEventListener} beans.
+     */
+    public void subscribe(OrderEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Hands an event to its partition, waiting while the ring is full.
+     * Must only be called from the relay thread (single producer).
+     *
+     * @return false if the bus is shutting down and the event was not accepted
+     */
+    boolean publish(OrderEvent event) {
+        Partition partition = partitions[Math.floorMod(Long.hashCode(event.getOrderId()), partitionCount)];
+        return partition.offer(event);
+    }
+
+    /**
+     * Moves the outbox ids of fully delivered events into the given collection.
+     */
+    int drainDelivered(Collection<Long> into) {
+        int count = 0;
+        Long id;
+        while ((id = delivered.poll()) != null) {
+            into.add(id);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Moves the events some listener gave up on into the given collection.
+     */
+    int drainFailed(Collection<DeliveryFailure> into) {
+        int count = 0;
+        DeliveryFailure failure;
+        while ((failure = failed.poll()) != null) {
+            into.add(failure);
+            count++;
+        }
+        return count;
+    }
+
+    public long getBacklog() {
+        long total = 0;
+        for (Partition partition : partitions) {
+            total += partition.backlog();
+        }
+        return total;
+    }
+
+    private List<OrderEventListener> listeners() {
+        // Resolved lazily so listener beans may depend on services that are still being wired
+        if (!listenersResolved) {
+            synchronized (listeners) {
+                if (!listenersResolved) {
+                    listenerProvider.orderedStream().forEach(listeners::add);
+                    listenersResolved = true;
+                }
+            }
+        }
+        return listeners;
+    }
+
+    private void deliver(OrderEvent event) {
+        Exception lastFailure = null;
+        for (OrderEventListener listener : listeners()) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    listener.onEvent(event);
+                    break;
+                } catch (Exception e) {
+                    if (attempt >= maxDeliveryAttempts) {
+                        log.error("Listener {} failed on event {} after {} attempts",
+                                listener.getName(), event.getOutboxId(), attempt, e);
+                        Counter.builder("order.events.listener.failures")
+                                .tag("listener", listener.getName())
+                                .register(meterRegistry)
+                                .increment();
+                        lastFailure = e;
+                        break;
+                    }
+                    // Simple linear backoff; keeps the partition moving under persistent failure
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50L * attempt));
+                }
+            }
+        }
+        if (lastFailure != null) {
+            // Redelivered to every listener later, so the ones that succeeded see it twice
+            failed.add(new DeliveryFailure(event.getOutboxId(), lastFailure.toString()));
+            return;
+        }
+        if (event.getOccurredAt() != null) {
+            deliveryLatency.record(Duration.between(event.getOccurredAt(), LocalDateTime.now()));
+        }
+        delivered.add(event.getOutboxId());
+    }
+
+    record DeliveryFailure(Long outboxId, String error) {
+    }
+
+    private final class Partition implements Runnable {
+        private final int index;
+        private final OrderEvent[] ring;
+        private final int mask;
+        /** Next sequence to write; advanced by the producer only. */
+        private final AtomicLong head = new AtomicLong();
+        /** Next sequence to read; advanced by the consumer only. */
+        private final AtomicLong tail = new AtomicLong();
+        private volatile Thread consumer;
+
+        Partition(int index, int size) {
+            this.index = index;
+            this.ring = new OrderEvent[size];
+            this.mask = size - 1;
+        }
+
+        boolean offer(OrderEvent event) {
+            long seq = head.get();
+            while (seq - tail.get() >= ring.length) {
+                if (!running) {
+                    return false;
+                }
+                LockSupport.parkNanos(100_000);
+            }
+            ring[(int) (seq & mask)] = event;
+            head.lazySet(seq + 1);
+            LockSupport.unpark(consumer);
+            return true;
+        }
+
+        long backlog() {
+            return head.get() - tail.get();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long seq = tail.get();
+                if (seq == head.get()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                    continue;
+                }
+                int slot = (int) (seq & mask);
+                OrderEvent event = ring[slot];
+                ring[slot] = null;
+                try {
+                    deliver(event);
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error delivering event on partition {}", index, e);
+                }
+                tail.lazySet(seq + 1);
+            }
+        }
+    }
+}
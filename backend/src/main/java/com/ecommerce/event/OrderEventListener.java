@@ -0,0 +1,21 @@
+package com.ecommerce.event;
+
+/**
+ * Consumer of order lifecycle events. Any Spring bean implementing this interface
+ * is subscribed to {@link OrderEventBus} automatically.
+ *
+ * Delivery is at-least-once and ordered per order id, so implementations must be
+ * idempotent (e.g. keyed on {@link OrderEvent#getOutboxId()}). An event some listener
+ * kept failing on is redelivered to every listener after a backoff, by which time later
+ * events of the same order may already have arrived. A listener runs on
+ * the bus partition thread; a slow listener delays other events of the same
+ * partition but never the checkout request that produced them.
+ */
+public interface OrderEventListener {
+
+    void onEvent(OrderEvent event) throws Exception;
+
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.event;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_CANCELLED,
+    ORDER_REFUNDED,
+    PAYMENT_COMPLETED,
+    PAYMENT_FAILED
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.event;
+
+import com.ecommerce.mapper.OutboxEventMapper;
+import com.ecommerce.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls pending rows from the {@code outbox_events} table and publishes them to the
+ * {@link OrderEventBus}. Rows are marked published only after every listener has
+ * processed the event, which gives at-least-once delivery across restarts.
+ *
+ * The relay keeps a cursor on the last dispatched id so each poll is a short index
+ * range scan. Because auto-increment ids can commit out of order, a periodic sweep
+ * pages from id 0 up to the cursor and picks up any row that committed behind it.
+ *
+ * An event a listener gives up on stays pending with exponential backoff on
+ * {@code next_attempt_at}; the sweep relays it again once it is due. After
+ * {@code app.events.max-redeliveries} attempts it is marked DEAD and left for inspection.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventMapper outboxEventMapper;
+    private final OrderEventBus eventBus;
+    private final int batchSize;
+    private final int sweepEvery;
+    private final int maxRedeliveries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    /** Outbox ids handed to the bus whose outcome has not been written yet, with their attempts so far. */
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private long cursor;
+    private int pollsSinceSweep;
+
+    public OutboxRelay(OutboxEventMapper outboxEventMapper, OrderEventBus eventBus, MeterRegistry meterRegistry,
+                       @Value("${app.events.relay-batch-size:500}") int batchSize,
+                       @Value("${app.events.relay-sweep-every:100}") int sweepEvery,
+                       @Value("${app.events.max-redeliveries:10}") int maxRedeliveries,
+                       @Value("${app.events.initial-backoff:5s}") Duration initialBackoff,
+                       @Value("${app.events.max-backoff:10m}") Duration maxBackoff) {
+        this.outboxEventMapper = outboxEventMapper;
+        this.eventBus = eventBus;
+        this.batchSize = batchSize;
+        this.sweepEvery = sweepEvery;
+        this.maxRedeliveries = maxRedeliveries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        Gauge.builder("order.events.outbox.in_flight", inFlight, Map::size)
+                .description("Outbox events relayed but not yet acknowledged by all listeners")
+                .register(meterRegistry);
+        this.retried = Counter.builder("order.events.outbox.retried")
+                .description("Outbox events rescheduled after a listener gave up on them")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("order.events.outbox.dead")
+                .description("Outbox events marked DEAD after exhausting their redeliveries")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.relay-interval-ms:200}")
+    public void relay() {
+        acknowledgeDelivered();
+        rescheduleFailed();
+
+        boolean sweep = ++pollsSinceSweep >= sweepEvery;
+        if (sweep) {
+            pollsSinceSweep = 0;
+        }
+
+        // A sweep starts from 0 and pages until it is past the cursor, then keeps going like a normal poll
+        long after = sweep ? 0 : cursor;
+        List<OutboxEvent> pending;
+        do {
+            pending = outboxEventMapper.findPendingAfter(after, batchSize);
+            for (OutboxEvent row : pending) {
+                after = row.getId();
+                OrderEvent event = toOrderEvent(row);
+                if (event == null) {
+                    outboxEventMapper.markPublished(List.of(row.getId()));
+                    continue;
+                }
+                if (inFlight.putIfAbsent(row.getId(), row.getAttempts() != null ? row.getAttempts() : 0) != null) {
+                    continue;
+                }
+                if (!eventBus.publish(event)) {
+                    inFlight.remove(row.getId());
+                    return;
+                }
+                cursor = Math.max(cursor, row.getId());
+            }
+        } while (pending.size() == batchSize);
+
+        acknowledgeDelivered();
+        rescheduleFailed();
+    }
+
+    @Scheduled(cron = "${app.events.outbox-cleanup-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxEventMapper.deletePublishedBefore(before, 5000);
+            total += deleted;
+        } while (deleted == 5000);
+        if (total > 0) {
+            log.info("Purged {} published outbox events", total);
+        }
+    }
+
+    private void acknowledgeDelivered() {
+        List<Long> ids = new ArrayList<>();
+        if (eventBus.drainDelivered(ids) == 0) {
+            return;
+        }
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            outboxEventMapper.markPublished(chunk);
+            chunk.forEach(inFlight::remove);
+        }
+    }
+
+    private void rescheduleFailed() {
+        List<OrderEventBus.DeliveryFailure> failures = new ArrayList<>();
+        if (eventBus.drainFailed(failures) == 0) {
+            return;
+        }
+        for (OrderEventBus.DeliveryFailure failure : failures) {
+            Integer previous = inFlight.get(failure.outboxId());
+            int attempts = (previous != null ? previous : 0) + 1;
+            String error = truncate(failure.error());
+            if (attempts >= maxRedeliveries) {
+                outboxEventMapper.markDead(failure.outboxId(), error);
+                deadLettered.increment();
+                log.error("Giving up on outbox event {} after {} attempts: {}", failure.outboxId(), attempts, error);
+            } else {
+                outboxEventMapper.markRetry(failure.outboxId(), LocalDateTime.now().plus(backoff(attempts)), error);
+                retried.increment();
+                log.warn("Outbox event {} failed (attempt {}), will relay again: {}", failure.outboxId(), attempts, error);
+            }
+            // Only released once the row is rescheduled, so the sweep cannot pick it up early
+            inFlight.remove(failure.outboxId());
+        }
+    }
+
+    Duration backoff(int attempts) {
+        // initial, 2x, 4x, ... capped; shift bounded so it cannot overflow
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private OrderEvent toOrderEvent(OutboxEvent row) {
+        OrderEventType type;
+        try {
+            type = OrderEventType.valueOf(row.getEventType());
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping outbox row {} with unknown event type {}", row.getId(), row.getEventType());
+            return null;
+        }
+        return new OrderEvent(row.getId(), type, row.getAggregateId(), row.getPayload(), row.getCreatedAt());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+/**
+ * Maintains {@code category_closure}, which holds every ancestor/descendant pair of the
+ * category hierarchy so ancestry checks and subtree filters are single index lookups.
+ */
+@Mapper
+public interface CategoryClosureMapper {
+
+    /**
+     * Adds the paths of a new leaf category: itself at depth 0 plus one row per
+     * ancestor of its parent. A null parent yields just the self row.
+     */
+    @Insert("INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestor_id, #{categoryId}, depth + 1 FROM category_closure WHERE descendant_id = #{parentId} " +
+            "UNION ALL SELECT #{categoryId}, #{categoryId}, 0")
+    void insertPaths(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    /**
+     * Cuts a subtree loose from its current ancestors, keeping the paths inside it.
+     */
+    @Delete("DELETE a FROM category_closure a " +
+            "JOIN category_closure d ON a.descendant_id = d.descendant_id " +
+            "LEFT JOIN category_closure x ON x.ancestor_id = d.ancestor_id AND x.descendant_id = a.ancestor_id " +
+            "WHERE d.ancestor_id = #{categoryId} AND x.ancestor_id IS NULL")
+    int detachSubtree(@Param("categoryId") Long categoryId);
+
+    /**
+     * Links a detached subtree under a new parent: every ancestor of the parent becomes
+     * an ancestor of every node in the subtree.
+     */
+    @Insert("INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT up.ancestor_id, down.descendant_id, up.depth + down.depth + 1 " +
+            "FROM category_closure up JOIN category_closure down " +
+            "WHERE up.descendant_id = #{parentId} AND down.ancestor_id = #{categoryId}")
+    int attachSubtree(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    @Select("SELECT EXISTS(SELECT 1 FROM category_closure " +
+            "WHERE ancestor_id = #{ancestorId} AND descendant_id = #{descendantId} AND depth > 0)")
+    boolean isDescendant(@Param("descendantId") Long descendantId, @Param("ancestorId") Long ancestorId);
+}
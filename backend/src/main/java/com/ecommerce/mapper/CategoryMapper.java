@@ -52,12 +52,6 @@ public interface CategoryMapper {
     @Delete("DELETE FROM categories WHERE id = #{id}")
     void delete(Long id);
     
-    @Select("SELECT c.*, COUNT(p.id) as product_count FROM categories c " +
-            "LEFT JOIN products p ON c.id = p.category_id AND p.status = 'ACTIVE' " +
-            "WHERE c.id = #{id} GROUP BY c.id")
-    @ResultMap("categoryResultMap")
-    Category findByIdWithProductCount(Long id);
-    
     @Select("SELECT EXISTS(SELECT 1 FROM products WHERE category_id = #{categoryId})")
     boolean hasProducts(Long categoryId);
     
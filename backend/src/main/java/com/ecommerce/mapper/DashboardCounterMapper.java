@@ -0,0 +1,45 @@
+package com.ecommerce.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Persists snapshots of the in-memory dashboard counters in {@code dashboard_counters}.
+ */
+@Mapper
+public interface DashboardCounterMapper {
+
+    @Select("SELECT store_id, name, value FROM dashboard_counters")
+    List<CounterRow> findAll();
+
+    @Insert("<script>" +
+            "INSERT INTO dashboard_counters (store_id, name, value) VALUES " +
+            "<foreach collection='rows' item='row' separator=','>(#{row.storeId}, #{row.name}, #{row.value})</foreach> " +
+            "ON DUPLICATE KEY UPDATE value = VALUES(value)" +
+            "</script>")
+    void upsertAll(@Param("rows") List<CounterRow> rows);
+
+    class CounterRow {
+        private Long storeId;
+        private String name;
+        private BigDecimal value;
+        
+        public CounterRow() {
+        }
+        
+        public CounterRow(Long storeId, String name, BigDecimal value) {
+            this.storeId = storeId;
+            this.name = name;
+            this.value = value;
+        }
+        
+        public Long getStoreId() { return storeId; }
+        public void setStoreId(Long storeId) { this.storeId = storeId; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public BigDecimal getValue() { return value; }
+        public void setValue(BigDecimal value) { this.value = value; }
+    }
+}
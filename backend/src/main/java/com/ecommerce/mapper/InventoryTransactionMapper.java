@@ -15,6 +15,16 @@ public interface InventoryTransactionMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(InventoryTransaction transaction);
     
+    @Insert("<script>" +
+            "INSERT INTO inventory_transactions (product_id, variant_id, transaction_type, " +
+            "quantity, reference_type, reference_id, notes, created_by) VALUES " +
+            "<foreach collection='transactions' item='t' separator=','>" +
+            "(#{t.productId}, #{t.variantId}, #{t.transactionType}, #{t.quantity}, " +
+            "#{t.referenceType}, #{t.referenceId}, #{t.notes}, #{t.createdBy})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("transactions") List<InventoryTransaction> transactions);
+    
     @Select("SELECT * FROM inventory_transactions WHERE product_id = #{productId} " +
             "ORDER BY created_at DESC")
     @Results({
@@ -0,0 +1,70 @@
+package com.ecommerce.mapper;
+
+import com.ecommerce.model.OutboundEmail;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface MailOutboxMapper {
+
+    @Insert("INSERT INTO mail_outbox " +
+            "(to_address, subject, body, html_body, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (#{toAddress}, #{subject}, #{body}, #{htmlBody}, 'PENDING', 0, NOW(3), NOW(3))")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(OutboundEmail email);
+
+    @Insert("<script>" +
+            "INSERT INTO mail_outbox " +
+            "(to_address, subject, body, html_body, status, attempts, next_attempt_at, created_at) VALUES " +
+            "<foreach collection='emails' item='e' separator=','>" +
+            "(#{e.toAddress}, #{e.subject}, #{e.body}, #{e.htmlBody}, 'PENDING', 0, NOW(3), NOW(3))" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("emails") List<OutboundEmail> emails);
+
+    /**
+     * Locks due rows; rows locked by another dispatcher are skipped, not waited on.
+     */
+    @Select("SELECT * FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= NOW(3) " +
+            "ORDER BY next_attempt_at LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<OutboundEmail> lockDue(@Param("limit") int limit);
+
+    /**
+     * Pushes claimed rows out of reach of other dispatchers while they are being sent.
+     * If this node dies mid-send the rows become due again once the lease expires.
+     * Each claim bumps {@code attempts}, which the writes below check so that a dispatcher
+     * whose lease ran out cannot overwrite the outcome recorded by the one that took over.
+     */
+    @Update("<script>" +
+            "UPDATE mail_outbox SET attempts = attempts + 1, next_attempt_at = #{leaseUntil} " +
+            "WHERE id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int lease(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Marks emails sent, skipping any whose {@code attempts} no longer matches the claim.
+     */
+    @Update("<script>" +
+            "UPDATE mail_outbox SET status = 'SENT', sent_at = NOW(3), last_error = NULL " +
+            "WHERE (id, attempts) IN " +
+            "<foreach collection='emails' item='e' open='(' separator=',' close=')'>(#{e.id}, #{e.attempts})</foreach>" +
+            "</script>")
+    int markSent(@Param("emails") List<OutboundEmail> emails);
+
+    @Update("UPDATE mail_outbox SET next_attempt_at = #{nextAttemptAt}, last_error = #{error} " +
+            "WHERE id = #{id} AND attempts = #{attempts}")
+    int markRetry(@Param("id") Long id, @Param("attempts") int attempts,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Update("UPDATE mail_outbox SET status = 'FAILED', last_error = #{error} " +
+            "WHERE id = #{id} AND attempts = #{attempts}")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+
+    @Select("SELECT COUNT(*) FROM mail_outbox WHERE status = 'PENDING'")
+    long countPending();
+
+    @Delete("DELETE FROM mail_outbox WHERE status = 'SENT' AND sent_at < #{before} LIMIT #{limit}")
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
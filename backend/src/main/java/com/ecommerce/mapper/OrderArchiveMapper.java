@@ -0,0 +1,54 @@
+package com.ecommerce.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OrderArchiveMapper {
+
+    @Select("SELECT id FROM orders " +
+            "WHERE status IN ('DELIVERED', 'CANCELLED', 'REFUNDED') AND updated_at < #{closedBefore} " +
+            "ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<Long> lockArchivableOrderIds(@Param("closedBefore") LocalDateTime closedBefore, @Param("limit") int limit);
+
+    @Insert("<script>" +
+            "INSERT INTO orders_archive SELECT * FROM orders WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyOrders(@Param("ids") List<Long> ids);
+
+    @Insert("<script>" +
+            "INSERT INTO order_items_archive SELECT * FROM order_items WHERE order_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyOrderItems(@Param("ids") List<Long> ids);
+
+    @Insert("<script>" +
+            "INSERT INTO payments_archive SELECT * FROM payments WHERE order_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyPayments(@Param("ids") List<Long> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM payments WHERE order_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deletePayments(@Param("ids") List<Long> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM order_items WHERE order_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteOrderItems(@Param("ids") List<Long> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM orders WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteOrders(@Param("ids") List<Long> ids);
+
+    @Select("SELECT COUNT(*) FROM orders_archive")
+    long countArchivedOrders();
+}
@@ -1,9 +1,12 @@
 package com.ecommerce.mapper;
 
+import com.ecommerce.dto.OrderExportRequest;
+import com.ecommerce.dto.OrderExportRow;
 import com.ecommerce.model.Order;
 import com.ecommerce.model.OrderItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +20,7 @@ public interface OrderMapper {
     void updateOrder(Order order);
     void deleteOrderById(@Param("id") Long id);
     Optional<Order> findOrderById(@Param("id") Long id);
+    List<Order> findOrdersByIdsForUpdate(@Param("ids") List<Long> ids, @Param("storeId") Long storeId);
     Optional<Order> findOrderByOrderNumber(@Param("orderNumber") String orderNumber);
     Optional<Order> findOrderWithItems(@Param("id") Long id);
     Optional<Order> findOrderWithItemsAndAddresses(@Param("id") Long id);
@@ -29,12 +33,16 @@ public interface OrderMapper {
     Optional<OrderItem> findOrderItemById(@Param("id") Long id);
     List<OrderItem> findOrderItemsByOrderId(@Param("orderId") Long orderId);
     List<OrderItem> findOrderItemsWithProductsByOrderId(@Param("orderId") Long orderId);
+    List<OrderItem> findOrderItemsByOrderIds(@Param("orderIds") List<Long> orderIds);
     
     // Order status management
     void updateOrderStatus(@Param("id") Long id, @Param("status") Order.OrderStatus status);
     void updatePaymentStatus(@Param("id") Long id, @Param("paymentStatus") Order.PaymentStatus paymentStatus);
     void markOrderAsDelivered(@Param("id") Long id, @Param("deliveredAt") LocalDateTime deliveredAt);
     void markOrderAsCancelled(@Param("id") Long id, @Param("cancelledAt") LocalDateTime cancelledAt);
+    int updateOrderStatusBatch(@Param("ids") List<Long> ids,
+                               @Param("fromStatus") Order.OrderStatus fromStatus,
+                               @Param("status") Order.OrderStatus status);
     
     // User order queries
     List<Order> findOrdersByUserId(@Param("userId") Long userId);
@@ -52,6 +60,9 @@ public interface OrderMapper {
     List<Order> findOrdersByStoreIdAndStatus(@Param("storeId") Long storeId,
                                             @Param("status") Order.OrderStatus status);
     
+    // Streaming export (forward-only cursor, one row per order item of the store)
+    Cursor<OrderExportRow> streamStoreOrderExport(OrderExportRequest request);
+    
     // Admin order queries
     List<Order> findAllOrders();
     List<Order> findAllOrdersWithPagination(@Param("offset") int offset, @Param("limit") int limit);
@@ -66,11 +77,14 @@ public interface OrderMapper {
     
     // Order statistics
     long countOrdersByUserId(@Param("userId") Long userId);
-    long countOrdersByStoreId(@Param("storeId") Long storeId);
     long countAllOrders();
     long countOrdersByStatus(@Param("status") Order.OrderStatus status);
     long countOrdersByPaymentStatus(@Param("paymentStatus") Order.PaymentStatus paymentStatus);
-    java.math.BigDecimal getTotalRevenueByStoreId(@Param("storeId") Long storeId);
+    /**
+     * Per store: orders containing its items and the item total of those paid, hot and
+     * archived orders together.
+     */
+    List<StoreOrderTotals> sumOrdersGroupByStore();
     java.math.BigDecimal getTotalRevenueByUserId(@Param("userId") Long userId);
     java.math.BigDecimal getTotalRevenue();
     
@@ -79,10 +93,22 @@ public interface OrderMapper {
     List<Order> findRecentOrdersByStoreId(@Param("storeId") Long storeId, @Param("limit") int limit);
     List<Order> findRecentOrders(@Param("limit") int limit);
     
-    // Order number generation
-    String generateOrderNumber();
+    // Order number lookup (numbers are generated by OrderNumberGenerator)
     boolean existsByOrderNumber(@Param("orderNumber") String orderNumber);
     
     // Check existence
     boolean existsOrderById(@Param("id") Long id);
-}
\ No newline at end of file
+    
+    class StoreOrderTotals {
+        private Long storeId;
+        private Long orderCount;
+        private java.math.BigDecimal paidRevenue;
+        
+        public Long getStoreId() { return storeId; }
+        public void setStoreId(Long storeId) { this.storeId = storeId; }
+        public Long getOrderCount() { return orderCount; }
+        public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+        public java.math.BigDecimal getPaidRevenue() { return paidRevenue; }
+        public void setPaidRevenue(java.math.BigDecimal paidRevenue) { this.paidRevenue = paidRevenue; }
+    }
+}
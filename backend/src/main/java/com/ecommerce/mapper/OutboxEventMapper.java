@@ -0,0 +1,65 @@
+package com.ecommerce.mapper;
+
+import com.ecommerce.handler.JsonTypeHandler;
+import com.ecommerce.model.OutboxEvent;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OutboxEventMapper {
+
+    @Insert("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, status, created_at) " +
+            "VALUES (#{aggregateType}, #{aggregateId}, #{eventType}, " +
+            "#{payload, typeHandler=com.ecommerce.handler.JsonTypeHandler}, 'PENDING', NOW(3))")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(OutboxEvent event);
+
+    @Insert("<script>" +
+            "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, status, created_at) VALUES " +
+            "<foreach collection='events' item='e' separator=','>" +
+            "(#{e.aggregateType}, #{e.aggregateId}, #{e.eventType}, " +
+            "#{e.payload, typeHandler=com.ecommerce.handler.JsonTypeHandler}, 'PENDING', NOW(3))" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("events") List<OutboxEvent> events);
+
+    @Select("SELECT * FROM outbox_events WHERE status = 'PENDING' AND id > #{afterId} " +
+            "AND next_attempt_at <= NOW(3) ORDER BY id LIMIT #{limit}")
+    @Results(id = "OutboxEventResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "aggregateType", column = "aggregate_type"),
+        @Result(property = "aggregateId", column = "aggregate_id"),
+        @Result(property = "eventType", column = "event_type"),
+        @Result(property = "payload", column = "payload", typeHandler = JsonTypeHandler.class),
+        @Result(property = "status", column = "status"),
+        @Result(property = "attempts", column = "attempts"),
+        @Result(property = "nextAttemptAt", column = "next_attempt_at"),
+        @Result(property = "lastError", column = "last_error"),
+        @Result(property = "createdAt", column = "created_at"),
+        @Result(property = "publishedAt", column = "published_at")
+    })
+    List<OutboxEvent> findPendingAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Update("<script>" +
+            "UPDATE outbox_events SET status = 'PUBLISHED', published_at = NOW(3) " +
+            "WHERE id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markPublished(@Param("ids") List<Long> ids);
+
+    @Update("UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = #{nextAttemptAt}, " +
+            "last_error = #{error} WHERE id = #{id} AND status = 'PENDING'")
+    int markRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                  @Param("error") String error);
+
+    @Update("UPDATE outbox_events SET status = 'DEAD', attempts = attempts + 1, last_error = #{error} " +
+            "WHERE id = #{id} AND status = 'PENDING'")
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    @Select("SELECT COUNT(*) FROM outbox_events WHERE status = 'PENDING'")
+    long countPending();
+
+    @Delete("DELETE FROM outbox_events WHERE status = 'PUBLISHED' AND published_at < #{before} LIMIT #{limit}")
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -3,6 +3,7 @@ package com.ecommerce.mapper;
 import com.ecommerce.model.Payment;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +25,12 @@ public interface PaymentMapper {
     Optional<Payment> findLatestPaymentByOrderId(@Param("orderId") Long orderId);
     Optional<Payment> findSuccessfulPaymentByOrderId(@Param("orderId") Long orderId);
     
+    // Payments of orders moved to the archive by OrderArchiveService (gateway_response is not read back)
+    @Select("SELECT id, order_id, payment_intent_id, amount, currency, payment_method, payment_status, " +
+            "transaction_id, payment_gateway, failure_reason, processed_at, created_at, updated_at " +
+            "FROM payments_archive WHERE order_id = #{orderId} ORDER BY created_at DESC, id DESC LIMIT 1")
+    Optional<Payment> findLatestArchivedPaymentByOrderId(@Param("orderId") Long orderId);
+    
     // Payment status management
     void updatePaymentStatus(@Param("id") Long id, @Param("paymentStatus") Payment.PaymentStatus paymentStatus);
     void updatePaymentTransaction(@Param("id") Long id, 
@@ -31,9 +31,19 @@ public interface ProductMapper {
     @ResultMap("productResultMap")
     List<Product> findBySellerId(Long sellerId);
     
-    @Select("SELECT * FROM products WHERE category_id = #{categoryId}")
+    @Select("SELECT * FROM products WHERE store_id = #{storeId} AND status = 'ACTIVE' " +
+            "ORDER BY featured DESC, created_at DESC LIMIT #{limit}")
     @ResultMap("productResultMap")
-    List<Product> findByCategoryId(Long categoryId);
+    List<Product> findActiveByStoreId(@Param("storeId") Long storeId, @Param("limit") int limit);
+    
+    /**
+     * Products in the category or any of its subcategories.
+     */
+    @Select("SELECT p.* FROM products p " +
+            "JOIN category_closure cc ON cc.descendant_id = p.category_id " +
+            "WHERE cc.ancestor_id = #{categoryId}")
+    @ResultMap("productResultMap")
+    List<Product> findByCategorySubtree(Long categoryId);
     
     @Select("SELECT p.*, " +
             "fsp.sale_price as flash_sale_price, " +
@@ -95,10 +105,17 @@ public interface ProductMapper {
     @Select("SELECT COUNT(*) FROM products WHERE category_id = #{categoryId}")
     Integer countByCategoryId(Long categoryId);
     
+    @Select("SELECT category_id, COUNT(*) as count FROM products WHERE status = 'ACTIVE' GROUP BY category_id")
+    @Results({
+        @Result(property = "categoryId", column = "category_id"),
+        @Result(property = "count", column = "count")
+    })
+    List<CategoryCount> countActiveGroupByCategory();
+    
     @Select("SELECT p.*, " +
-            "(SELECT AVG(rating) FROM product_reviews WHERE product_id = p.id AND status = 'APPROVED') as average_rating, " +
-            "(SELECT COUNT(*) FROM product_reviews WHERE product_id = p.id AND status = 'APPROVED') as review_count " +
-            "FROM products p WHERE p.id = #{id}")
+            "rs.rating_sum / NULLIF(rs.review_count, 0) as average_rating, " +
+            "COALESCE(rs.review_count, 0) as review_count " +
+            "FROM products p LEFT JOIN product_rating_stats rs ON rs.product_id = p.id WHERE p.id = #{id}")
     @ResultMap("productResultMap")
     Product findByIdWithStats(Long id);
     
@@ -111,4 +128,14 @@ public interface ProductMapper {
             "ORDER BY p.created_at DESC LIMIT #{limit}")
     @ResultMap("productResultMap")
     List<Product> findLatestProducts(Integer limit);
+    
+    class CategoryCount {
+        private Long categoryId;
+        private Integer count;
+        
+        public Long getCategoryId() { return categoryId; }
+        public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+        public Integer getCount() { return count; }
+        public void setCount(Integer count) { this.count = count; }
+    }
 }
\ No newline at end of file
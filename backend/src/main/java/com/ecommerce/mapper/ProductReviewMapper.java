@@ -3,14 +3,16 @@ package com.ecommerce.mapper;
 import com.ecommerce.model.ProductReview;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Mapper
 public interface ProductReviewMapper {
 
-    @Insert("INSERT INTO product_reviews (product_id, user_id, rating, title, comment, is_verified_purchase, status) " +
-            "VALUES (#{productId}, #{userId}, #{rating}, #{title}, #{comment}, #{isVerifiedPurchase}, #{status})")
+    @Insert("INSERT INTO product_reviews (product_id, user_id, rating, title, comment, content_hash, is_verified_purchase, status) " +
+            "VALUES (#{productId}, #{userId}, #{rating}, #{title}, #{comment}, #{contentHash}, #{isVerifiedPurchase}, #{status})")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(ProductReview review);
 
@@ -19,54 +21,125 @@ public interface ProductReviewMapper {
         @Result(property = "productId", column = "product_id"),
         @Result(property = "userId", column = "user_id"),
         @Result(property = "isVerifiedPurchase", column = "is_verified_purchase"),
+        @Result(property = "helpfulCount", column = "helpful_count"),
         @Result(property = "createdAt", column = "created_at"),
         @Result(property = "updatedAt", column = "updated_at")
     })
     ProductReview findById(Long id);
 
-    @Select("SELECT * FROM product_reviews WHERE product_id = #{productId} AND status = 'APPROVED' ORDER BY created_at DESC")
+    /**
+     * One page of reviews matching the non-null filters, ordered by {@code sort} (a
+     * {@code ReviewSort} name) with id as the tie-breaker. When {@code afterId} is set, only
+     * rows after that cursor position are returned: {@code afterCreatedAt} is the cursor key
+     * for NEWEST, {@code afterValue} for the rating and helpfulness sorts.
+     */
+    @Select({"<script>",
+            "SELECT * FROM product_reviews",
+            "<where>",
+            "<if test='productId != null'>AND product_id = #{productId}</if>",
+            "<if test='userId != null'>AND user_id = #{userId}</if>",
+            "<if test='status != null'>AND status = #{status}</if>",
+            "<if test='afterId != null'>",
+            "<choose>",
+            "<when test=\"sort == 'HIGHEST_RATED'\">AND (rating &lt; #{afterValue} OR (rating = #{afterValue} AND id &lt; #{afterId}))</when>",
+            "<when test=\"sort == 'LOWEST_RATED'\">AND (rating &gt; #{afterValue} OR (rating = #{afterValue} AND id &gt; #{afterId}))</when>",
+            "<when test=\"sort == 'MOST_HELPFUL'\">AND (helpful_count &lt; #{afterValue} OR (helpful_count = #{afterValue} AND id &lt; #{afterId}))</when>",
+            "<otherwise>AND (created_at &lt; #{afterCreatedAt} OR (created_at = #{afterCreatedAt} AND id &lt; #{afterId}))</otherwise>",
+            "</choose>",
+            "</if>",
+            "</where>",
+            "ORDER BY",
+            "<choose>",
+            "<when test=\"sort == 'HIGHEST_RATED'\">rating DESC, id DESC</when>",
+            "<when test=\"sort == 'LOWEST_RATED'\">rating ASC, id ASC</when>",
+            "<when test=\"sort == 'MOST_HELPFUL'\">helpful_count DESC, id DESC</when>",
+            "<otherwise>created_at DESC, id DESC</otherwise>",
+            "</choose>",
+            "LIMIT #{limit}",
+            "</script>"})
     @Results({
         @Result(property = "productId", column = "product_id"),
         @Result(property = "userId", column = "user_id"),
         @Result(property = "isVerifiedPurchase", column = "is_verified_purchase"),
+        @Result(property = "helpfulCount", column = "helpful_count"),
         @Result(property = "createdAt", column = "created_at"),
         @Result(property = "updatedAt", column = "updated_at")
     })
-    List<ProductReview> findByProductId(Long productId);
+    List<ProductReview> findPage(@Param("productId") Long productId,
+                                 @Param("userId") Long userId,
+                                 @Param("status") String status,
+                                 @Param("sort") String sort,
+                                 @Param("afterValue") Integer afterValue,
+                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                 @Param("afterId") Long afterId,
+                                 @Param("limit") int limit);
 
-    @Select("SELECT * FROM product_reviews WHERE user_id = #{userId} ORDER BY created_at DESC")
-    @Results({
-        @Result(property = "productId", column = "product_id"),
-        @Result(property = "userId", column = "user_id"),
-        @Result(property = "isVerifiedPurchase", column = "is_verified_purchase"),
-        @Result(property = "createdAt", column = "created_at"),
-        @Result(property = "updatedAt", column = "updated_at")
-    })
-    List<ProductReview> findByUserId(Long userId);
+    @Select("SELECT COUNT(*) > 0 FROM product_reviews WHERE product_id = #{productId} AND user_id = #{userId}")
+    boolean existsByProductIdAndUserId(Long productId, Long userId);
+
+    @Update("UPDATE product_reviews SET rating = #{rating}, title = #{title}, comment = #{comment}, " +
+            "content_hash = #{contentHash}, updated_at = NOW() WHERE id = #{id}")
+    void update(ProductReview review);
 
-    @Select("SELECT * FROM product_reviews WHERE status = #{status} ORDER BY created_at DESC")
+    @Select({"<script>",
+            "SELECT id, product_id, status FROM product_reviews WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "FOR UPDATE",
+            "</script>"})
     @Results({
+        @Result(property = "id", column = "id"),
         @Result(property = "productId", column = "product_id"),
-        @Result(property = "userId", column = "user_id"),
-        @Result(property = "isVerifiedPurchase", column = "is_verified_purchase"),
-        @Result(property = "createdAt", column = "created_at"),
-        @Result(property = "updatedAt", column = "updated_at")
+        @Result(property = "status", column = "status")
     })
-    List<ProductReview> findByStatus(String status);
+    List<ProductReview> findStatusByIdsForUpdate(@Param("ids") Collection<Long> ids);
 
-    @Select("SELECT COUNT(*) > 0 FROM product_reviews WHERE product_id = #{productId} AND user_id = #{userId}")
-    boolean existsByProductIdAndUserId(Long productId, Long userId);
+    /** Moves the reviews to {@code status}; reviews already in it are left alone. Returns rows changed. */
+    @Update({"<script>",
+            "UPDATE product_reviews SET status = #{status}, updated_at = NOW()",
+            "WHERE status &lt;&gt; #{status} AND id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int updateStatusBatch(@Param("ids") Collection<Long> ids, @Param("status") String status);
 
-    @Update("UPDATE product_reviews SET status = #{status}, updated_at = NOW() WHERE id = #{id}")
-    void updateStatus(@Param("id") Long id, @Param("status") String status);
+    /** Recomputes product_rating_stats for the given products from their approved reviews. */
+    @Insert({"<script>",
+            "INSERT INTO product_rating_stats (product_id, review_count, rating_sum)",
+            "SELECT p.id, COUNT(r.id), COALESCE(SUM(r.rating), 0)",
+            "FROM products p LEFT JOIN product_reviews r ON r.product_id = p.id AND r.status = 'APPROVED'",
+            "WHERE p.id IN",
+            "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "GROUP BY p.id",
+            "ON DUPLICATE KEY UPDATE review_count = VALUES(review_count), rating_sum = VALUES(rating_sum)",
+            "</script>"})
+    void refreshRatingStats(@Param("productIds") Collection<Long> productIds);
 
-    @Update("UPDATE product_reviews SET rating = #{rating}, title = #{title}, comment = #{comment}, updated_at = NOW() WHERE id = #{id}")
-    void update(ProductReview review);
+    /**
+     * Content hashes shared by pending reviews and written by at least {@code minAuthors}
+     * different users across all statuses.
+     */
+    @Select("SELECT content_hash FROM product_reviews " +
+            "WHERE content_hash IN (SELECT content_hash FROM product_reviews WHERE status = 'PENDING' AND content_hash IS NOT NULL) " +
+            "GROUP BY content_hash HAVING COUNT(DISTINCT user_id) >= #{minAuthors} LIMIT #{limit}")
+    List<String> findDuplicatePendingHashes(@Param("minAuthors") int minAuthors, @Param("limit") int limit);
+
+    @Select({"<script>",
+            "SELECT id FROM product_reviews WHERE status = 'PENDING' AND content_hash IN",
+            "<foreach collection='hashes' item='hash' open='(' separator=',' close=')'>#{hash}</foreach>",
+            "</script>"})
+    List<Long> findPendingIdsByContentHashes(@Param("hashes") Collection<String> hashes);
 
     @Delete("DELETE FROM product_reviews WHERE id = #{id}")
     void delete(Long id);
 
-    @Select("SELECT AVG(rating) as avgRating, COUNT(*) as totalReviews " +
-            "FROM product_reviews WHERE product_id = #{productId} AND status = 'APPROVED'")
+    /** Returns 1 when the vote was recorded, 0 when the user had already voted. */
+    @Insert("INSERT IGNORE INTO product_review_votes (review_id, user_id) VALUES (#{reviewId}, #{userId})")
+    int insertHelpfulVote(@Param("reviewId") Long reviewId, @Param("userId") Long userId);
+
+    // Leaves updated_at alone: a vote is not an edit of the review
+    @Update("UPDATE product_reviews SET helpful_count = helpful_count + 1, updated_at = updated_at WHERE id = #{id}")
+    void incrementHelpfulCount(Long id);
+
+    @Select("SELECT rs.rating_sum / NULLIF(rs.review_count, 0) as avgRating, COALESCE(rs.review_count, 0) as totalReviews " +
+            "FROM products p LEFT JOIN product_rating_stats rs ON rs.product_id = p.id WHERE p.id = #{productId}")
     Map<String, Object> getProductRatingStats(Long productId);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.ecommerce.mapper;
 
+import com.ecommerce.dto.StoreStatsResponse;
+import com.ecommerce.model.AnalyticsOrderLedger;
 import com.ecommerce.model.Store;
 import com.ecommerce.model.StoreAnalytics;
 import com.ecommerce.model.StoreCustomization;
@@ -8,6 +10,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,7 +49,6 @@ public interface StoreMapper {
     List<Store> findVerifiedStores();
     List<Store> findByCategory(@Param("categoryId") Long categoryId);
     List<Store> searchByName(@Param("searchTerm") String searchTerm);
-    List<Store> findTopRatedStores(@Param("limit") int limit);
     
     // Store customization
     void insertCustomization(StoreCustomization customization);
@@ -58,10 +60,22 @@ public interface StoreMapper {
     void updateOperatingHours(StoreOperatingHours hours);
     void deleteOperatingHours(Long id);
     List<StoreOperatingHours> findOperatingHoursByStoreId(Long storeId);
+    /** Timezone and operating hours of one store, or of every store with hours when storeId is null. */
+    List<Store> findStoreHours(@Param("storeId") Long storeId);
     
     // Analytics
     void insertAnalytics(StoreAnalytics analytics);
     void updateAnalytics(StoreAnalytics analytics);
+    void upsertAnalyticsDelta(StoreAnalytics delta);
+    void upsertAnalyticsRollupDelta(
+        @Param("delta") StoreAnalytics delta,
+        @Param("granularity") String granularity,
+        @Param("periodStart") LocalDate periodStart
+    );
+    int insertAppliedAnalyticsEvent(@Param("outboxId") Long outboxId);
+    AnalyticsOrderLedger lockAnalyticsOrderLedger(@Param("orderId") Long orderId);
+    void upsertAnalyticsOrderLedger(AnalyticsOrderLedger ledger);
+    int deleteAppliedAnalyticsEventsBefore(@Param("before") LocalDateTime before);
     Optional<StoreAnalytics> findAnalyticsByStoreAndDate(
         @Param("storeId") Long storeId,
         @Param("date") LocalDate date
@@ -71,12 +85,15 @@ public interface StoreMapper {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
+    StoreAnalytics sumAnalyticsBuckets(
+        @Param("storeId") Long storeId,
+        @Param("days") List<LocalDate> days,
+        @Param("weeks") List<LocalDate> weeks,
+        @Param("months") List<LocalDate> months
+    );
     
     // Statistics
-    Long countAll();
-    Long countActive();
-    Long countVerified();
-    Long countByVerificationStatus(Store.VerificationStatus status);
+    StoreStatsResponse countStoreTotals();
     
     // Check existence
     Boolean existsBySlug(String slug);
@@ -0,0 +1,24 @@
+package com.ecommerce.mapper;
+
+import com.ecommerce.model.TokenRevocation;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface TokenRevocationMapper {
+
+    @Insert("INSERT INTO token_revocations (user_id, epoch, updated_at) VALUES (#{userId}, 1, NOW(3)) " +
+            "ON DUPLICATE KEY UPDATE epoch = epoch + 1, updated_at = NOW(3)")
+    void bumpEpoch(@Param("userId") Long userId);
+
+    @Select("SELECT epoch FROM token_revocations WHERE user_id = #{userId}")
+    Integer findEpoch(@Param("userId") Long userId);
+
+    @Select("<script>" +
+            "SELECT user_id, epoch, updated_at FROM token_revocations " +
+            "<if test='since != null'>WHERE updated_at &gt;= #{since}</if>" +
+            "</script>")
+    List<TokenRevocation> findUpdatedSince(@Param("since") LocalDateTime since);
+}
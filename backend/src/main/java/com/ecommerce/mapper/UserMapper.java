@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,8 @@ public interface UserMapper {
     void update(User user);
     void deleteById(@Param("id") Long id);
     Optional<User> findById(@Param("id") Long id);
+    /** Id, first and last name of each existing user; ids must not be empty. */
+    List<User> findSummariesByIds(@Param("ids") Collection<Long> ids);
     List<User> findAll();
     
     // Authentication related queries
@@ -0,0 +1,71 @@
+package com.ecommerce.mapper;
+
+import com.ecommerce.model.WishlistAlert;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface WishlistAlertMapper {
+
+    /**
+     * Queues an alert unless one of the same type is still waiting for the product, so
+     * repeated edits before the fan-out starts collapse into a single notification.
+     */
+    @Insert("INSERT INTO wishlist_alerts (product_id, alert_type, previous_price, price, next_attempt_at) " +
+            "SELECT #{productId}, #{alertType}, #{previousPrice}, #{price}, #{nextAttemptAt} FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM wishlist_alerts WHERE product_id = #{productId} " +
+            "AND alert_type = #{alertType} AND status = 'PENDING')")
+    int insertUnlessPending(WishlistAlert alert);
+
+    /**
+     * Queues a FLASH_SALE alert for every product of sales that started after {@code since}
+     * and are running now. The unique (flash_sale_id, product_id) key makes repeat scans no-ops.
+     */
+    @Insert("INSERT IGNORE INTO wishlist_alerts " +
+            "(product_id, alert_type, previous_price, price, flash_sale_id, next_attempt_at) " +
+            "SELECT fsp.product_id, 'FLASH_SALE', fsp.original_price, fsp.sale_price, fs.id, NOW(3) " +
+            "FROM flash_sales fs JOIN flash_sale_products fsp ON fsp.flash_sale_id = fs.id " +
+            "WHERE fs.is_active = TRUE AND fs.start_time > #{since} " +
+            "AND fs.start_time <= NOW() AND fs.end_time > NOW()")
+    int insertFlashSaleAlerts(@Param("since") LocalDateTime since);
+
+    /**
+     * Locks due alerts, including PROCESSING ones whose lease ran out; rows locked by
+     * another matcher are skipped, not waited on.
+     */
+    @Select("SELECT * FROM wishlist_alerts WHERE status IN ('PENDING', 'PROCESSING') " +
+            "AND next_attempt_at <= NOW(3) ORDER BY next_attempt_at LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<WishlistAlert> lockDue(@Param("limit") int limit);
+
+    /**
+     * Claims an alert: marks it PROCESSING until {@code leaseUntil} and records the claim
+     * as its {@code attempts}, which later writes check to make sure the lease still holds.
+     */
+    @Update("UPDATE wishlist_alerts SET status = 'PROCESSING', attempts = #{attempts}, " +
+            "next_attempt_at = #{leaseUntil} WHERE id = #{id}")
+    int lease(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Records a sent page and extends the lease. Matches nothing once another matcher has
+     * claimed the alert, so the caller can drop the page instead of sending it twice.
+     */
+    @Update("UPDATE wishlist_alerts SET last_wishlist_id = #{lastWishlistId}, notified = notified + #{notified}, " +
+            "next_attempt_at = #{leaseUntil} WHERE id = #{id} AND status = 'PROCESSING' AND attempts = #{attempts}")
+    int advance(@Param("id") Long id, @Param("attempts") int attempts, @Param("lastWishlistId") long lastWishlistId,
+                @Param("notified") int notified, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Update("UPDATE wishlist_alerts SET status = 'DONE', completed_at = NOW(3) " +
+            "WHERE id = #{id} AND attempts = #{attempts}")
+    int markDone(@Param("id") Long id, @Param("attempts") int attempts);
+
+    @Update("UPDATE wishlist_alerts SET status = 'FAILED', completed_at = NOW(3) WHERE id = #{id}")
+    int markFailed(@Param("id") Long id);
+
+    @Select("SELECT COUNT(*) FROM wishlist_alerts WHERE status IN ('PENDING', 'PROCESSING')")
+    long countPending();
+
+    @Delete("DELETE FROM wishlist_alerts WHERE status = 'DONE' AND completed_at < #{before} LIMIT #{limit}")
+    int deleteDoneBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -14,13 +14,7 @@ public interface WishlistMapper {
     void insert(Wishlist wishlist);
 
     @Delete("DELETE FROM wishlist WHERE user_id = #{userId} AND product_id = #{productId}")
-    void deleteByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId);
-
-    @Select("SELECT EXISTS(SELECT 1 FROM wishlist WHERE user_id = #{userId} AND product_id = #{productId})")
-    boolean existsByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId);
-
-    @Select("SELECT COUNT(*) FROM wishlist WHERE user_id = #{userId}")
-    long countByUser(@Param("userId") Long userId);
+    int deleteByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId);
 
     @Select("SELECT product_id FROM wishlist WHERE user_id = #{userId}")
     List<Long> findProductIdsByUser(@Param("userId") Long userId);
@@ -30,7 +24,7 @@ public interface WishlistMapper {
 
     @Update("UPDATE wishlist SET notes = #{notes}, priority = #{priority} " +
             "WHERE user_id = #{userId} AND product_id = #{productId}")
-    void updateByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId,
+    int updateByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId,
                                @Param("notes") String notes, @Param("priority") Integer priority);
 
     @Select("SELECT w.*, u.first_name as user_first_name, u.last_name as user_last_name, " +
@@ -49,6 +43,19 @@ public interface WishlistMapper {
     @Select("SELECT COUNT(*) FROM wishlist WHERE user_id = #{userId}")
     long countByUserForPagination(@Param("userId") Long userId);
 
+    /**
+     * Next page of active users watching a product, in wishlist id order so paging can
+     * resume from the last id seen.
+     */
+    @Select("SELECT w.id, w.user_id, w.product_id, u.email as user_email, u.first_name as user_first_name " +
+            "FROM wishlist w " +
+            "JOIN users u ON w.user_id = u.id " +
+            "WHERE w.product_id = #{productId} AND w.id > #{afterId} AND u.status = 'ACTIVE' " +
+            "ORDER BY w.id " +
+            "LIMIT #{limit}")
+    List<Wishlist> findWatchers(@Param("productId") Long productId, @Param("afterId") long afterId,
+                                @Param("limit") int limit);
+
     @Select("SELECT * FROM wishlist WHERE user_id = #{userId} AND product_id = #{productId}")
     Wishlist findByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.ecommerce.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * How much of an order's revenue store analytics has already reversed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsOrderLedger {
+    private Long orderId;
+    @Builder.Default
+    private Boolean cancelled = false;
+    @Builder.Default
+    private BigDecimal refundedRevenue = BigDecimal.ZERO;
+}
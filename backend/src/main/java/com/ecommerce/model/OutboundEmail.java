@@ -0,0 +1,29 @@
+package com.ecommerce.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class OutboundEmail {
+    private Long id;
+    private String toAddress;
+    private String subject;
+    private String body;
+    private String htmlBody; // optional HTML alternative to body
+    @Builder.Default
+    private String status = "PENDING"; // PENDING, SENT, FAILED
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class OutboxEvent {
+    private Long id;
+    private String aggregateType; // ORDER
+    private Long aggregateId;
+    private String eventType;
+    private Map<String, Object> payload;
+    @Builder.Default
+    private String status = "PENDING"; // PENDING, PUBLISHED, DEAD
+    @Builder.Default
+    private Integer attempts = 0;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
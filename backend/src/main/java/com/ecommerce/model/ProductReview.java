@@ -20,8 +20,10 @@ public class ProductReview {
     private Integer rating;
     private String title;
     private String comment;
+    private String contentHash;
     private Boolean isVerifiedPurchase;
     private ReviewStatus status;
+    private Integer helpfulCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
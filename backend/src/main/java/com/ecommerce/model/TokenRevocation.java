@@ -0,0 +1,16 @@
+package com.ecommerce.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    private Long userId;
+    private int epoch;
+    private LocalDateTime updatedAt;
+}
@@ -23,6 +23,7 @@ public class Wishlist {
     // Additional fields for joined data
     private String userFirstName;
     private String userLastName;
+    private String userEmail;
     private String productName;
     private String productDescription;
     private String productPrice;
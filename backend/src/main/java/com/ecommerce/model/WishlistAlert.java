@@ -0,0 +1,36 @@
+package com.ecommerce.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class WishlistAlert {
+    private Long id;
+    private Long productId;
+    private AlertType alertType;
+    private BigDecimal previousPrice;
+    private BigDecimal price;
+    private Long flashSaleId;
+    @Builder.Default
+    private String status = "PENDING"; // PENDING, PROCESSING, DONE, FAILED
+    private int attempts; // claims so far; the current claim's value fences its writes
+    private long lastWishlistId; // fan-out progress: wishlist rows up to this id are notified
+    private int notified;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public enum AlertType {
+        PRICE_DROP, BACK_IN_STOCK, FLASH_SALE
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.RateLimitConfig;
+import com.ecommerce.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Throttles requests by route using {@link SlidingWindowRateLimiter}.
+ *
+ * Policies come from {@code app.rate-limit.policies}; the first one whose pattern and
+ * method match the request applies, and requests matching none are not limited. Runs
+ * after {@link JwtAuthenticationFilter} so user-keyed policies can see the principal.
+ * Rejected requests get 429 with Retry-After in seconds.
+ *
+ * IP keys use the servlet remote address, which {@code server.forward-headers-strategy}
+ * sets to the X-Forwarded-For client when a trusted proxy sent the request; without it
+ * every client behind the load balancer would share the proxy's bucket.
+ */
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiRateLimitFilter.class);
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final List<RoutePolicy> policies;
+    private final ObjectMapper objectMapper;
+
+    public ApiRateLimitFilter(RateLimitConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.policies = config.isEnabled()
+            ? config.getPolicies().stream().map(p -> new RoutePolicy(p, meterRegistry)).toList()
+            : List.of();
+        logger.info("API rate limiting {} with {} route policies", config.isEnabled() ? "enabled" : "disabled",
+            policies.size());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RoutePolicy policy = policies.isEmpty() ? null : match(request);
+        if (policy != null) {
+            long waitMillis = policy.limiter.tryAcquire(policy.key(request), policy.limit);
+            if (waitMillis > 0) {
+                policy.rejected.increment();
+                reject(response, policy, waitMillis);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        for (RoutePolicy policy : policies) {
+            policy.limiter.evictIdle();
+        }
+    }
+
+    private RoutePolicy match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = PathContainer.parsePath(path);
+        String method = request.getMethod();
+        for (RoutePolicy policy : policies) {
+            if ((policy.methods.isEmpty() || policy.methods.contains(method)) && policy.pattern.matches(container)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, RoutePolicy policy, long waitMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(policy.limit));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            ApiResponse.error("Rate limit exceeded, retry after " + retryAfterSeconds + " seconds"));
+    }
+
+    private static final class RoutePolicy {
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final int limit;
+        private final RateLimitConfig.KeyType keyType;
+        private final SlidingWindowRateLimiter limiter;
+        private final Counter rejected;
+
+        RoutePolicy(RateLimitConfig.Policy config, MeterRegistry meterRegistry) {
+            this.pattern = PathPatternParser.defaultInstance.parse(config.getPattern());
+            this.methods = config.getMethods().stream()
+                .map(m -> m.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+            this.limit = config.getLimit();
+            this.keyType = config.getKey();
+            this.limiter = new SlidingWindowRateLimiter(config.getWindow().toMillis());
+            this.rejected = Counter.builder("http.rate_limited")
+                .description("Requests rejected by API rate limiting")
+                .tag("policy", config.getName())
+                .register(meterRegistry);
+        }
+
+        String key(HttpServletRequest request) {
+            if (keyType == RateLimitConfig.KeyType.USER) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal user) {
+                    return "u:" + user.getId();
+                }
+            } else if (keyType == RateLimitConfig.KeyType.API_KEY) {
+                String apiKey = request.getHeader(API_KEY_HEADER);
+                if (apiKey != null && !apiKey.isBlank()) {
+                    return "k:" + apiKey;
+                }
+            }
+            return "ip:" + request.getRemoteAddr();
+        }
+    }
+}
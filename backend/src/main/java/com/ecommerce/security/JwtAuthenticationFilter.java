@@ -1,6 +1,8 @@
 package com.ecommerce.security;
 
+import com.ecommerce.model.User;
 import com.ecommerce.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,16 +18,30 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates requests carrying a bearer access token.
+ *
+ * By default the principal is loaded through {@link UserService#loadUserById}. With
+ * {@code app.security.stateless-auth} enabled it is built from the token's own claims
+ * instead, and {@link TokenRevocationList} rejects tokens issued before the user was
+ * disabled, demoted or changed their password. Profile fields then reflect the time
+ * the token was issued.
+ */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
+    private final TokenRevocationList revocationList;
+    private final boolean statelessAuth;
     
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserService userService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserService userService,
+                                   TokenRevocationList revocationList, boolean statelessAuth) {
         this.tokenProvider = tokenProvider;
         this.userService = userService;
+        this.revocationList = revocationList;
+        this.statelessAuth = statelessAuth;
     }
     
     @Override
@@ -35,10 +51,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                
-                UserDetails userDetails = userService.loadUserById(userId);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
+            if (claims != null) {
+                UserDetails userDetails = statelessAuth
+                    ? principalFromClaims(claims)
+                    : userService.loadUserById(Long.valueOf(claims.getSubject()));
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -54,6 +71,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private UserDetails principalFromClaims(Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null) {
+            // Refresh tokens carry no profile claims and are not accepted as access tokens
+            return null;
+        }
+        Long userId = Long.valueOf(claims.getSubject());
+        if (revocationList.isRevoked(userId, tokenProvider.getEpoch(claims))) {
+            return null;
+        }
+        Boolean emailVerified = claims.get("emailVerified", Boolean.class);
+        return UserPrincipal.fromClaims(
+            userId,
+            claims.get("email", String.class),
+            claims.get("firstName", String.class),
+            claims.get("lastName", String.class),
+            User.UserRole.valueOf(role),
+            emailVerified != null && emailVerified
+        );
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -2,29 +2,60 @@ package com.ecommerce.security;
 
 import com.ecommerce.config.JwtConfig;
 import com.ecommerce.model.User;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * Verification uses one immutable parser shared by all threads. Successfully verified
+ * claims are cached under the SHA-256 of the token, so a client presenting the same
+ * access token on consecutive requests pays for HMAC verification and JSON parsing
+ * once; cache stats are published as the {@code auth.token} cache metrics.
+ */
 @Component
 public class JwtTokenProvider {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
     
+    public static final String EPOCH_CLAIM = "epoch";
+    
     private final JwtConfig jwtConfig;
+    private final TokenRevocationList revocationList;
     private final SecretKey key;
+    private final JwtParser parser;
+    private final Cache<HashCode, Claims> verifiedTokens;
     
-    public JwtTokenProvider(JwtConfig jwtConfig) {
+    public JwtTokenProvider(JwtConfig jwtConfig, TokenRevocationList revocationList, MeterRegistry meterRegistry,
+                            @Value("${app.security.token-cache.max-size:50000}") long cacheSize,
+                            @Value("${app.security.token-cache.ttl:5m}") Duration cacheTtl) {
         this.jwtConfig = jwtConfig;
+        this.revocationList = revocationList;
         this.key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokens, "auth.token");
     }
     
     public String generateAccessToken(User user) {
@@ -38,6 +69,7 @@ public class JwtTokenProvider {
         claims.put("firstName", user.getFirstName());
         claims.put("lastName", user.getLastName());
         claims.put("emailVerified", user.isEmailVerified());
+        claims.put(EPOCH_CLAIM, revocationList.currentEpoch(user.getId()));
         
         return Jwts.builder()
                 .setClaims(claims)
@@ -53,6 +85,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtConfig.getRefreshExpiration());
         
         return Jwts.builder()
+                .claim(EPOCH_CLAIM, revocationList.currentEpoch(user.getId()))
                 .setSubject(user.getId().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
@@ -60,65 +93,85 @@ public class JwtTokenProvider {
                 .compact();
     }
     
+    /**
+     * Verifies the token and returns its claims, or null if it is invalid or expired.
+     * Requests normally call this once and read everything they need from the result.
+     */
+    public Claims verify(String token) {
+        try {
+            return parse(token);
+        } catch (ExpiredJwtException ex) {
+            logger.debug("Expired JWT token: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            logger.warn("Invalid JWT token: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            logger.warn("JWT claims string is empty: {}", ex.getMessage());
+        }
+        return null;
+    }
+    
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return Long.valueOf(claims.getSubject());
+        return Long.valueOf(parse(token).getSubject());
+    }
+    
+    public Claims getClaimsFromToken(String token) {
+        return parse(token);
+    }
+    
+    /**
+     * Epoch the token was issued under; tokens from before epochs existed count as 0.
+     */
+    public int getEpoch(Claims claims) {
+        Number epoch = claims.get(EPOCH_CLAIM, Number.class);
+        return epoch != null ? epoch.intValue() : 0;
+    }
+    
+    /**
+     * Whether the user's tokens were revoked after this one was issued. Checked against
+     * the database, for the refresh endpoint where the local copy's lag is not acceptable.
+     */
+    public boolean isRevoked(String token) {
+        Claims claims = parse(token);
+        return getEpoch(claims) < revocationList.currentEpoch(Long.valueOf(claims.getSubject()));
     }
     
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("email", String.class);
+        return parse(token).get("email", String.class);
     }
     
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("role", String.class);
+        return parse(token).get("role", String.class);
     }
     
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getExpiration();
+        return parse(token).getExpiration();
     }
     
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            logger.error("Invalid JWT signature: {}", ex.getMessage());
-        } catch (MalformedJwtException ex) {
-            logger.error("Invalid JWT token: {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            logger.error("Expired JWT token: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            logger.error("Unsupported JWT token: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            logger.error("JWT claims string is empty: {}", ex.getMessage());
+        return verify(token) != null;
+    }
+    
+    /**
+     * Returns the verified claims, from the cache when this token was verified before.
+     * Cached claims are dropped once the token expires, so expiry is still enforced.
+     */
+    private Claims parse(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        HashCode tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null || expiration.after(new Date())) {
+                return claims;
+            }
+            verifiedTokens.invalidate(tokenHash);
         }
-        return false;
+        // Throws for a bad signature, malformed token or past expiry
+        claims = parser.parseSignedClaims(token).getPayload();
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
     }
     
     public boolean isTokenExpired(String token) {
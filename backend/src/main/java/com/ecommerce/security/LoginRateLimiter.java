@@ -0,0 +1,92 @@
+package com.ecommerce.security;
+
+import com.ecommerce.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Sliding-window throttling for the login endpoint, checked before any password is
+ * hashed. Every attempt counts against the client IP; only failed attempts count
+ * against the email, so a user who keeps logging in successfully is never locked
+ * out, while guessing one account's password from many addresses is still capped.
+ *
+ * The address is the servlet remote address. Behind a load balancer that is only the
+ * client's own address because {@code server.forward-headers-strategy} resolves
+ * X-Forwarded-For from trusted proxies; otherwise every client would share one bucket.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final SlidingWindowRateLimiter ipAttempts;
+    private final SlidingWindowRateLimiter emailFailures;
+    private final int ipLimit;
+    private final int emailFailureLimit;
+    private final Counter ipLimited;
+    private final Counter emailLimited;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${app.security.login.ip-limit:20}") int ipLimit,
+                            @Value("${app.security.login.ip-window:1m}") Duration ipWindow,
+                            @Value("${app.security.login.email-failure-limit:5}") int emailFailureLimit,
+                            @Value("${app.security.login.email-window:15m}") Duration emailWindow) {
+        this.ipAttempts = new SlidingWindowRateLimiter(ipWindow.toMillis());
+        this.emailFailures = new SlidingWindowRateLimiter(emailWindow.toMillis());
+        this.ipLimit = ipLimit;
+        this.emailFailureLimit = emailFailureLimit;
+        this.ipLimited = limitedCounter(meterRegistry, "ip");
+        this.emailLimited = limitedCounter(meterRegistry, "email");
+    }
+
+    /**
+     * Counts a login attempt and throws {@link TooManyRequestsException} if either the
+     * address or the account is over its limit.
+     */
+    public void acquire(String ip, String email) {
+        long wait = emailFailures.check(emailKey(email), emailFailureLimit);
+        if (wait > 0) {
+            emailLimited.increment();
+            throw tooMany(wait);
+        }
+        wait = ipAttempts.tryAcquire(ip, ipLimit);
+        if (wait > 0) {
+            ipLimited.increment();
+            throw tooMany(wait);
+        }
+    }
+
+    public void recordFailure(String email) {
+        emailFailures.record(emailKey(email));
+    }
+
+    public void recordSuccess(String email) {
+        emailFailures.reset(emailKey(email));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        ipAttempts.evictIdle();
+        emailFailures.evictIdle();
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static TooManyRequestsException tooMany(long waitMillis) {
+        long seconds = Math.max(1, (waitMillis + 999) / 1000);
+        return new TooManyRequestsException("Too many login attempts, please try again later", seconds);
+    }
+
+    private static Counter limitedCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.login.rate_limited")
+                .description("Login attempts rejected by rate limiting")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,208 @@
+package com.ecommerce.security;
+
+import com.ecommerce.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated, bounded thread pool instead of request threads.
+ *
+ * At most {@code app.security.password.threads} hashes run at once and at most
+ * {@code queue-capacity} wait; beyond that work is rejected with
+ * {@link TooManyRequestsException} rather than queued, so a burst of logins cannot
+ * take CPU or Tomcat workers away from other traffic.
+ *
+ * The cost used for new hashes adapts between {@code min-cost} and {@code max-cost}:
+ * it steps down while the p99 of queue wait plus hashing exceeds {@code latency-budget}
+ * and back up when there is ample headroom. Verifying an existing hash always uses the
+ * cost stored in it; hashes below the current cost are upgraded on successful login.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    /** Minimum operations between two cost adjustments, so a quiet period does not move it. */
+    private static final long MIN_SAMPLES_PER_ADJUSTMENT = 20;
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder[] encoders;
+    private final int minCost;
+    private final int maxCost;
+    private final long latencyBudgetNanos;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+    private volatile int cost;
+    private long samplesAtLastAdjustment;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${app.security.password.threads:0}") int threads,
+                          @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.security.password.min-cost:10}") int minCost,
+                          @Value("${app.security.password.max-cost:12}") int maxCost,
+                          @Value("${app.security.password.latency-budget:500ms}") Duration latencyBudget) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt cost range must be within 4..31");
+        }
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encoders = new BCryptPasswordEncoder[maxCost + 1];
+        for (int c = minCost; c <= maxCost; c++) {
+            encoders[c] = new BCryptPasswordEncoder(c);
+        }
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.cost = minCost;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchTimer = hashTimer(meterRegistry, "matches");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Hash requests rejected because the pool queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a pool thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hash requests currently running")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.cost", this, PasswordHasher::getCost)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+        log.info("Password hashing pool started with {} threads, queue {}, cost {}..{}",
+                poolSize, queueCapacity, minCost, maxCost);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        BCryptPasswordEncoder encoder = encoders[cost];
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String hash) {
+        // Any encoder verifies any cost; the cost is read from the hash
+        return submit(matchTimer, () -> encoders[maxCost].matches(rawPassword, hash));
+    }
+
+    /**
+     * Blocking variant for flows that are rare enough to keep on the request thread,
+     * such as registration and password changes. The CPU work still runs on the pool.
+     */
+    public String encode(String rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        return await(matchesAsync(rawPassword, hash));
+    }
+
+    /**
+     * Whether the hash was created with a lower cost than new hashes currently get.
+     */
+    public boolean needsUpgrade(String hash) {
+        return encoders[cost].upgradeEncoding(hash);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.password.cost-adjust-interval-ms:30000}")
+    public synchronized void adjustCost() {
+        long samples = encodeTimer.count() + matchTimer.count();
+        if (samples - samplesAtLastAdjustment < MIN_SAMPLES_PER_ADJUSTMENT) {
+            return;
+        }
+        samplesAtLastAdjustment = samples;
+
+        double p99 = Math.max(p99Nanos(encodeTimer), p99Nanos(matchTimer));
+        int current = cost;
+        if (p99 > latencyBudgetNanos && current > minCost) {
+            cost = current - 1;
+        } else if (p99 < latencyBudgetNanos / 4.0 && current < maxCost) {
+            // One step up doubles hashing time, so only climb with plenty of headroom
+            cost = current + 1;
+        }
+        if (cost != current) {
+            log.info("Password hash p99 {} ms against budget {} ms, cost {} -> {}",
+                    (long) (p99 / 1_000_000), latencyBudgetNanos / 1_000_000, current, cost);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return work.get();
+                } finally {
+                    // Includes queue wait, which is what callers experience under load
+                    timer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new TooManyRequestsException("Server is busy, please try again shortly", 1));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash.latency")
+                .description("Password hash time including wait for a pool thread")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static double p99Nanos(Timer timer) {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free sliding-window counter per key.
+ *
+ * Each key keeps the counts of the current and previous fixed window, and the rate is
+ * estimated as {@code previous * (1 - elapsed fraction of current window) + current}.
+ * Both counts and the window index are packed into one {@link AtomicLong} so a check
+ * is a single CAS with no locking and no allocation for keys already seen:
+ *
+ * <pre>
+ * | window index (32 bits) | previous count (16 bits) | current count (16 bits) |
+ * </pre>
+ *
+ * Limits must therefore stay below 65535 per window. Keys are spread over independent
+ * map shards by hash, which keeps table resizes and eviction sweeps local to one shard
+ * instead of the whole key space. Keys idle for two windows are dropped by
+ * {@link #evictIdle()}, which owners should call periodically.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final int DEFAULT_SHARDS = 16;
+
+    private final long windowMillis;
+    private final ConcurrentMap<String, AtomicLong>[] shards;
+    private final int shardShift;
+
+    public SlidingWindowRateLimiter(long windowMillis) {
+        this(windowMillis, DEFAULT_SHARDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SlidingWindowRateLimiter(long windowMillis, int shardCount) {
+        // Sub-second windows would overflow the 32-bit window index
+        if (windowMillis < 1000) {
+            throw new IllegalArgumentException("windowMillis must be at least 1000");
+        }
+        if (Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("shardCount must be a power of two");
+        }
+        this.windowMillis = windowMillis;
+        this.shards = new ConcurrentMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardShift = 32 - Integer.numberOfTrailingZeros(shardCount);
+    }
+
+    /**
+     * Counts one request for {@code key} if it is within {@code limit}.
+     *
+     * @return 0 if the request is allowed, otherwise milliseconds until it would be
+     */
+    public long tryAcquire(String key, int limit) {
+        AtomicLong state = stateFor(key);
+        long now = currentMillis();
+        long window = now / windowMillis;
+        while (true) {
+            long current = state.get();
+            long packed = roll(current, window);
+            int previousCount = previousCount(packed);
+            int currentCount = currentCount(packed);
+            long wait = waitMillis(previousCount, currentCount, limit, now, window);
+            if (wait > 0) {
+                return wait;
+            }
+            long next = pack(window, previousCount, Math.min(currentCount + 1, MAX_COUNT));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Like {@link #tryAcquire} but does not count the request.
+     */
+    public long check(String key, int limit) {
+        AtomicLong state = shard(key).get(key);
+        if (state == null) {
+            return 0;
+        }
+        long now = currentMillis();
+        long window = now / windowMillis;
+        long packed = roll(state.get(), window);
+        return waitMillis(previousCount(packed), currentCount(packed), limit, now, window);
+    }
+
+    /**
+     * Counts an event for {@code key} unconditionally, e.g. a failed login.
+     */
+    public void record(String key) {
+        AtomicLong state = stateFor(key);
+        long window = currentMillis() / windowMillis;
+        while (true) {
+            long current = state.get();
+            long packed = roll(current, window);
+            long next = pack(window, previousCount(packed), Math.min(currentCount(packed) + 1, MAX_COUNT));
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    public void reset(String key) {
+        shard(key).remove(key);
+    }
+
+    /**
+     * Drops keys with no activity in the current or previous window. A request racing
+     * with the removal may lose its count, which only errs towards allowing traffic.
+     */
+    public int evictIdle() {
+        long window = currentMillis() / windowMillis;
+        int evicted = 0;
+        for (ConcurrentMap<String, AtomicLong> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(state -> windowOf(state.get()) < window - 1);
+            evicted += before - shard.size();
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    protected long currentMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private ConcurrentMap<String, AtomicLong> shard(String key) {
+        // Top bits of a multiplicative hash, so the shard is independent of the low bits
+        // ConcurrentHashMap uses for its buckets
+        long mixed = (key.hashCode() * 0x9E3779B9L) & 0xFFFFFFFFL;
+        return shards[(int) (mixed >>> shardShift)];
+    }
+
+    private AtomicLong stateFor(String key) {
+        ConcurrentMap<String, AtomicLong> shard = shard(key);
+        // Plain get first: computeIfAbsent may lock the bin even when the key exists
+        AtomicLong state = shard.get(key);
+        return state != null ? state : shard.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private long waitMillis(int previousCount, int currentCount, int limit, long now, long window) {
+        long windowStart = window * windowMillis;
+        double elapsed = (double) (now - windowStart) / windowMillis;
+        if (previousCount * (1 - elapsed) + currentCount + 1 <= limit) {
+            return 0;
+        }
+        if (currentCount + 1 > limit) {
+            // Wait into the next window until this window's count, as its previous, has decayed enough
+            double fraction = Math.max(0, 1 - (double) (limit - 1) / currentCount);
+            return windowStart + windowMillis + (long) Math.ceil(fraction * windowMillis) - now;
+        }
+        // Wait until the previous window's share drops below the remaining headroom
+        double fraction = 1 - (double) (limit - 1 - currentCount) / previousCount;
+        return Math.max(1, windowStart + (long) Math.ceil(fraction * windowMillis) - now);
+    }
+
+    /** Shifts the state into {@code window}, carrying the current count over as previous. */
+    private static long roll(long state, long window) {
+        long stateWindow = windowOf(state);
+        if (stateWindow == window) {
+            return state;
+        }
+        int previous = stateWindow == window - 1 ? currentCount(state) : 0;
+        return pack(window, previous, 0);
+    }
+
+    private static long pack(long window, int previousCount, int currentCount) {
+        return (window << 32) | ((long) previousCount << 16) | currentCount;
+    }
+
+    private static long windowOf(long state) {
+        return state >>> 32;
+    }
+
+    private static int previousCount(long state) {
+        return (int) ((state >>> 16) & MAX_COUNT);
+    }
+
+    private static int currentCount(long state) {
+        return (int) (state & MAX_COUNT);
+    }
+}
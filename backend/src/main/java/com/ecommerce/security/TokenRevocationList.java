@@ -0,0 +1,110 @@
+package com.ecommerce.security;
+
+import com.ecommerce.mapper.TokenRevocationMapper;
+import com.ecommerce.model.TokenRevocation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the {@code token_revocations} table: the minimum token epoch each
+ * revoked user's access tokens must carry. Used by the stateless authentication mode,
+ * where the principal is built from JWT claims without reading the users table.
+ *
+ * Revocations made on this node apply as soon as their transaction commits; those made
+ * on other nodes are picked up by the periodic sync, so {@code
+ * app.security.revocation-sync-interval-ms} bounds how long a revoked token can still
+ * be used elsewhere.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    /** Re-read window for rows whose transaction committed after an earlier sync ran. */
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final TokenRevocationMapper tokenRevocationMapper;
+    private final Map<Long, Integer> epochs = new ConcurrentHashMap<>();
+    private LocalDateTime lastSeenUpdate;
+
+    public TokenRevocationList(TokenRevocationMapper tokenRevocationMapper, MeterRegistry meterRegistry) {
+        this.tokenRevocationMapper = tokenRevocationMapper;
+        Gauge.builder("auth.token_revocations", epochs, Map::size)
+                .description("Users with a revoked token epoch held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Could not load token revocations at startup, will retry on next sync", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation-sync-interval-ms:5000}")
+    public synchronized void sync() {
+        LocalDateTime since = lastSeenUpdate != null ? lastSeenUpdate.minusSeconds(SYNC_OVERLAP_SECONDS) : null;
+        List<TokenRevocation> rows = tokenRevocationMapper.findUpdatedSince(since);
+        for (TokenRevocation row : rows) {
+            apply(row.getUserId(), row.getEpoch());
+            if (lastSeenUpdate == null || row.getUpdatedAt().isAfter(lastSeenUpdate)) {
+                lastSeenUpdate = row.getUpdatedAt();
+            }
+        }
+    }
+
+    /**
+     * Invalidates every access token issued to the user so far. Must run inside the
+     * transaction that changes the user; the local copy is updated once it commits.
+     */
+    public void revoke(Long userId) {
+        tokenRevocationMapper.bumpEpoch(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(userId);
+                }
+            });
+        } else {
+            refresh(userId);
+        }
+    }
+
+    /**
+     * Epoch to embed in a token issued now. Read from the database rather than the
+     * local copy, which may not have synced a revocation made on another node yet.
+     */
+    public int currentEpoch(Long userId) {
+        Integer epoch = tokenRevocationMapper.findEpoch(userId);
+        return epoch != null ? epoch : 0;
+    }
+
+    public boolean isRevoked(Long userId, int tokenEpoch) {
+        Integer minimum = epochs.get(userId);
+        return minimum != null && tokenEpoch < minimum;
+    }
+
+    private void refresh(Long userId) {
+        Integer epoch = tokenRevocationMapper.findEpoch(userId);
+        if (epoch != null) {
+            apply(userId, epoch);
+        }
+    }
+
+    private void apply(Long userId, int epoch) {
+        epochs.merge(userId, epoch, Math::max);
+    }
+}
@@ -36,6 +36,29 @@ public class UserPrincipal implements UserDetails {
         return new UserPrincipal(user);
     }
     
+    /**
+     * Builds a principal from verified access token claims, without a database read.
+     * Only ACTIVE users are issued tokens and any status change revokes them, so the
+     * status is taken as ACTIVE. There is no password hash.
+     */
+    public static UserPrincipal fromClaims(Long id, String email, String firstName, String lastName,
+                                           User.UserRole role, boolean emailVerified) {
+        return new UserPrincipal(id, email, firstName, lastName, role, emailVerified);
+    }
+    
+    private UserPrincipal(Long id, String email, String firstName, String lastName,
+                          User.UserRole role, boolean emailVerified) {
+        this.id = id;
+        this.email = email;
+        this.password = null;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.status = User.UserStatus.ACTIVE;
+        this.emailVerified = emailVerified;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
     public Long getId() {
         return id;
     }
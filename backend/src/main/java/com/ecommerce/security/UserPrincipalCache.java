@@ -0,0 +1,79 @@
+package com.ecommerce.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, short-lived cache of {@link UserPrincipal}s keyed by user id, so that
+ * authenticating a request with a JWT does not have to read the users table.
+ *
+ * Entries expire after {@code app.security.principal-cache.ttl} regardless of use;
+ * account changes made through UserService evict the entry straight away. Hit and
+ * miss counts are published under the {@code auth.principal} cache metrics.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<Long, UserPrincipal> cache;
+    /** Bumped on every eviction so a load racing with it is not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.principal-cache.ttl:60s}") Duration ttl) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "auth.principal");
+    }
+
+    /**
+     * Returns the cached principal, or loads it with {@code loader}. A null result
+     * (unknown user) is not cached.
+     */
+    public UserPrincipal get(Long userId, Function<Long, UserPrincipal> loader) {
+        UserPrincipal principal = cache.getIfPresent(userId);
+        if (principal != null) {
+            return principal;
+        }
+        long seen = evictions.get();
+        principal = loader.apply(userId);
+        if (principal != null && evictions.get() == seen) {
+            cache.put(userId, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the user's entry now and, when called inside a transaction, again after
+     * it commits so a request that re-read the old row in between cannot keep it.
+     */
+    public void evict(Long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long userId) {
+        evictions.incrementAndGet();
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an inclusive date range into the fewest day, week and month buckets that cover
+ * it exactly, so range totals are summed from {@code store_analytics} and
+ * {@code store_analytics_rollups} rows instead of one row per day.
+ *
+ * The range is walked from the start: a whole calendar month is taken when the cursor is
+ * on its first day and it ends inside the range, then a whole ISO week (Monday start)
+ * unless it would straddle a month that could be taken whole, and a single day otherwise.
+ * A one-year range needs a few dozen rows at most.
+ */
+public final class AnalyticsRangePlan {
+
+    private final List<LocalDate> days = new ArrayList<>();
+    private final List<LocalDate> weeks = new ArrayList<>();
+    private final List<LocalDate> months = new ArrayList<>();
+
+    private AnalyticsRangePlan() {
+    }
+
+    public static AnalyticsRangePlan of(LocalDate start, LocalDate end) {
+        AnalyticsRangePlan plan = new AnalyticsRangePlan();
+        LocalDate cursor = start;
+        while (!cursor.isAfter(end)) {
+            if (cursor.getDayOfMonth() == 1 && !lastDayOfMonth(cursor).isAfter(end)) {
+                plan.months.add(cursor);
+                cursor = cursor.plusMonths(1);
+            } else if (cursor.getDayOfWeek() == DayOfWeek.MONDAY && !cursor.plusDays(6).isAfter(end)
+                       && !crossesWholeMonth(cursor, end)) {
+                plan.weeks.add(cursor);
+                cursor = cursor.plusWeeks(1);
+            } else {
+                plan.days.add(cursor);
+                cursor = cursor.plusDays(1);
+            }
+        }
+        return plan;
+    }
+
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    /**
+     * Dates read from the daily rows.
+     */
+    public List<LocalDate> getDays() {
+        return days;
+    }
+
+    /**
+     * Mondays of the weekly rollups to read.
+     */
+    public List<LocalDate> getWeeks() {
+        return weeks;
+    }
+
+    /**
+     * First days of the monthly rollups to read.
+     */
+    public List<LocalDate> getMonths() {
+        return months;
+    }
+
+    public int bucketCount() {
+        return days.size() + weeks.size() + months.size();
+    }
+
+    public boolean isEmpty() {
+        return bucketCount() == 0;
+    }
+
+    private static boolean crossesWholeMonth(LocalDate weekStart, LocalDate end) {
+        LocalDate nextMonth = monthStart(weekStart).plusMonths(1);
+        return !weekStart.plusDays(6).isBefore(nextMonth) && !lastDayOfMonth(nextMonth).isAfter(end);
+    }
+
+    private static LocalDate lastDayOfMonth(LocalDate date) {
+        return date.with(TemporalAdjusters.lastDayOfMonth());
+    }
+}
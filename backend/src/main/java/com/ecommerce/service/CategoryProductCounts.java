@@ -0,0 +1,190 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Active product counts per category, held in memory so category pages and navigation
+ * never count rows.
+ *
+ * Direct counts are adjusted by {@link ProductService} once each product write commits.
+ * Subtree totals (a category plus everything below it) live in an array aligned with the
+ * current {@link CategoryTree}: each adjustment is added along the path to the root, and
+ * the array is rebuilt from the direct counts when the tree is replaced. Writes from other
+ * nodes and any drift are corrected by the periodic reconciliation against the products
+ * table.
+ */
+@Slf4j
+@Component
+public class CategoryProductCounts {
+
+    private final ProductMapper productMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final Map<Long, AtomicInteger> direct = new ConcurrentHashMap<>();
+    private volatile Totals totals = new Totals(CategoryTree.EMPTY);
+    private final Counter corrections;
+
+    public CategoryProductCounts(ProductMapper productMapper, CategoryTreeCache categoryTreeCache,
+                                 MeterRegistry meterRegistry) {
+        this.productMapper = productMapper;
+        this.categoryTreeCache = categoryTreeCache;
+        this.corrections = Counter.builder("catalog.category_counts.corrections")
+                .description("Categories whose in-memory product count was fixed by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Could not load category product counts at startup, will retry on next reconcile", e);
+        }
+    }
+
+    /**
+     * Active products filed directly under the category.
+     */
+    public int activeCount(Long categoryId) {
+        AtomicInteger count = direct.get(categoryId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Active products in the category and all of its subcategories.
+     */
+    public int subtreeCount(Long categoryId) {
+        Totals current = currentTotals();
+        int index = current.tree.indexOf(categoryId);
+        return index >= 0 ? current.counts.get(index) : activeCount(categoryId);
+    }
+
+    /**
+     * Records a product write, applied once the surrounding transaction commits. Pass
+     * null for the side that does not exist (before a create, after a delete).
+     */
+    public void productChanged(Long categoryBefore, Product.ProductStatus statusBefore,
+                               Long categoryAfter, Product.ProductStatus statusAfter) {
+        Long removedFrom = statusBefore == Product.ProductStatus.ACTIVE ? categoryBefore : null;
+        Long addedTo = statusAfter == Product.ProductStatus.ACTIVE ? categoryAfter : null;
+        if (Objects.equals(removedFrom, addedTo)) {
+            return;
+        }
+        Runnable apply = () -> {
+            if (removedFrom != null) {
+                adjust(removedFrom, -1);
+            }
+            if (addedTo != null) {
+                adjust(addedTo, 1);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Replaces the direct counts with a fresh GROUP BY over the products table.
+     * Adjustments committed while the query runs may be off by one until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.product-count-reconcile-interval-ms:300000}",
+               initialDelayString = "${app.catalog.product-count-reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Map<Long, Integer> actual = new HashMap<>();
+        for (ProductMapper.CategoryCount row : productMapper.countActiveGroupByCategory()) {
+            if (row.getCategoryId() != null) {
+                actual.put(row.getCategoryId(), row.getCount());
+            }
+        }
+
+        int fixed = 0;
+        for (Map.Entry<Long, Integer> entry : actual.entrySet()) {
+            AtomicInteger count = direct.computeIfAbsent(entry.getKey(), id -> new AtomicInteger());
+            if (count.getAndSet(entry.getValue()) != entry.getValue()) {
+                fixed++;
+            }
+        }
+        for (Map.Entry<Long, AtomicInteger> entry : direct.entrySet()) {
+            if (!actual.containsKey(entry.getKey()) && entry.getValue().getAndSet(0) != 0) {
+                fixed++;
+            }
+        }
+        corrections.increment(fixed);
+
+        totals = buildTotals(categoryTreeCache.get());
+    }
+
+    private void adjust(Long categoryId, int delta) {
+        direct.computeIfAbsent(categoryId, id -> new AtomicInteger()).addAndGet(delta);
+        Totals current = totals;
+        if (current.tree != categoryTreeCache.get()) {
+            return; // stale array; the next read rebuilds it including this change
+        }
+        int steps = 0;
+        for (int i = current.tree.indexOf(categoryId); i >= 0 && steps < current.tree.size();
+             i = current.tree.parentIndex(i), steps++) {
+            current.counts.addAndGet(i, delta);
+        }
+    }
+
+    private Totals currentTotals() {
+        Totals current = totals;
+        CategoryTree tree = categoryTreeCache.get();
+        if (current.tree == tree) {
+            return current;
+        }
+        synchronized (this) {
+            if (totals.tree != tree) {
+                totals = buildTotals(tree);
+            }
+            return totals;
+        }
+    }
+
+    private Totals buildTotals(CategoryTree tree) {
+        Totals built = new Totals(tree);
+        for (int index = 0; index < tree.size(); index++) {
+            int count = activeCount(tree.idAt(index));
+            if (count == 0) {
+                continue;
+            }
+            int steps = 0;
+            for (int i = index; i >= 0 && steps < tree.size(); i = tree.parentIndex(i), steps++) {
+                built.counts.addAndGet(i, count);
+            }
+        }
+        return built;
+    }
+
+    private static final class Totals {
+        private final CategoryTree tree;
+        private final AtomicIntegerArray counts;
+
+        Totals(CategoryTree tree) {
+            this.tree = tree;
+            this.counts = new AtomicIntegerArray(tree.size());
+        }
+    }
+}
@@ -4,8 +4,8 @@ import com.ecommerce.dto.CategoryDto;
 import com.ecommerce.dto.CreateCategoryRequest;
 import com.ecommerce.dto.UpdateCategoryRequest;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.mapper.CategoryClosureMapper;
 import com.ecommerce.mapper.CategoryMapper;
-import com.ecommerce.mapper.ProductMapper;
 import com.ecommerce.model.Category;
 import com.ecommerce.util.SlugUtils;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,7 +23,9 @@ import java.util.stream.Collectors;
 public class CategoryService {
     
     private final CategoryMapper categoryMapper;
-    private final ProductMapper productMapper;
+    private final CategoryClosureMapper categoryClosureMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryProductCounts categoryProductCounts;
     
     @Transactional
     public CategoryDto createCategory(CreateCategoryRequest request) {
@@ -45,9 +48,11 @@ public class CategoryService {
                 .build();
         
         categoryMapper.insert(category);
+        categoryClosureMapper.insertPaths(category.getId(), category.getParentId());
+        categoryTreeCache.refreshAfterCommit();
         log.info("Category created successfully: {}", category.getId());
         
-        return getCategoryById(category.getId());
+        return loadCategory(category.getId());
     }
     
     @Transactional
@@ -56,6 +61,7 @@ public class CategoryService {
         if (category == null) {
             throw new ResourceNotFoundException("Category not found");
         }
+        Long previousParentId = category.getParentId();
         
         // Update fields if provided
         if (request.getName() != null) {
@@ -81,7 +87,7 @@ public class CategoryService {
                 }
                 
                 // Prevent nested circular reference
-                if (isDescendantOf(request.getParentId(), categoryId)) {
+                if (categoryClosureMapper.isDescendant(request.getParentId(), categoryId)) {
                     throw new IllegalArgumentException("Cannot set descendant as parent");
                 }
             }
@@ -99,50 +105,77 @@ public class CategoryService {
         }
         
         categoryMapper.update(category);
+        if (!Objects.equals(previousParentId, category.getParentId())) {
+            categoryClosureMapper.detachSubtree(categoryId);
+            if (category.getParentId() != null) {
+                categoryClosureMapper.attachSubtree(categoryId, category.getParentId());
+            }
+        }
+        categoryTreeCache.refreshAfterCommit();
         log.info("Category updated successfully: {}", categoryId);
         
-        return getCategoryById(categoryId);
+        return loadCategory(categoryId);
     }
     
     public CategoryDto getCategoryById(Long categoryId) {
-        Category category = categoryMapper.findByIdWithProductCount(categoryId);
+        CategoryTree tree = categoryTreeCache.get();
+        Category category = tree.get(categoryId);
         if (category == null) {
             throw new ResourceNotFoundException("Category not found");
         }
         
-        return CategoryDto.fromCategory(category);
+        return toDto(tree, category);
     }
     
     public CategoryDto getCategoryBySlug(String slug) {
-        Category category = categoryMapper.findBySlug(slug);
+        CategoryTree tree = categoryTreeCache.get();
+        Category category = tree.getBySlug(slug);
         if (category == null) {
             throw new ResourceNotFoundException("Category not found");
         }
         
-        category.setProductCount(productMapper.countByCategoryId(category.getId()));
-        return CategoryDto.fromCategory(category);
+        return toDto(tree, category);
     }
     
     public List<CategoryDto> getAllCategories(boolean activeOnly) {
-        List<Category> categories = activeOnly ? 
-                categoryMapper.findAllActive() : 
-                categoryMapper.findAll();
-                
-        return categories.stream()
-                .map(CategoryDto::fromCategory)
+        CategoryTree tree = categoryTreeCache.get();
+        return tree.all(activeOnly).stream()
+                .map(category -> toDto(tree, category))
                 .collect(Collectors.toList());
     }
     
     public List<CategoryDto> getRootCategories() {
-        List<Category> categories = categoryMapper.findRootCategories();
-        return categories.stream()
-                .map(CategoryDto::fromCategory)
+        CategoryTree tree = categoryTreeCache.get();
+        return tree.roots(true).stream()
+                .map(category -> toDto(tree, category))
                 .collect(Collectors.toList());
     }
     
     public List<CategoryDto> getChildCategories(Long parentId) {
-        List<Category> categories = categoryMapper.findByParentId(parentId);
-        return categories.stream()
+        CategoryTree tree = categoryTreeCache.get();
+        return tree.children(parentId, true).stream()
+                .map(category -> toDto(tree, category))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Active categories nested under their parents, for navigation menus. A subtree is
+     * left out when its root is inactive.
+     */
+    public List<CategoryDto> getCategoryTree() {
+        CategoryTree tree = categoryTreeCache.get();
+        return toDtoTree(tree, tree.roots(true));
+    }
+    
+    /**
+     * Breadcrumb trail from the top-level category down to the given one.
+     */
+    public List<CategoryDto> getCategoryPath(Long categoryId) {
+        List<Category> path = categoryTreeCache.get().path(categoryId);
+        if (path.isEmpty()) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        return path.stream()
                 .map(CategoryDto::fromCategory)
                 .collect(Collectors.toList());
     }
@@ -165,9 +198,49 @@ public class CategoryService {
         }
         
         categoryMapper.delete(categoryId);
+        categoryTreeCache.refreshAfterCommit();
         log.info("Category deleted successfully: {}", categoryId);
     }
     
+    /**
+     * Reads a category just written in the current transaction, which the tree
+     * snapshot will not reflect until it commits.
+     */
+    private CategoryDto loadCategory(Long categoryId) {
+        Category category = categoryMapper.findById(categoryId);
+        if (category == null) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        if (category.getParentId() != null) {
+            category.setParent(categoryMapper.findById(category.getParentId()));
+        }
+        CategoryDto dto = CategoryDto.fromCategory(category);
+        dto.setProductCount(categoryProductCounts.activeCount(categoryId));
+        dto.setSubtreeProductCount(categoryProductCounts.subtreeCount(categoryId));
+        return dto;
+    }
+    
+    private CategoryDto toDto(CategoryTree tree, Category category) {
+        CategoryDto dto = CategoryDto.fromCategory(category);
+        dto.setProductCount(categoryProductCounts.activeCount(category.getId()));
+        dto.setSubtreeProductCount(categoryProductCounts.subtreeCount(category.getId()));
+        Category parent = tree.getParent(category.getId());
+        if (parent != null) {
+            dto.setParentName(parent.getName());
+        }
+        return dto;
+    }
+    
+    private List<CategoryDto> toDtoTree(CategoryTree tree, List<Category> categories) {
+        return categories.stream()
+                .map(category -> {
+                    CategoryDto dto = toDto(tree, category);
+                    dto.setChildren(toDtoTree(tree, tree.children(category.getId(), true)));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+    
     private String generateUniqueSlug(String name) {
         String baseSlug = SlugUtils.generateSlug(name);
         String slug = baseSlug;
@@ -180,15 +253,4 @@ public class CategoryService {
         
         return slug;
     }
-    
-    private boolean isDescendantOf(Long descendantId, Long ancestorId) {
-        Category current = categoryMapper.findById(descendantId);
-        while (current != null && current.getParentId() != null) {
-            if (current.getParentId().equals(ancestorId)) {
-                return true;
-            }
-            current = categoryMapper.findById(current.getParentId());
-        }
-        return false;
-    }
 }
\ No newline at end of file
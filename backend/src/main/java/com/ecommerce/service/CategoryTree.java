@@ -0,0 +1,194 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the whole category hierarchy, built from a single query.
+ *
+ * Nodes are held in one array ordered by display order; parent and child links are
+ * array indexes, and ids and slugs are indexed by hash map, so every lookup is served
+ * from memory. The {@link Category} instances are shared by all readers and must not
+ * be modified; map them to DTOs instead. A new snapshot replaces the old one whenever
+ * categories change (see {@link CategoryTreeCache}).
+ */
+public final class CategoryTree {
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    public static final CategoryTree EMPTY = build(List.of());
+
+    private final Category[] nodes;
+    private final int[] parents;
+    private final int[][] children;
+    private final int[] roots;
+    private final Map<Long, Integer> indexById;
+    private final Map<String, Integer> indexBySlug;
+
+    private CategoryTree(Category[] nodes, int[] parents, int[][] children, int[] roots,
+                         Map<Long, Integer> indexById, Map<String, Integer> indexBySlug) {
+        this.nodes = nodes;
+        this.parents = parents;
+        this.children = children;
+        this.roots = roots;
+        this.indexById = indexById;
+        this.indexBySlug = indexBySlug;
+    }
+
+    public static CategoryTree build(List<Category> categories) {
+        Category[] nodes = categories.toArray(new Category[0]);
+        Arrays.sort(nodes, Comparator.comparing(Category::getDisplayOrder, Comparator.nullsFirst(Integer::compare))
+                .thenComparing(Category::getId));
+
+        Map<Long, Integer> indexById = new HashMap<>(nodes.length * 2);
+        Map<String, Integer> indexBySlug = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            indexById.put(nodes[i].getId(), i);
+            indexBySlug.put(nodes[i].getSlug(), i);
+        }
+
+        int[] parents = new int[nodes.length];
+        int[] childCounts = new int[nodes.length];
+        int rootCount = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            Integer parent = nodes[i].getParentId() != null ? indexById.get(nodes[i].getParentId()) : null;
+            parents[i] = parent != null ? parent : -1;
+            if (parent != null) {
+                childCounts[parent]++;
+            } else {
+                rootCount++;
+            }
+        }
+
+        // Filling in node order keeps every child list in display order
+        int[][] children = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            children[i] = childCounts[i] == 0 ? NO_CHILDREN : new int[childCounts[i]];
+            childCounts[i] = 0;
+        }
+        int[] roots = new int[rootCount];
+        rootCount = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            int parent = parents[i];
+            if (parent < 0) {
+                roots[rootCount++] = i;
+            } else {
+                children[parent][childCounts[parent]++] = i;
+            }
+        }
+
+        return new CategoryTree(nodes, parents, children, roots, indexById, indexBySlug);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public Category get(Long id) {
+        Integer index = id != null ? indexById.get(id) : null;
+        return index != null ? nodes[index] : null;
+    }
+
+    public Category getBySlug(String slug) {
+        Integer index = slug != null ? indexBySlug.get(slug) : null;
+        return index != null ? nodes[index] : null;
+    }
+
+    public Category getParent(Long id) {
+        Integer index = indexById.get(id);
+        return index != null && parents[index] >= 0 ? nodes[parents[index]] : null;
+    }
+
+    public List<Category> all(boolean activeOnly) {
+        List<Category> result = new ArrayList<>(nodes.length);
+        for (Category node : nodes) {
+            if (!activeOnly || isActive(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Top-level categories in display order.
+     */
+    public List<Category> roots(boolean activeOnly) {
+        return select(roots, activeOnly);
+    }
+
+    /**
+     * Direct children in display order; empty for unknown ids.
+     */
+    public List<Category> children(Long parentId, boolean activeOnly) {
+        Integer index = indexById.get(parentId);
+        return index != null ? select(children[index], activeOnly) : List.of();
+    }
+
+    /**
+     * Categories from the root down to and including {@code id}, for breadcrumbs.
+     * Empty for unknown ids.
+     */
+    public List<Category> path(Long id) {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            return List.of();
+        }
+        List<Category> path = new ArrayList<>();
+        // Bounded by the node count in case a cycle ever slipped into the data
+        for (int i = index, steps = 0; i >= 0 && steps < nodes.length; i = parents[i], steps++) {
+            path.add(nodes[i]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public boolean isDescendantOf(Long descendantId, Long ancestorId) {
+        Integer index = indexById.get(descendantId);
+        Integer ancestor = indexById.get(ancestorId);
+        if (index == null || ancestor == null) {
+            return false;
+        }
+        for (int i = parents[index], steps = 0; i >= 0 && steps < nodes.length; i = parents[i], steps++) {
+            if (i == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Index-level access for structures aligned with this snapshot's node array
+
+    int indexOf(Long id) {
+        Integer index = id != null ? indexById.get(id) : null;
+        return index != null ? index : -1;
+    }
+
+    int parentIndex(int index) {
+        return parents[index];
+    }
+
+    Long idAt(int index) {
+        return nodes[index].getId();
+    }
+
+    private List<Category> select(int[] indexes, boolean activeOnly) {
+        List<Category> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            if (!activeOnly || isActive(nodes[index])) {
+                result.add(nodes[index]);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isActive(Category category) {
+        return Boolean.TRUE.equals(category.getIsActive());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.CategoryMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the current {@link CategoryTree}. Category writes on this node swap in a fresh
+ * snapshot once their transaction commits; the periodic refresh picks up writes made on
+ * other nodes, so {@code app.catalog.category-refresh-interval-ms} bounds how stale a
+ * node's view of the hierarchy can get.
+ */
+@Slf4j
+@Component
+public class CategoryTreeCache {
+
+    private final CategoryMapper categoryMapper;
+    private volatile CategoryTree tree = CategoryTree.EMPTY;
+
+    public CategoryTreeCache(CategoryMapper categoryMapper, MeterRegistry meterRegistry) {
+        this.categoryMapper = categoryMapper;
+        Gauge.builder("catalog.category_tree.size", this, cache -> cache.tree.size())
+                .description("Categories in the in-memory category tree")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not load category tree at startup, will retry on next refresh", e);
+        }
+    }
+
+    public CategoryTree get() {
+        return tree;
+    }
+
+    /**
+     * Rebuilds the snapshot from one query over all categories. Synchronized so a slow
+     * rebuild cannot overwrite a newer one.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.category-refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        tree = CategoryTree.build(categoryMapper.findAll());
+    }
+
+    /**
+     * Rebuilds once the current transaction commits, or immediately outside one.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.StoreDashboardStatsResponse;
+import com.ecommerce.dto.StoreStatsResponse;
+import com.ecommerce.mapper.DashboardCounterMapper;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Store;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin and seller dashboard counters held in memory, so dashboards read them in O(1)
+ * instead of counting stores and scanning orders.
+ *
+ * Platform-wide store counts are adjusted by {@link StoreService}; per-store order counts
+ * and paid revenue by {@link OrderService} and {@link PaymentService}. Each adjustment is
+ * applied once the surrounding transaction commits. Values are persisted periodically to
+ * {@code dashboard_counters} and loaded from there at startup, then reconciled against the
+ * source tables at startup and on a schedule to absorb writes from other nodes and drift.
+ */
+@Slf4j
+@Component
+public class DashboardCounters {
+
+    static final long PLATFORM = 0L;
+    static final String TOTAL_STORES = "stores.total";
+    static final String ACTIVE_STORES = "stores.active";
+    static final String VERIFIED_STORES = "stores.verified";
+    static final String PENDING_STORES = "stores.pending";
+    static final String ORDERS = "orders";
+    static final String PAID_REVENUE = "revenue.paid";
+
+    private static final int PERSIST_CHUNK = 500;
+
+    private final StoreMapper storeMapper;
+    private final OrderMapper orderMapper;
+    private final DashboardCounterMapper dashboardCounterMapper;
+
+    private final AtomicLong totalStores = new AtomicLong();
+    private final AtomicLong activeStores = new AtomicLong();
+    private final AtomicLong verifiedStores = new AtomicLong();
+    private final AtomicLong pendingStores = new AtomicLong();
+    private final Map<Long, StoreCounters> stores = new ConcurrentHashMap<>();
+    /** Stores changed since the last persist; the platform counters are always written. */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter corrections;
+
+    public DashboardCounters(StoreMapper storeMapper, OrderMapper orderMapper,
+                             DashboardCounterMapper dashboardCounterMapper, MeterRegistry meterRegistry) {
+        this.storeMapper = storeMapper;
+        this.orderMapper = orderMapper;
+        this.dashboardCounterMapper = dashboardCounterMapper;
+        this.corrections = Counter.builder("dashboard.counters.corrections")
+                .description("Dashboard counters fixed by reconciliation against the source tables")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            loadSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Could not load persisted dashboard counters", e);
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile dashboard counters at startup, will retry on next reconcile", e);
+        }
+    }
+
+    public StoreStatsResponse getStoreStats() {
+        return StoreStatsResponse.builder()
+                .totalStores(totalStores.get())
+                .activeStores(activeStores.get())
+                .verifiedStores(verifiedStores.get())
+                .pendingVerification(pendingStores.get())
+                .build();
+    }
+
+    public StoreDashboardStatsResponse getStoreDashboardStats(Long storeId) {
+        StoreCounters counters = stores.get(storeId);
+        return StoreDashboardStatsResponse.builder()
+                .storeId(storeId)
+                .totalOrders(counters != null ? counters.orders.get() : 0L)
+                .totalRevenue(counters != null ? fromCents(counters.paidRevenueCents.get()) : BigDecimal.ZERO.setScale(2))
+                .build();
+    }
+
+    public void storeCreated(Store store) {
+        afterCommit(() -> {
+            totalStores.incrementAndGet();
+            adjust(activeStores, false, Boolean.TRUE.equals(store.getIsActive()));
+            adjust(verifiedStores, false, Boolean.TRUE.equals(store.getIsVerified()));
+            adjust(pendingStores, false, store.getVerificationStatus() == Store.VerificationStatus.PENDING);
+        });
+    }
+
+    public void storeStatusChanged(Store before, boolean isActive) {
+        boolean wasActive = Boolean.TRUE.equals(before.getIsActive());
+        afterCommit(() -> adjust(activeStores, wasActive, isActive));
+    }
+
+    /**
+     * Mirrors {@code StoreMapper.updateVerificationStatus}, which marks a store verified
+     * exactly when its status is APPROVED.
+     */
+    public void storeVerificationChanged(Store before, Store.VerificationStatus status) {
+        boolean wasVerified = Boolean.TRUE.equals(before.getIsVerified());
+        boolean wasPending = before.getVerificationStatus() == Store.VerificationStatus.PENDING;
+        afterCommit(() -> {
+            adjust(verifiedStores, wasVerified, status == Store.VerificationStatus.APPROVED);
+            adjust(pendingStores, wasPending, status == Store.VerificationStatus.PENDING);
+        });
+    }
+
+    public void orderPlaced(List<OrderItem> items) {
+        Set<Long> storeIds = new HashSet<>();
+        for (OrderItem item : items) {
+            if (item.getStoreId() != null) {
+                storeIds.add(item.getStoreId());
+            }
+        }
+        afterCommit(() -> storeIds.forEach(storeId -> {
+            counters(storeId).orders.incrementAndGet();
+            dirty.add(storeId);
+        }));
+    }
+
+    /**
+     * Books the items of an order whose payment just completed as revenue of their stores.
+     */
+    public void orderPaid(List<OrderItem> items) {
+        Map<Long, Long> cents = centsByStore(items);
+        afterCommit(() -> cents.forEach((storeId, amount) -> addRevenue(storeId, amount)));
+    }
+
+    /**
+     * Reverses {@link #orderPaid} when a completed payment is refunded.
+     */
+    public void orderPaymentReversed(List<OrderItem> items) {
+        Map<Long, Long> cents = centsByStore(items);
+        afterCommit(() -> cents.forEach((storeId, amount) -> addRevenue(storeId, -amount)));
+    }
+
+    /**
+     * Replaces every counter with values computed from the stores and orders tables.
+     * Adjustments committed while the queries run may be off until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:900000}",
+               initialDelayString = "${app.dashboard.reconcile-interval-ms:900000}")
+    public synchronized void reconcile() {
+        int fixed = 0;
+        StoreStatsResponse actual = storeMapper.countStoreTotals();
+        fixed += set(totalStores, actual.getTotalStores());
+        fixed += set(activeStores, actual.getActiveStores());
+        fixed += set(verifiedStores, actual.getVerifiedStores());
+        fixed += set(pendingStores, actual.getPendingVerification());
+
+        Map<Long, OrderMapper.StoreOrderTotals> totals = new HashMap<>();
+        for (OrderMapper.StoreOrderTotals row : orderMapper.sumOrdersGroupByStore()) {
+            totals.put(row.getStoreId(), row);
+        }
+        for (OrderMapper.StoreOrderTotals row : totals.values()) {
+            StoreCounters counters = counters(row.getStoreId());
+            int before = fixed;
+            fixed += set(counters.orders, row.getOrderCount());
+            fixed += set(counters.paidRevenueCents, toCents(row.getPaidRevenue()));
+            if (fixed != before) {
+                dirty.add(row.getStoreId());
+            }
+        }
+        for (Map.Entry<Long, StoreCounters> entry : stores.entrySet()) {
+            if (!totals.containsKey(entry.getKey())) {
+                int before = fixed;
+                fixed += set(entry.getValue().orders, 0L);
+                fixed += set(entry.getValue().paidRevenueCents, 0L);
+                if (fixed != before) {
+                    dirty.add(entry.getKey());
+                }
+            }
+        }
+        corrections.increment(fixed);
+    }
+
+    /**
+     * Writes the platform counters and every store counter changed since the last run.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.persist-interval-ms:60000}")
+    public void persist() {
+        List<Long> changed = new ArrayList<>(dirty);
+        changed.forEach(dirty::remove);
+
+        List<DashboardCounterMapper.CounterRow> rows = new ArrayList<>(changed.size() * 2 + 4);
+        rows.add(new DashboardCounterMapper.CounterRow(PLATFORM, TOTAL_STORES, BigDecimal.valueOf(totalStores.get())));
+        rows.add(new DashboardCounterMapper.CounterRow(PLATFORM, ACTIVE_STORES, BigDecimal.valueOf(activeStores.get())));
+        rows.add(new DashboardCounterMapper.CounterRow(PLATFORM, VERIFIED_STORES, BigDecimal.valueOf(verifiedStores.get())));
+        rows.add(new DashboardCounterMapper.CounterRow(PLATFORM, PENDING_STORES, BigDecimal.valueOf(pendingStores.get())));
+        for (Long storeId : changed) {
+            StoreCounters counters = counters(storeId);
+            rows.add(new DashboardCounterMapper.CounterRow(storeId, ORDERS, BigDecimal.valueOf(counters.orders.get())));
+            rows.add(new DashboardCounterMapper.CounterRow(storeId, PAID_REVENUE,
+                    fromCents(counters.paidRevenueCents.get())));
+        }
+
+        try {
+            for (int from = 0; from < rows.size(); from += PERSIST_CHUNK) {
+                dashboardCounterMapper.upsertAll(rows.subList(from, Math.min(from + PERSIST_CHUNK, rows.size())));
+            }
+        } catch (RuntimeException e) {
+            dirty.addAll(changed);
+            log.warn("Could not persist dashboard counters, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void loadSnapshot() {
+        for (DashboardCounterMapper.CounterRow row : dashboardCounterMapper.findAll()) {
+            long value = row.getValue() != null ? row.getValue().longValue() : 0L;
+            if (row.getStoreId() == PLATFORM) {
+                switch (row.getName()) {
+                    case TOTAL_STORES -> totalStores.set(value);
+                    case ACTIVE_STORES -> activeStores.set(value);
+                    case VERIFIED_STORES -> verifiedStores.set(value);
+                    case PENDING_STORES -> pendingStores.set(value);
+                    default -> { }
+                }
+            } else if (ORDERS.equals(row.getName())) {
+                counters(row.getStoreId()).orders.set(value);
+            } else if (PAID_REVENUE.equals(row.getName())) {
+                counters(row.getStoreId()).paidRevenueCents.set(toCents(row.getValue()));
+            }
+        }
+    }
+
+    private void addRevenue(Long storeId, long cents) {
+        counters(storeId).paidRevenueCents.addAndGet(cents);
+        dirty.add(storeId);
+    }
+
+    private StoreCounters counters(Long storeId) {
+        return stores.computeIfAbsent(storeId, id -> new StoreCounters());
+    }
+
+    private static Map<Long, Long> centsByStore(List<OrderItem> items) {
+        Map<Long, Long> cents = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            if (item.getStoreId() != null && item.getTotalPrice() != null) {
+                cents.merge(item.getStoreId(), toCents(item.getTotalPrice()), Long::sum);
+            }
+        }
+        return cents;
+    }
+
+    private static void adjust(AtomicLong counter, boolean before, boolean after) {
+        if (before != after) {
+            counter.addAndGet(after ? 1 : -1);
+        }
+    }
+
+    private static int set(AtomicLong counter, Long value) {
+        long actual = value != null ? value : 0L;
+        return counter.getAndSet(actual) != actual ? 1 : 0;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact() : 0L;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static void afterCommit(Runnable apply) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static final class StoreCounters {
+        private final AtomicLong orders = new AtomicLong();
+        private final AtomicLong paidRevenueCents = new AtomicLong();
+    }
+}
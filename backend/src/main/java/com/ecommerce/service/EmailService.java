@@ -1,21 +1,36 @@
 package com.ecommerce.service;
 
+import com.ecommerce.mapper.MailOutboxMapper;
+import com.ecommerce.model.OutboundEmail;
+import com.ecommerce.model.Wishlist;
+import com.ecommerce.service.EmailTemplateEngine.EmailTemplate;
+import com.ecommerce.service.EmailTemplateEngine.RenderedEmail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders transactional emails with {@link EmailTemplateEngine} and queues them in the
+ * {@code mail_outbox} table; {@link MailDispatcher} delivers them in the background.
+ * Queuing joins the caller's transaction, so an email is only sent if the change that
+ * triggered it commits. An email whose template cannot be rendered is logged and skipped
+ * rather than failing, and rolling back, the change that triggered it.
+ */
 @Service
 public class EmailService {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     
-    private final JavaMailSender mailSender;
-    
-    @Value("${app.email.from}")
-    private String fromEmail;
+    private final MailOutboxMapper mailOutboxMapper;
+    private final EmailTemplateEngine templateEngine;
     
     @Value("${server.servlet.context-path:}")
     private String contextPath;
@@ -23,105 +38,103 @@ public class EmailService {
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
     
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(MailOutboxMapper mailOutboxMapper, EmailTemplateEngine templateEngine) {
+        this.mailOutboxMapper = mailOutboxMapper;
+        this.templateEngine = templateEngine;
     }
     
     public void sendVerificationEmail(String toEmail, String firstName, String verificationToken) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Verify Your Email - E-Commerce Store");
-            
-            String verificationUrl = frontendUrl + "/verify-email?token=" + verificationToken;
-            
-            String text = String.format(
-                "Hi %s,\n\n" +
-                "Welcome to E-Commerce Store! Please click the link below to verify your email address:\n\n" +
-                "%s\n\n" +
-                "This link will expire in 24 hours.\n\n" +
-                "If you didn't create an account, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "E-Commerce Store Team",
-                firstName != null ? firstName : "there",
-                verificationUrl
-            );
-            
-            message.setText(text);
-            mailSender.send(message);
-            
-            logger.info("Verification email sent to: {}", toEmail);
-        } catch (Exception e) {
-            logger.warn("Email service unavailable - skipping verification email for: {}", toEmail);
-            logger.info("Verification token for {}: {}", toEmail, verificationToken);
-            // Don't throw exception, just log and continue
+        boolean queued = enqueue(toEmail, "verification", Map.of(
+            "firstName", greetingName(firstName),
+            "verificationUrl", frontendUrl + "/verify-email?token=" + verificationToken
+        ));
+        if (queued) {
+            logger.info("Verification email queued for: {}", toEmail);
         }
     }
     
     public void sendPasswordResetEmail(String toEmail, String firstName, String resetToken) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Password Reset - E-Commerce Store");
-            
-            String resetUrl = frontendUrl + "/reset-password?token=" + resetToken;
-            
-            String text = String.format(
-                "Hi %s,\n\n" +
-                "You requested a password reset for your E-Commerce Store account.\n\n" +
-                "Click the link below to reset your password:\n\n" +
-                "%s\n\n" +
-                "This link will expire in 1 hour.\n\n" +
-                "If you didn't request this reset, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "E-Commerce Store Team",
-                firstName != null ? firstName : "there",
-                resetUrl
-            );
-            
-            message.setText(text);
-            mailSender.send(message);
-            
-            logger.info("Password reset email sent to: {}", toEmail);
-        } catch (Exception e) {
-            logger.warn("Email service unavailable - skipping password reset email for: {}", toEmail);
-            logger.info("Password reset token for {}: {}", toEmail, resetToken);
-            // Don't throw exception, just log and continue
+        boolean queued = enqueue(toEmail, "password-reset", Map.of(
+            "firstName", greetingName(firstName),
+            "resetUrl", frontendUrl + "/reset-password?token=" + resetToken
+        ));
+        if (queued) {
+            logger.info("Password reset email queued for: {}", toEmail);
         }
     }
     
     public void sendWelcomeEmail(String toEmail, String firstName) {
+        boolean queued = enqueue(toEmail, "welcome", Map.of(
+            "firstName", greetingName(firstName),
+            "storeUrl", frontendUrl
+        ));
+        if (queued) {
+            logger.info("Welcome email queued for: {}", toEmail);
+        }
+    }
+    
+    /**
+     * Queues one wishlist alert per watcher with a single multi-row insert. The template
+     * is resolved once for the batch; each email adds the watcher's first name and a link
+     * to the product to the shared model.
+     *
+     * @return the number of emails queued
+     */
+    public int sendWishlistAlertEmails(String template, String productSlug, Map<String, ?> model,
+                                       List<Wishlist> watchers) {
+        if (watchers.isEmpty()) {
+            return 0;
+        }
+        // Runs in the background, so there is no request locale to honour
+        EmailTemplate resolved = templateEngine.resolve(template, Locale.forLanguageTag(EmailTemplateEngine.DEFAULT_LANGUAGE));
+        Map<String, Object> recipientModel = new HashMap<>(model);
+        recipientModel.put("productUrl", frontendUrl + "/buyer/products/" + productSlug);
+        List<OutboundEmail> emails = new ArrayList<>(watchers.size());
+        for (Wishlist watcher : watchers) {
+            recipientModel.put("firstName", greetingName(watcher.getUserFirstName()));
+            RenderedEmail email;
+            try {
+                email = templateEngine.render(resolved, recipientModel);
+            } catch (IllegalArgumentException e) {
+                logger.error("Skipping {} email to {}: {}", template, watcher.getUserEmail(), e.getMessage());
+                continue;
+            }
+            emails.add(OutboundEmail.builder()
+                .toAddress(watcher.getUserEmail())
+                .subject(email.subject())
+                .body(email.text())
+                .htmlBody(email.html())
+                .build());
+        }
+        if (!emails.isEmpty()) {
+            mailOutboxMapper.insertBatch(emails);
+        }
+        return emails.size();
+    }
+    
+    /**
+     * @return false if the template could not be rendered and nothing was queued
+     */
+    private boolean enqueue(String toEmail, String template, Map<String, ?> model) {
+        RenderedEmail email;
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to E-Commerce Store!");
-            
-            String text = String.format(
-                "Hi %s,\n\n" +
-                "Welcome to E-Commerce Store! Your email has been verified successfully.\n\n" +
-                "You can now:\n" +
-                "• Browse our products\n" +
-                "• Add items to your cart\n" +
-                "• Place orders\n" +
-                "• Manage your profile\n\n" +
-                "Visit our store: %s\n\n" +
-                "Happy shopping!\n\n" +
-                "Best regards,\n" +
-                "E-Commerce Store Team",
-                firstName != null ? firstName : "there",
-                frontendUrl
-            );
-            
-            message.setText(text);
-            mailSender.send(message);
-            
-            logger.info("Welcome email sent to: {}", toEmail);
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to: {}", toEmail, e);
-            // Don't throw exception for welcome email failures
+            // Locale of the current request (Accept-Language), falling back to the default language
+            email = templateEngine.render(template, LocaleContextHolder.getLocale(), model);
+        } catch (IllegalArgumentException e) {
+            // Unknown template or a missing value; not worth failing the caller's transaction over
+            logger.error("Skipping {} email to {}: {}", template, toEmail, e.getMessage());
+            return false;
         }
+        mailOutboxMapper.insert(OutboundEmail.builder()
+            .toAddress(toEmail)
+            .subject(email.subject())
+            .body(email.text())
+            .htmlBody(email.html())
+            .build());
+        return true;
+    }
+    
+    private static String greetingName(String firstName) {
+        return firstName != null ? firstName : "there";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+package com.ecommerce.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders transactional emails from templates under {@code classpath:templates/email/}.
+ *
+ * A template is a {@code <name>.<language-tag>.txt} file whose first line is the subject
+ * and whose remainder is the plain-text body, optionally with a matching {@code .html}
+ * file for the HTML alternative. Placeholders are written {@code {{name}}}; values are
+ * HTML-escaped in the HTML variant. Templates are parsed once at startup into segment
+ * arrays and rendering appends into a per-thread buffer, so bulk sends do no parsing and
+ * allocate little beyond the output strings. Callers rendering many messages should
+ * {@link #resolve} the template once and reuse it.
+ */
+@Slf4j
+@Service
+public class EmailTemplateEngine {
+
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    private static final String LOCATION = "classpath*:templates/email/*.txt";
+    private static final int INITIAL_BUFFER = 4 * 1024;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, Map<String, EmailTemplate>> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER));
+
+    @PostConstruct
+    public void load() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+            for (Resource text : resources) {
+                String filename = text.getFilename();
+                int dot = filename.indexOf('.');
+                int ext = filename.lastIndexOf('.');
+                if (dot <= 0 || dot == ext) {
+                    throw new IllegalStateException("Email template must be named <name>.<language>.txt: " + filename);
+                }
+                Resource html = text.createRelative(filename.substring(0, ext) + ".html");
+                register(filename.substring(0, dot), filename.substring(dot + 1, ext),
+                    read(text), html.exists() ? read(html) : null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email templates", e);
+        }
+        log.info("Compiled {} email templates", templates.values().stream().mapToInt(Map::size).sum());
+    }
+
+    /**
+     * Compiles and registers a template, replacing any with the same name and language.
+     */
+    public EmailTemplate register(String name, String languageTag, String textSource, String htmlSource) {
+        EmailTemplate template = EmailTemplate.compile(name + "." + languageTag, textSource, htmlSource);
+        templates.computeIfAbsent(name, n -> new ConcurrentHashMap<>()).put(languageTag, template);
+        return template;
+    }
+
+    /**
+     * Finds the best variant for a locale: exact language tag, then language, then
+     * {@value #DEFAULT_LANGUAGE}.
+     */
+    public EmailTemplate resolve(String name, Locale locale) {
+        Map<String, EmailTemplate> variants = templates.get(name);
+        if (variants == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        EmailTemplate template = null;
+        if (locale != null) {
+            template = variants.get(locale.toLanguageTag());
+            if (template == null) {
+                template = variants.get(locale.getLanguage());
+            }
+        }
+        if (template == null) {
+            template = variants.get(DEFAULT_LANGUAGE);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No " + DEFAULT_LANGUAGE + " variant of email template: " + name);
+        }
+        return template;
+    }
+
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model) {
+        return render(resolve(name, locale), model);
+    }
+
+    public RenderedEmail render(EmailTemplate template, Map<String, ?> model) {
+        StringBuilder buffer = buffers.get();
+        try {
+            String subject = template.subject.render(buffer, model);
+            String text = template.text.render(buffer, model);
+            String html = template.html != null ? template.html.render(buffer, model) : null;
+            return new RenderedEmail(subject, text, html);
+        } finally {
+            // Keep the buffer warm for the next message, unless one huge email inflated it
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffers.set(new StringBuilder(INITIAL_BUFFER));
+            }
+        }
+    }
+
+    private static String read(Resource resource) throws IOException {
+        return resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+
+    public record RenderedEmail(String subject, String text, String html) {
+    }
+
+    /**
+     * A compiled template: subject, text body and optional HTML body.
+     */
+    public static final class EmailTemplate {
+        private final String name;
+        private final Segments subject;
+        private final Segments text;
+        private final Segments html;
+
+        private EmailTemplate(String name, Segments subject, Segments text, Segments html) {
+            this.name = name;
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+
+        static EmailTemplate compile(String name, String textSource, String htmlSource) {
+            int newline = textSource.indexOf('\n');
+            if (newline < 0) {
+                throw new IllegalStateException("Email template " + name + " needs a subject line and a body");
+            }
+            String body = textSource.substring(newline + 1);
+            if (body.startsWith("\n")) {
+                body = body.substring(1);
+            }
+            return new EmailTemplate(name,
+                Segments.parse(name, textSource.substring(0, newline).strip(), false),
+                Segments.parse(name, body, false),
+                htmlSource != null ? Segments.parse(name, htmlSource, true) : null);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean hasHtml() {
+            return html != null;
+        }
+    }
+
+    /**
+     * Alternating literal text and placeholders: literals[i] precedes variables[i], and
+     * the last literal follows the last placeholder.
+     */
+    static final class Segments {
+        private final String template;
+        private final String[] literals;
+        private final String[] variables;
+        private final boolean escapeHtml;
+
+        private Segments(String template, String[] literals, String[] variables, boolean escapeHtml) {
+            this.template = template;
+            this.literals = literals;
+            this.variables = variables;
+            this.escapeHtml = escapeHtml;
+        }
+
+        static Segments parse(String template, String source, boolean escapeHtml) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int pos = 0;
+            while (true) {
+                int open = source.indexOf("{{", pos);
+                if (open < 0) {
+                    break;
+                }
+                int close = source.indexOf("}}", open + 2);
+                if (close < 0) {
+                    throw new IllegalStateException("Unclosed placeholder in email template " + template);
+                }
+                String variable = source.substring(open + 2, close).strip();
+                if (variable.isEmpty()) {
+                    throw new IllegalStateException("Empty placeholder in email template " + template);
+                }
+                literals.add(source.substring(pos, open));
+                variables.add(variable);
+                pos = close + 2;
+            }
+            literals.add(source.substring(pos));
+            return new Segments(template, literals.toArray(new String[0]), variables.toArray(new String[0]),
+                escapeHtml);
+        }
+
+        String render(StringBuilder buffer, Map<String, ?> model) {
+            buffer.setLength(0);
+            for (int i = 0; i < variables.length; i++) {
+                buffer.append(literals[i]);
+                Object value = model.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException(
+                        "No value for {{" + variables[i] + "}} in email template " + template);
+                }
+                CharSequence chars = value instanceof CharSequence cs ? cs : String.valueOf(value);
+                if (escapeHtml) {
+                    appendEscaped(buffer, chars);
+                } else {
+                    buffer.append(chars);
+                }
+            }
+            buffer.append(literals[variables.length]);
+            return buffer.toString();
+        }
+
+        private static void appendEscaped(StringBuilder buffer, CharSequence value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> buffer.append("&amp;");
+                    case '<' -> buffer.append("&lt;");
+                    case '>' -> buffer.append("&gt;");
+                    case '"' -> buffer.append("&quot;");
+                    case '\'' -> buffer.append("&#39;");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+    }
+}
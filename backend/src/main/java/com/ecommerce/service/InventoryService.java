@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -15,6 +16,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InventoryService {
     
+    private static final int BATCH_INSERT_SIZE = 1000;
+    
     private final InventoryTransactionMapper inventoryTransactionMapper;
     
     @Transactional
@@ -93,4 +96,38 @@ public class InventoryService {
         addInventoryTransaction(productId, null, "COMMIT", -quantity, "ORDER", null, notes);
         log.info("Committed {} reserved units for product {}: {}", quantity, productId, notes);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Records one RELEASE or COMMIT transaction per entry with a single multi-row insert.
+     */
+    @Transactional
+    public void recordOrderTransactionsBatch(String transactionType, List<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Long userId = SecurityUtils.getCurrentUserId();
+        boolean outbound = !"RELEASE".equals(transactionType);
+        
+        List<InventoryTransaction> transactions = new ArrayList<>(movements.size());
+        for (InventoryMovement movement : movements) {
+            transactions.add(InventoryTransaction.builder()
+                    .productId(movement.productId())
+                    .transactionType(transactionType)
+                    .quantity(outbound ? -movement.quantity() : movement.quantity())
+                    .referenceType("ORDER")
+                    .referenceId(movement.orderId())
+                    .notes(movement.notes())
+                    .createdBy(userId)
+                    .build());
+        }
+        
+        for (int from = 0; from < transactions.size(); from += BATCH_INSERT_SIZE) {
+            inventoryTransactionMapper.insertBatch(
+                    transactions.subList(from, Math.min(from + BATCH_INSERT_SIZE, transactions.size())));
+        }
+        log.info("Recorded {} {} inventory transactions", transactions.size(), transactionType);
+    }
+    
+    public record InventoryMovement(Long orderId, Long productId, Integer quantity, String notes) {
+    }
+}
@@ -0,0 +1,246 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.MailOutboxMapper;
+import com.ecommerce.model.OutboundEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued rows from the {@code mail_outbox} table.
+ *
+ * Each run claims due rows in a short transaction (locking with SKIP LOCKED and leasing
+ * them by pushing {@code next_attempt_at} forward, so several instances can dispatch
+ * side by side) and sends each batch with a single {@link JavaMailSender#send} call,
+ * which reuses one SMTP connection for the whole batch. Emails with an HTML body go out
+ * as multipart/alternative. Failed messages are retried with exponential backoff until
+ * {@code app.email.max-attempts}, then marked FAILED. Each claim counts as an attempt,
+ * and the outcome is only recorded while that claim still holds.
+ *
+ * Any SMTP server works for local testing; the default configuration points at the
+ * MailHog container from docker-compose.dev.yml on localhost:1025.
+ */
+@Slf4j
+@Service
+public class MailDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxMapper mailOutboxMapper;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public MailDispatcher(MailOutboxMapper mailOutboxMapper, JavaMailSender mailSender,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${app.email.from}") String fromEmail,
+                          @Value("${app.email.batch-size:50}") int batchSize,
+                          @Value("${app.email.max-attempts:8}") int maxAttempts,
+                          @Value("${app.email.initial-backoff:30s}") Duration initialBackoff,
+                          @Value("${app.email.max-backoff:1h}") Duration maxBackoff,
+                          @Value("${app.email.lease:5m}") Duration lease) {
+        this.mailOutboxMapper = mailOutboxMapper;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get)
+                .description("Emails queued and not yet sent, as of the last dispatch run")
+                .register(meterRegistry);
+        this.sent = Counter.builder("mail.sent").description("Emails delivered to SMTP").register(meterRegistry);
+        this.retried = Counter.builder("mail.retried").description("Email send attempts rescheduled").register(meterRegistry);
+        this.failed = Counter.builder("mail.failed").description("Emails given up on").register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.batch.send")
+                .description("Time to send one batch over SMTP")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        List<OutboundEmail> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+            // Failed rows are rescheduled into the future, so this ends even if SMTP is down
+        } while (batch.size() == batchSize);
+        pending.set(mailOutboxMapper.countPending());
+    }
+
+    @Scheduled(cron = "${app.email.outbox-cleanup-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = mailOutboxMapper.deleteSentBefore(before, 5000);
+            total += deleted;
+        } while (deleted == 5000);
+        if (total > 0) {
+            log.info("Purged {} sent emails from the outbox", total);
+        }
+    }
+
+    private List<OutboundEmail> claimBatch() {
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> {
+            List<OutboundEmail> due = mailOutboxMapper.lockDue(batchSize);
+            if (!due.isEmpty()) {
+                mailOutboxMapper.lease(due.stream().map(OutboundEmail::getId).toList(),
+                        LocalDateTime.now().plus(lease));
+                // Matches the attempts the lease just wrote; later writes are fenced on it
+                due.forEach(email -> email.setAttempts(email.getAttempts() + 1));
+            }
+            return due;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    void send(List<OutboundEmail> batch) {
+        List<OutboundEmail> sendable = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboundEmail email : batch) {
+            if (email.getAttempts() > maxAttempts) {
+                // Claimed again after earlier sends outlived their lease
+                giveUp(email, "Lease expired on every attempt");
+                continue;
+            }
+            try {
+                messages.add(toMessage(email));
+                sendable.add(email);
+            } catch (MessagingException e) {
+                // Malformed address or content; retrying will not help
+                giveUp(email, truncate(e.getMessage()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        MimeMessage[] batchMessages = messages.toArray(new MimeMessage[0]);
+        Map<Object, Exception> failures = Map.of();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(batchMessages);
+        } catch (MailSendException e) {
+            // Per-message failures when available; otherwise the whole batch failed
+            failures = e.getFailedMessages().isEmpty() ? allFailed(batchMessages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(batchMessages, e);
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        List<OutboundEmail> sentEmails = new ArrayList<>(sendable.size());
+        for (int i = 0; i < batchMessages.length; i++) {
+            Exception error = failures.get(batchMessages[i]);
+            if (error == null) {
+                sentEmails.add(sendable.get(i));
+            } else {
+                reschedule(sendable.get(i), error);
+            }
+        }
+        if (!sentEmails.isEmpty()) {
+            int marked = mailOutboxMapper.markSent(sentEmails);
+            if (marked < sentEmails.size()) {
+                log.warn("{} of {} sent emails had been claimed by another dispatcher",
+                        sentEmails.size() - marked, sentEmails.size());
+            }
+            sent.increment(sentEmails.size());
+        }
+    }
+
+    private void reschedule(OutboundEmail email, Exception error) {
+        int attempts = email.getAttempts();
+        String message = truncate(error.getMessage());
+        if (attempts >= maxAttempts) {
+            giveUp(email, message);
+            return;
+        }
+        mailOutboxMapper.markRetry(email.getId(), attempts, LocalDateTime.now().plus(backoff(attempts)), message);
+        retried.increment();
+        log.warn("Email {} to {} failed (attempt {}), will retry: {}",
+                email.getId(), email.getToAddress(), attempts, message);
+    }
+
+    private void giveUp(OutboundEmail email, String message) {
+        mailOutboxMapper.markFailed(email.getId(), email.getAttempts(), message);
+        failed.increment();
+        log.error("Giving up on email {} to {} after {} attempts: {}",
+                email.getId(), email.getToAddress(), email.getAttempts(), message);
+    }
+
+    Duration backoff(int attempts) {
+        // initial, 2x, 4x, ... capped; shift bounded so it cannot overflow
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean multipart = email.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getToAddress());
+        helper.setSubject(email.getSubject());
+        if (multipart) {
+            helper.setText(email.getBody(), email.getHtmlBody());
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(MimeMessage[] messages, Exception error) {
+        Map<Object, Exception> failures = new HashMap<>();
+        for (MimeMessage message : messages) {
+            failures.put(message, error);
+        }
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
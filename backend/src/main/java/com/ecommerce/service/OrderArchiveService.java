@@ -0,0 +1,105 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.OrderArchiveMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves closed orders (DELIVERED, CANCELLED, REFUNDED) that have not changed for
+ * {@code app.archive.retention-days} into the {@code *_archive} tables, together with
+ * their items and payments. Keeping only open and recent orders in the hot tables keeps
+ * their indexes small enough to stay in the buffer pool; OrderMapper reads by id,
+ * number and user fall back to the archive transparently.
+ *
+ * Each batch is copied and deleted in its own short transaction, and batches are
+ * spaced out so the job never competes with checkout traffic for long.
+ */
+@Slf4j
+@Service
+public class OrderArchiveService {
+
+    private final OrderArchiveMapper orderArchiveMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedOrders;
+
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatchesPerRun;
+
+    public OrderArchiveService(OrderArchiveMapper orderArchiveMapper,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.archive.enabled:true}") boolean enabled,
+                               @Value("${app.archive.retention-days:180}") int retentionDays,
+                               @Value("${app.archive.batch-size:500}") int batchSize,
+                               @Value("${app.archive.batch-pause-ms:200}") long batchPauseMs,
+                               @Value("${app.archive.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this.orderArchiveMapper = orderArchiveMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedOrders = Counter.builder("orders.archived")
+                .description("Orders moved to the archive tables")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 15 2 * * *}")
+    public void archiveClosedOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime closedBefore = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(closedBefore));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            archivedOrders.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(batchPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} orders closed before {}", total, closedBefore);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime closedBefore) {
+        List<Long> ids = orderArchiveMapper.lockArchivableOrderIds(closedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        orderArchiveMapper.copyOrders(ids);
+        orderArchiveMapper.copyOrderItems(ids);
+        orderArchiveMapper.copyPayments(ids);
+        orderArchiveMapper.deletePayments(ids);
+        orderArchiveMapper.deleteOrderItems(ids);
+        orderArchiveMapper.deleteOrders(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,387 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OrderExportRequest;
+import com.ecommerce.dto.OrderExportRow;
+import com.ecommerce.mapper.OrderMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a store's order history as CSV or NDJSON.
+ *
+ * Rows come from a forward-only MyBatis {@link Cursor} ordered by order id, so orders
+ * are assembled one at a time and written straight to the output stream. Only the
+ * current row is held in memory, keeping heap use flat regardless of how many orders
+ * the store has.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ORDERS = 1000;
+
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the export, archived orders included, to {@code out}. The stream is
+     * finished (and gzip trailer written) but not closed.
+     *
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportStoreOrders(OrderExportRequest request, Format format, boolean gzip,
+                                  OutputStream out) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, WRITE_BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        ExportWriter exportWriter = format == Format.CSV
+                ? new CsvExportWriter(writer, request)
+                : new NdjsonExportWriter(objectMapper.getFactory().createGenerator(writer), request);
+
+        exportWriter.begin();
+        // Archived orders first: an order lives entirely in one table set, so rows stay grouped
+        long orders = writeOrders(copyFor(request, true), exportWriter, writer)
+                + writeOrders(copyFor(request, false), exportWriter, writer);
+        exportWriter.finish();
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        log.info("Exported {} orders for store {} as {}{}", orders, request.getStoreId(), format,
+                gzip ? " (gzip)" : "");
+        return orders;
+    }
+
+    private long writeOrders(OrderExportRequest request, ExportWriter exportWriter, Writer writer) throws IOException {
+        long orders = 0;
+        try (Cursor<OrderExportRow> cursor = orderMapper.streamStoreOrderExport(request)) {
+            Long currentOrderId = null;
+            for (OrderExportRow row : cursor) {
+                if (!row.getOrderId().equals(currentOrderId)) {
+                    if (currentOrderId != null) {
+                        exportWriter.endOrder();
+                        if (++orders % FLUSH_EVERY_ORDERS == 0) {
+                            writer.flush();
+                        }
+                    }
+                    exportWriter.startOrder(row);
+                    currentOrderId = row.getOrderId();
+                }
+                if (request.isIncludeItems()) {
+                    exportWriter.item(row);
+                }
+            }
+            if (currentOrderId != null) {
+                exportWriter.endOrder();
+                orders++;
+            }
+        }
+        return orders;
+    }
+
+    private static OrderExportRequest copyFor(OrderExportRequest request, boolean archived) {
+        return OrderExportRequest.builder()
+                .storeId(request.getStoreId())
+                .createdFrom(request.getCreatedFrom())
+                .createdTo(request.getCreatedTo())
+                .status(request.getStatus())
+                .includeItems(request.isIncludeItems())
+                .includeAddresses(request.isIncludeAddresses())
+                .archived(archived)
+                .build();
+    }
+
+    private interface ExportWriter {
+        void begin() throws IOException;
+        void startOrder(OrderExportRow row) throws IOException;
+        void item(OrderExportRow row) throws IOException;
+        void endOrder() throws IOException;
+        void finish() throws IOException;
+    }
+
+    /**
+     * One CSV line per order item (order columns repeated), or one line per order when
+     * items are excluded.
+     */
+    private static final class CsvExportWriter implements ExportWriter {
+        private static final String ORDER_HEADER = "order_number,order_id,user_id,status,payment_status,payment_method,"
+                + "subtotal_amount,tax_amount,shipping_amount,discount_amount,total_amount,"
+                + "created_at,delivered_at,cancelled_at";
+        private static final String ITEM_HEADER = ",item_id,product_id,product_name,quantity,price_at_time,total_price";
+        private static final String ADDRESS_HEADER = ",ship_first_name,ship_last_name,ship_phone,ship_street,"
+                + "ship_city,ship_state,ship_postal_code,ship_country";
+
+        private final Writer out;
+        private final OrderExportRequest request;
+        private OrderExportRow order;
+
+        CsvExportWriter(Writer out, OrderExportRequest request) {
+            this.out = out;
+            this.request = request;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write(ORDER_HEADER);
+            if (request.isIncludeItems()) {
+                out.write(ITEM_HEADER);
+            }
+            if (request.isIncludeAddresses()) {
+                out.write(ADDRESS_HEADER);
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void startOrder(OrderExportRow row) {
+            this.order = row;
+        }
+
+        @Override
+        public void item(OrderExportRow row) throws IOException {
+            writeOrderColumns();
+            out.write(',');
+            value(row.getItemId());
+            out.write(',');
+            value(row.getProductId());
+            out.write(',');
+            value(row.getProductName());
+            out.write(',');
+            value(row.getQuantity());
+            out.write(',');
+            value(row.getPriceAtTime());
+            out.write(',');
+            value(row.getTotalPrice());
+            writeAddressColumns();
+            out.write("\r\n");
+        }
+
+        @Override
+        public void endOrder() throws IOException {
+            if (!request.isIncludeItems()) {
+                writeOrderColumns();
+                writeAddressColumns();
+                out.write("\r\n");
+            }
+            order = null;
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeOrderColumns() throws IOException {
+            value(order.getOrderNumber());
+            out.write(',');
+            value(order.getOrderId());
+            out.write(',');
+            value(order.getUserId());
+            out.write(',');
+            value(order.getStatus());
+            out.write(',');
+            value(order.getPaymentStatus());
+            out.write(',');
+            value(order.getPaymentMethod());
+            out.write(',');
+            value(order.getSubtotalAmount());
+            out.write(',');
+            value(order.getTaxAmount());
+            out.write(',');
+            value(order.getShippingAmount());
+            out.write(',');
+            value(order.getDiscountAmount());
+            out.write(',');
+            value(order.getTotalAmount());
+            out.write(',');
+            value(order.getCreatedAt());
+            out.write(',');
+            value(order.getDeliveredAt());
+            out.write(',');
+            value(order.getCancelledAt());
+        }
+
+        private void writeAddressColumns() throws IOException {
+            if (!request.isIncludeAddresses()) {
+                return;
+            }
+            String[] fields = {
+                order.getShipFirstName(), order.getShipLastName(), order.getShipPhone(), order.getShipStreet(),
+                order.getShipCity(), order.getShipState(), order.getShipPostalCode(), order.getShipCountry()
+            };
+            for (String field : fields) {
+                out.write(',');
+                value(field);
+            }
+        }
+
+        private void value(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof BigDecimal decimal) {
+                out.write(decimal.toPlainString());
+            } else if (value instanceof String text) {
+                writeEscaped(text);
+            } else {
+                out.write(value.toString());
+            }
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private void writeEscaped(String text) throws IOException {
+            boolean needsQuotes = false;
+            for (int i = 0; i < text.length() && !needsQuotes; i++) {
+                char c = text.charAt(i);
+                needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!needsQuotes) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    /**
+     * One JSON object per line per order, with items as a nested array.
+     */
+    private static final class NdjsonExportWriter implements ExportWriter {
+        private final JsonGenerator json;
+        private final OrderExportRequest request;
+
+        NdjsonExportWriter(JsonGenerator json, OrderExportRequest request) {
+            this.json = json;
+            this.request = request;
+            // Lines are separated explicitly in endOrder
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void startOrder(OrderExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("orderNumber", row.getOrderNumber());
+            json.writeNumberField("orderId", row.getOrderId());
+            numberField("userId", row.getUserId());
+            json.writeStringField("status", row.getStatus());
+            json.writeStringField("paymentStatus", row.getPaymentStatus());
+            json.writeStringField("paymentMethod", row.getPaymentMethod());
+            numberField("subtotalAmount", row.getSubtotalAmount());
+            numberField("taxAmount", row.getTaxAmount());
+            numberField("shippingAmount", row.getShippingAmount());
+            numberField("discountAmount", row.getDiscountAmount());
+            numberField("totalAmount", row.getTotalAmount());
+            timestampField("createdAt", row.getCreatedAt());
+            timestampField("deliveredAt", row.getDeliveredAt());
+            timestampField("cancelledAt", row.getCancelledAt());
+            if (request.isIncludeAddresses()) {
+                json.writeObjectFieldStart("shippingAddress");
+                json.writeStringField("firstName", row.getShipFirstName());
+                json.writeStringField("lastName", row.getShipLastName());
+                json.writeStringField("phone", row.getShipPhone());
+                json.writeStringField("street", row.getShipStreet());
+                json.writeStringField("city", row.getShipCity());
+                json.writeStringField("state", row.getShipState());
+                json.writeStringField("postalCode", row.getShipPostalCode());
+                json.writeStringField("country", row.getShipCountry());
+                json.writeEndObject();
+            }
+            if (request.isIncludeItems()) {
+                json.writeArrayFieldStart("items");
+            }
+        }
+
+        @Override
+        public void item(OrderExportRow row) throws IOException {
+            json.writeStartObject();
+            numberField("itemId", row.getItemId());
+            numberField("productId", row.getProductId());
+            json.writeStringField("productName", row.getProductName());
+            if (row.getQuantity() != null) {
+                json.writeNumberField("quantity", row.getQuantity());
+            }
+            numberField("priceAtTime", row.getPriceAtTime());
+            numberField("totalPrice", row.getTotalPrice());
+            json.writeEndObject();
+        }
+
+        @Override
+        public void endOrder() throws IOException {
+            if (request.isIncludeItems()) {
+                json.writeEndArray();
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+
+        private void numberField(String name, Long value) throws IOException {
+            if (value != null) {
+                json.writeNumberField(name, value);
+            }
+        }
+
+        private void numberField(String name, BigDecimal value) throws IOException {
+            if (value != null) {
+                json.writeNumberField(name, value);
+            }
+        }
+
+        private void timestampField(String name, LocalDateTime value) throws IOException {
+            if (value != null) {
+                json.writeStringField(name, value.toString());
+            }
+        }
+    }
+}
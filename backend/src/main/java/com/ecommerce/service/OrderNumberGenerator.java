@@ -0,0 +1,139 @@
+package com.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order number generator.
+ *
+ * Each id packs 41 bits of milliseconds since {@link #EPOCH_MILLIS}, a 10 bit node id
+ * and a 12 bit per-millisecond sequence, so a single node can hand out 4096 ids per
+ * millisecond without touching the database. The last issued (timestamp, sequence)
+ * pair lives in one {@link AtomicLong} and is advanced with a CAS loop, which keeps
+ * ids strictly increasing per node even if the wall clock steps backwards.
+ *
+ * Uniqueness across nodes rests on every instance having its own
+ * {@code app.order-number.node-id}. Deriving one from host name and pid is only meant
+ * for development: hashes of different instances can collide, so it has to be enabled
+ * with {@code app.order-number.derive-node-id} and logs a warning.
+ */
+@Slf4j
+@Component
+public class OrderNumberGenerator {
+
+    /** 2024-01-01T00:00:00Z, gives the 41 bit timestamp roughly 69 years of range. */
+    static final long EPOCH_MILLIS = 1704067200000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+    private static final int ENCODED_LENGTH = 13; // 36^13 > 2^63
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final long nodeId;
+
+    /** Last issued state: (millis since epoch << SEQUENCE_BITS) | sequence. */
+    private final AtomicLong lastState = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${app.order-number.node-id:-1}") long configuredNodeId,
+                                @Value("${app.order-number.derive-node-id:false}") boolean deriveNodeId) {
+        if (configuredNodeId >= 0) {
+            this.nodeId = configuredNodeId;
+        } else if (deriveNodeId) {
+            this.nodeId = deriveNodeId();
+            log.warn("No app.order-number.node-id configured, derived node id {} from host and pid; "
+                    + "two instances may derive the same id, so set one explicitly outside development", nodeId);
+        } else {
+            throw new IllegalStateException("app.order-number.node-id must be set to a value unique per instance");
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order node id must be between 0 and " + MAX_NODE_ID);
+        }
+        log.info("Order number generator initialised with node id {}", nodeId);
+    }
+
+    /**
+     * Returns the next order number, e.g. {@code ORD-20261019-0K7XQ2M4C1B3Z}.
+     * Numbers from the same node sort lexicographically in issue order.
+     */
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = currentMillis();
+            long last = lastState.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock went backwards: keep counting on the last timestamp
+                next = last + 1;
+            } else {
+                // Sequence exhausted for this millisecond, wait for the clock to move on
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (lastState.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Renders an id as {@code ORD-<UTC date>-<13 char base36>}. The base36 part is
+     * zero padded so string order matches numeric order.
+     */
+    public static String format(long id) {
+        String encoded = Long.toString(id, 36).toUpperCase();
+        StringBuilder sb = new StringBuilder(PREFIX.length() + 9 + ENCODED_LENGTH);
+        sb.append(PREFIX)
+          .append(DATE_FORMAT.format(Instant.ofEpochMilli(extractTimestamp(id))))
+          .append('-');
+        for (int i = encoded.length(); i < ENCODED_LENGTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(encoded).toString();
+    }
+
+    /** Wall clock time (epoch millis) at which the given id was issued. */
+    public static long extractTimestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    protected long currentMillis() {
+        return System.currentTimeMillis() - EPOCH_MILLIS;
+    }
+
+    private static long deriveNodeId() {
+        String identity;
+        try {
+            identity = InetAddress.getLocalHost().getHostName() + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        } catch (Exception e) {
+            identity = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return (identity.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+    }
+}
@@ -1,44 +1,79 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.BulkOrderStatusResponse;
 import com.ecommerce.dto.CreateOrderRequest;
 import com.ecommerce.dto.OrderResponse;
 import com.ecommerce.dto.OrderItemResponse;
+import com.ecommerce.event.OrderEventType;
 import com.ecommerce.mapper.OrderMapper;
 import com.ecommerce.mapper.CartMapper;
 import com.ecommerce.mapper.ProductMapper;
 import com.ecommerce.mapper.AddressMapper;
 import com.ecommerce.model.*;
 import com.ecommerce.service.CouponService.CouponValidationResult;
+import com.ecommerce.service.InventoryService.InventoryMovement;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    private static final Map<Order.OrderStatus, Set<Order.OrderStatus>> ALLOWED_TRANSITIONS =
+        new EnumMap<>(Order.OrderStatus.class);
+    
+    static {
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.PENDING,
+            EnumSet.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.CONFIRMED,
+            EnumSet.of(Order.OrderStatus.PROCESSING, Order.OrderStatus.CANCELLED));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.PROCESSING,
+            EnumSet.of(Order.OrderStatus.SHIPPED, Order.OrderStatus.CANCELLED));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.SHIPPED, EnumSet.of(Order.OrderStatus.DELIVERED));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.DELIVERED, EnumSet.noneOf(Order.OrderStatus.class));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.CANCELLED, EnumSet.noneOf(Order.OrderStatus.class));
+        ALLOWED_TRANSITIONS.put(Order.OrderStatus.REFUNDED, EnumSet.noneOf(Order.OrderStatus.class));
+    }
+    
     private final OrderMapper orderMapper;
     private final CartMapper cartMapper;
     private final ProductMapper productMapper;
     private final AddressMapper addressMapper;
     private final InventoryService inventoryService;
     private final CouponService couponService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OutboxService outboxService;
+    private final DashboardCounters dashboardCounters;
     
     public OrderService(OrderMapper orderMapper, CartMapper cartMapper, ProductMapper productMapper,
                        AddressMapper addressMapper, InventoryService inventoryService,
-                       CouponService couponService) {
+                       CouponService couponService, OrderNumberGenerator orderNumberGenerator,
+                       OutboxService outboxService, DashboardCounters dashboardCounters) {
         this.orderMapper = orderMapper;
         this.cartMapper = cartMapper;
         this.productMapper = productMapper;
         this.addressMapper = addressMapper;
         this.inventoryService = inventoryService;
         this.couponService = couponService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.outboxService = outboxService;
+        this.dashboardCounters = dashboardCounters;
     }
     
     public OrderResponse createOrderFromCart(Long userId, String sessionId, CreateOrderRequest request) {
@@ -56,7 +91,7 @@ public class OrderService {
         OrderTotals totals = calculateOrderTotals(cart, request.getShippingMethodId(), request.getCouponCode(), userId);
         
         // Generate order number
-        String orderNumber = generateOrderNumber();
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
         
         // Create order
         Order order = new Order(
@@ -75,6 +110,7 @@ public class OrderService {
         order.setNotes(request.getNotes());
         
         orderMapper.insertOrder(order);
+        List<OrderItem> orderItems = new ArrayList<>();
         
         // Create order items from cart items
         for (CartItem cartItem : cart.getItems()) {
@@ -94,6 +130,7 @@ public class OrderService {
             }
             
             orderMapper.insertOrderItem(orderItem);
+            orderItems.add(orderItem);
             
             // Reserve inventory
             inventoryService.reserveInventory(cartItem.getProductId(), cartItem.getQuantity(), 
@@ -114,6 +151,8 @@ public class OrderService {
         // Clear cart after successful order creation
         cartMapper.deleteCartItemsByCartId(cart.getId());
         
+        recordOrderCreated(order, orderItems);
+        
         return getOrderResponse(order.getId());
     }
     
@@ -130,7 +169,7 @@ public class OrderService {
         OrderTotals totals = calculateDirectOrderTotals(request.getItems(), request.getShippingMethodId(), request.getCouponCode(), userId);
         
         // Generate order number
-        String orderNumber = generateOrderNumber();
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
         
         // Create order
         Order order = new Order(
@@ -149,6 +188,7 @@ public class OrderService {
         order.setNotes(request.getNotes());
         
         orderMapper.insertOrder(order);
+        List<OrderItem> orderItems = new ArrayList<>();
         
         // Create order items
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
@@ -171,6 +211,7 @@ public class OrderService {
             }
             
             orderMapper.insertOrderItem(orderItem);
+            orderItems.add(orderItem);
             
             // Reserve inventory
             inventoryService.reserveInventory(itemRequest.getProductId(), itemRequest.getQuantity(), 
@@ -188,6 +229,8 @@ public class OrderService {
             }
         }
         
+        recordOrderCreated(order, orderItems);
+        
         return getOrderResponse(order.getId());
     }
     
@@ -235,9 +278,84 @@ public class OrderService {
         // Handle inventory changes based on status
         handleInventoryOnStatusChange(order, newStatus);
         
+        Map<String, Object> payload = orderPayload(order);
+        payload.put("fromStatus", order.getStatus().name());
+        payload.put("toStatus", newStatus.name());
+        outboxService.recordOrderEvent(OrderEventType.ORDER_STATUS_CHANGED, orderId, payload);
+        
         return getOrderResponse(orderId);
     }
     
+    /**
+     * Applies one status transition to many orders. Orders are locked and validated in
+     * memory, then updated with one set-based statement per current status; inventory
+     * commits/releases and outbox events are written with multi-row inserts. Orders that
+     * fail validation are reported individually and do not block the rest.
+     *
+     * @param storeId the caller's store, whose orders alone may be changed; null for admins
+     */
+    public BulkOrderStatusResponse bulkUpdateOrderStatus(List<Long> orderIds, Order.OrderStatus newStatus,
+                                                         Long storeId) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        
+        Map<Long, Order> orders = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : chunks(ids)) {
+            for (Order order : orderMapper.findOrdersByIdsForUpdate(chunk, storeId)) {
+                orders.put(order.getId(), order);
+            }
+        }
+        
+        // Validate all transitions in memory and group the valid ones by current status
+        Map<Long, BulkOrderStatusResponse.OrderResult> results = new LinkedHashMap<>();
+        Map<Order.OrderStatus, List<Long>> idsByCurrentStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                // Other stores' orders are reported like missing ones, so their ids are not confirmed
+                String error = storeId != null ? "Order not found in your store" : "Order not found";
+                results.put(id, new BulkOrderStatusResponse.OrderResult(id, false, null, error));
+                continue;
+            }
+            String error = transitionError(order.getStatus(), newStatus);
+            if (error != null) {
+                results.put(id, new BulkOrderStatusResponse.OrderResult(id, false, order.getStatus().name(), error));
+                continue;
+            }
+            idsByCurrentStatus.computeIfAbsent(order.getStatus(), s -> new ArrayList<>()).add(id);
+            results.put(id, new BulkOrderStatusResponse.OrderResult(id, true, order.getStatus().name(), null));
+        }
+        
+        List<Long> applied = new ArrayList<>();
+        idsByCurrentStatus.forEach((fromStatus, group) -> {
+            for (List<Long> chunk : chunks(group)) {
+                orderMapper.updateOrderStatusBatch(chunk, fromStatus, newStatus);
+            }
+            applied.addAll(group);
+        });
+        
+        if (!applied.isEmpty()) {
+            applyBulkInventoryChanges(applied, orders, newStatus);
+            
+            Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+            for (Long id : applied) {
+                Order order = orders.get(id);
+                Map<String, Object> payload = orderPayload(order);
+                payload.put("fromStatus", order.getStatus().name());
+                payload.put("toStatus", newStatus.name());
+                payloads.put(id, payload);
+            }
+            outboxService.recordOrderEvents(OrderEventType.ORDER_STATUS_CHANGED, payloads);
+        }
+        
+        return BulkOrderStatusResponse.builder()
+            .targetStatus(newStatus.name())
+            .requested(ids.size())
+            .updated(applied.size())
+            .failed(ids.size() - applied.size())
+            .results(new ArrayList<>(results.values()))
+            .build();
+    }
+    
     public OrderResponse cancelOrder(Long orderId, Long userId) {
         Optional<Order> orderOpt = orderMapper.findOrderById(orderId);
         if (orderOpt.isEmpty()) {
@@ -264,6 +382,8 @@ public class OrderService {
                                                     "Order cancelled: " + order.getOrderNumber());
         }
         
+        outboxService.recordOrderEvent(OrderEventType.ORDER_CANCELLED, orderId, orderPayload(order));
+        
         return getOrderResponse(orderId);
     }
     
@@ -387,40 +507,22 @@ public class OrderService {
         return taxableAmount.multiply(BigDecimal.valueOf(0.085)).setScale(2, java.math.RoundingMode.HALF_UP);
     }
     
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomSuffix = String.valueOf((int)(Math.random() * 1000));
-        return "ORD-" + timestamp + "-" + randomSuffix;
+    private void validateStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
+        String error = transitionError(currentStatus, newStatus);
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
     }
     
-    private void validateStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
-        // Define valid status transitions
-        switch (currentStatus) {
-            case PENDING:
-                if (newStatus != Order.OrderStatus.CONFIRMED && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new RuntimeException("Invalid status transition from PENDING to " + newStatus);
-                }
-                break;
-            case CONFIRMED:
-                if (newStatus != Order.OrderStatus.PROCESSING && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new RuntimeException("Invalid status transition from CONFIRMED to " + newStatus);
-                }
-                break;
-            case PROCESSING:
-                if (newStatus != Order.OrderStatus.SHIPPED && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new RuntimeException("Invalid status transition from PROCESSING to " + newStatus);
-                }
-                break;
-            case SHIPPED:
-                if (newStatus != Order.OrderStatus.DELIVERED) {
-                    throw new RuntimeException("Invalid status transition from SHIPPED to " + newStatus);
-                }
-                break;
-            case DELIVERED:
-            case CANCELLED:
-            case REFUNDED:
-                throw new RuntimeException("Cannot change status from " + currentStatus);
+    private String transitionError(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
+        Set<Order.OrderStatus> allowed = ALLOWED_TRANSITIONS.get(currentStatus);
+        if (allowed.isEmpty()) {
+            return "Cannot change status from " + currentStatus;
+        }
+        if (!allowed.contains(newStatus)) {
+            return "Invalid status transition from " + currentStatus + " to " + newStatus;
         }
+        return null;
     }
     
     private void handleInventoryOnStatusChange(Order order, Order.OrderStatus newStatus) {
@@ -444,6 +546,66 @@ public class OrderService {
         }
     }
     
+    private void recordOrderCreated(Order order, List<OrderItem> orderItems) {
+        Map<String, Object> payload = orderPayload(order);
+        payload.put("totalAmount", order.getTotalAmount());
+        List<Map<String, Object>> items = new ArrayList<>(orderItems.size());
+        for (OrderItem item : orderItems) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProductId());
+            line.put("storeId", item.getStoreId());
+            line.put("quantity", item.getQuantity());
+            line.put("totalPrice", item.getTotalPrice());
+            items.add(line);
+        }
+        payload.put("items", items);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_CREATED, order.getId(), payload);
+        dashboardCounters.orderPlaced(orderItems);
+    }
+    
+    private Map<String, Object> orderPayload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("userId", order.getUserId());
+        return payload;
+    }
+    
+    private void applyBulkInventoryChanges(List<Long> orderIds, Map<Long, Order> orders,
+                                           Order.OrderStatus newStatus) {
+        String transactionType;
+        String notePrefix;
+        switch (newStatus) {
+            case CANCELLED:
+                transactionType = "RELEASE";
+                notePrefix = "Order cancelled: ";
+                break;
+            case CONFIRMED:
+                transactionType = "COMMIT";
+                notePrefix = "Order confirmed: ";
+                break;
+            default:
+                return;
+        }
+        
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (List<Long> chunk : chunks(orderIds)) {
+            for (OrderItem item : orderMapper.findOrderItemsByOrderIds(chunk)) {
+                String orderNumber = orders.get(item.getOrderId()).getOrderNumber();
+                movements.add(new InventoryMovement(item.getOrderId(), item.getProductId(),
+                    item.getQuantity(), notePrefix + orderNumber));
+            }
+        }
+        inventoryService.recordOrderTransactionsBatch(transactionType, movements);
+    }
+    
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + BULK_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+    
     private OrderResponse getOrderResponse(Long orderId) {
         Optional<Order> orderOpt = orderMapper.findOrderWithItemsAndAddresses(orderId);
         if (orderOpt.isEmpty()) {
@@ -0,0 +1,56 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.OrderEventType;
+import com.ecommerce.mapper.OutboxEventMapper;
+import com.ecommerce.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes order lifecycle events to the transactional outbox. Must be called inside the
+ * transaction that performs the order/payment change so both commit or roll back
+ * together; delivery to listeners happens later via {@link com.ecommerce.event.OutboxRelay}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String AGGREGATE_ORDER = "ORDER";
+    private static final int BATCH_INSERT_SIZE = 1000;
+
+    private final OutboxEventMapper outboxEventMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvent(OrderEventType type, Long orderId, Map<String, Object> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(AGGREGATE_ORDER)
+                .aggregateId(orderId)
+                .eventType(type.name())
+                .payload(payload)
+                .build();
+        outboxEventMapper.insert(event);
+    }
+
+    /**
+     * Batch variant for bulk operations; payloads are keyed by order id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvents(OrderEventType type, Map<Long, Map<String, Object>> payloadsByOrderId) {
+        List<OutboxEvent> events = new ArrayList<>(payloadsByOrderId.size());
+        payloadsByOrderId.forEach((orderId, payload) -> events.add(OutboxEvent.builder()
+                .aggregateType(AGGREGATE_ORDER)
+                .aggregateId(orderId)
+                .eventType(type.name())
+                .payload(payload)
+                .build()));
+        for (int from = 0; from < events.size(); from += BATCH_INSERT_SIZE) {
+            outboxEventMapper.insertBatch(events.subList(from, Math.min(from + BATCH_INSERT_SIZE, events.size())));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.service;
 import com.ecommerce.config.StripeConfig;
 import com.ecommerce.dto.CreatePaymentRequest;
 import com.ecommerce.dto.PaymentIntentResponse;
+import com.ecommerce.event.OrderEventType;
 import com.ecommerce.mapper.OrderMapper;
 import com.ecommerce.mapper.PaymentMapper;
 import com.ecommerce.model.Order;
@@ -20,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -30,6 +32,8 @@ public class PaymentService {
     private final StripeConfig stripeConfig;
     private final PaymentMapper paymentMapper;
     private final OrderMapper orderMapper;
+    private final OutboxService outboxService;
+    private final DashboardCounters dashboardCounters;
     
     /**
      * Create a payment intent for an order
@@ -139,11 +143,20 @@ public class PaymentService {
         if (Payment.PaymentStatus.COMPLETED.equals(newStatus)) {
             Order order = orderMapper.findOrderById(payment.getOrderId()).orElse(null);
             if (order != null) {
+                // Webhooks can repeat; only the first completion books revenue
+                if (!Order.PaymentStatus.COMPLETED.equals(order.getPaymentStatus())) {
+                    dashboardCounters.orderPaid(orderMapper.findOrderItemsByOrderId(order.getId()));
+                }
                 order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
                 order.setStatus(Order.OrderStatus.CONFIRMED);
                 order.setUpdatedAt(LocalDateTime.now());
                 orderMapper.updateOrder(order);
             }
+            outboxService.recordOrderEvent(OrderEventType.PAYMENT_COMPLETED, payment.getOrderId(),
+                paymentPayload(payment, order));
+        } else if (Payment.PaymentStatus.FAILED.equals(newStatus)) {
+            outboxService.recordOrderEvent(OrderEventType.PAYMENT_FAILED, payment.getOrderId(),
+                paymentPayload(payment, null));
         }
     }
     
@@ -153,6 +166,10 @@ public class PaymentService {
     @Transactional
     public void processRefund(Long orderId, BigDecimal amount, String reason) {
         Payment payment = paymentMapper.findSuccessfulPaymentByOrderId(orderId).orElse(null);
+        if (payment == null && paymentMapper.findLatestArchivedPaymentByOrderId(orderId).isPresent()) {
+            // Archived orders have been closed for app.archive.retention-days; refunds are handled outside the app
+            throw new IllegalStateException("Order " + orderId + " is archived and can no longer be refunded");
+        }
         if (payment == null || !Payment.PaymentStatus.COMPLETED.equals(payment.getPaymentStatus())) {
             throw new RuntimeException("No completed payment found for order");
         }
@@ -183,12 +200,20 @@ public class PaymentService {
             // Update order status
             Order order = orderMapper.findOrderById(orderId).orElse(null);
             if (order != null) {
+                if (Order.PaymentStatus.COMPLETED.equals(order.getPaymentStatus())) {
+                    dashboardCounters.orderPaymentReversed(orderMapper.findOrderItemsByOrderId(orderId));
+                }
                 order.setPaymentStatus(Order.PaymentStatus.REFUNDED);
                 order.setStatus(Order.OrderStatus.REFUNDED);
                 order.setUpdatedAt(LocalDateTime.now());
                 orderMapper.updateOrder(order);
             }
             
+            Map<String, Object> payload = paymentPayload(payment, order);
+            payload.put("refundAmount", amount);
+            payload.put("reason", reason);
+            outboxService.recordOrderEvent(OrderEventType.ORDER_REFUNDED, orderId, payload);
+            
             log.info("Refund processed successfully for order {} - Refund ID: {}", orderId, refund.getId());
             
         } catch (StripeException e) {
@@ -198,10 +223,24 @@ public class PaymentService {
     }
     
     /**
-     * Get payment details by order ID
+     * Get payment details by order ID, including orders moved to the archive
      */
     public Payment getPaymentByOrderId(Long orderId) {
-        return paymentMapper.findLatestPaymentByOrderId(orderId).orElse(null);
+        return paymentMapper.findLatestPaymentByOrderId(orderId)
+            .or(() -> paymentMapper.findLatestArchivedPaymentByOrderId(orderId))
+            .orElse(null);
+    }
+    
+    private Map<String, Object> paymentPayload(Payment payment, Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", payment.getId());
+        payload.put("amount", payment.getAmount());
+        payload.put("currency", payment.getCurrency());
+        if (order != null) {
+            payload.put("orderNumber", order.getOrderNumber());
+            payload.put("userId", order.getUserId());
+        }
+        return payload;
     }
     
     /**
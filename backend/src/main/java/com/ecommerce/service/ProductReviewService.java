@@ -1,6 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.BulkReviewModerationResponse;
 import com.ecommerce.dto.CreateReviewRequest;
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.dto.ReviewSort;
 import com.ecommerce.dto.UpdateReviewRequest;
 import com.ecommerce.dto.ProductReviewDto;
 import com.ecommerce.exception.ResourceNotFoundException;
@@ -15,8 +18,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,6 +34,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductReviewService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final ProductReviewMapper productReviewMapper;
     private final UserMapper userMapper;
 
@@ -45,6 +57,7 @@ public class ProductReviewService {
                 .rating(request.getRating())
                 .title(request.getTitle())
                 .comment(request.getComment())
+                .contentHash(ReviewAutoModerator.contentHash(request.getTitle(), request.getComment()))
                 .isVerifiedPurchase(false) // TODO: Check if user actually purchased this product
                 .status(ProductReview.ReviewStatus.PENDING)
                 .build();
@@ -75,8 +88,12 @@ public class ProductReviewService {
         if (request.getComment() != null) {
             review.setComment(request.getComment());
         }
+        review.setContentHash(ReviewAutoModerator.contentHash(review.getTitle(), review.getComment()));
 
         productReviewMapper.update(review);
+        if (review.getStatus() == ProductReview.ReviewStatus.APPROVED) {
+            productReviewMapper.refreshRatingStats(List.of(review.getProductId()));
+        }
         log.info("Review updated successfully: {}", reviewId);
 
         return getReviewById(reviewId);
@@ -95,44 +112,76 @@ public class ProductReviewService {
         return ProductReviewDto.fromProductReview(review);
     }
 
-    public List<ProductReviewDto> getProductReviews(Long productId) {
-        List<ProductReview> reviews = productReviewMapper.findByProductId(productId);
-        
-        return reviews.stream()
-                .map(review -> {
-                    User user = userMapper.findById(review.getUserId()).orElse(null);
-                    review.setUser(user);
-                    return ProductReviewDto.fromProductReview(review);
-                })
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductReviewDto> getProductReviews(Long productId, ReviewSort sort, String cursor, int limit) {
+        return findPage(productId, null, ProductReview.ReviewStatus.APPROVED, sort, cursor, limit);
     }
 
-    public List<ProductReviewDto> getUserReviews(Long userId) {
-        List<ProductReview> reviews = productReviewMapper.findByUserId(userId);
-        
-        return reviews.stream()
-                .map(review -> {
-                    User user = userMapper.findById(review.getUserId()).orElse(null);
-                    review.setUser(user);
-                    return ProductReviewDto.fromProductReview(review);
-                })
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductReviewDto> getUserReviews(Long userId, ReviewSort sort, String cursor, int limit) {
+        return findPage(null, userId, null, sort, cursor, limit);
     }
 
-    public List<ProductReviewDto> getPendingReviews() {
+    public CursorPageResponse<ProductReviewDto> getPendingReviews(String cursor, int limit) {
         if (!SecurityUtils.isAdmin()) {
             throw new UnauthorizedException("Only admins can view pending reviews");
         }
 
-        List<ProductReview> reviews = productReviewMapper.findByStatus("PENDING");
-        
-        return reviews.stream()
-                .map(review -> {
-                    User user = userMapper.findById(review.getUserId()).orElse(null);
-                    review.setUser(user);
-                    return ProductReviewDto.fromProductReview(review);
-                })
-                .collect(Collectors.toList());
+        return findPage(null, null, ProductReview.ReviewStatus.PENDING, ReviewSort.NEWEST, cursor, limit);
+    }
+
+    /**
+     * Records the current user's helpful vote; voting again on the same review has no effect.
+     */
+    public void markHelpful(Long reviewId) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new UnauthorizedException("Must be logged in to vote on a review");
+        }
+        if (productReviewMapper.findById(reviewId) == null) {
+            throw new ResourceNotFoundException("Review not found");
+        }
+
+        if (productReviewMapper.insertHelpfulVote(reviewId, currentUserId) > 0) {
+            productReviewMapper.incrementHelpfulCount(reviewId);
+        }
+    }
+
+    /**
+     * Reads one keyset page plus one extra row to tell whether another page follows, then
+     * attaches authors with a single query for the whole page.
+     */
+    private CursorPageResponse<ProductReviewDto> findPage(Long productId, Long userId, ProductReview.ReviewStatus status,
+                                                          ReviewSort sort, String cursor, int limit) {
+        ReviewSort order = sort != null ? sort : ReviewSort.NEWEST;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ReviewCursor after = cursor != null && !cursor.isBlank() ? ReviewCursor.decode(cursor, order) : null;
+
+        List<ProductReview> reviews = productReviewMapper.findPage(productId, userId,
+                status != null ? status.name() : null, order.name(),
+                after != null ? after.value() : null,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        boolean hasMore = reviews.size() > pageSize;
+        if (hasMore) {
+            reviews = reviews.subList(0, pageSize);
+        }
+        attachUsers(reviews);
+
+        return CursorPageResponse.<ProductReviewDto>builder()
+                .content(reviews.stream().map(ProductReviewDto::fromProductReview).collect(Collectors.toList()))
+                .nextCursor(hasMore ? ReviewCursor.after(reviews.get(reviews.size() - 1), order).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void attachUsers(List<ProductReview> reviews) {
+        Set<Long> userIds = reviews.stream().map(ProductReview::getUserId).collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Long, User> users = userMapper.findSummariesByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        reviews.forEach(review -> review.setUser(users.get(review.getUserId())));
     }
 
     public void approveReview(Long reviewId) {
@@ -140,12 +189,9 @@ public class ProductReviewService {
             throw new UnauthorizedException("Only admins can approve reviews");
         }
 
-        ProductReview review = productReviewMapper.findById(reviewId);
-        if (review == null) {
+        if (applyModeration(List.of(reviewId), ProductReview.ReviewStatus.APPROVED).getNotFound() > 0) {
             throw new ResourceNotFoundException("Review not found");
         }
-
-        productReviewMapper.updateStatus(reviewId, "APPROVED");
         log.info("Review approved: {}", reviewId);
     }
 
@@ -154,15 +200,72 @@ public class ProductReviewService {
             throw new UnauthorizedException("Only admins can reject reviews");
         }
 
-        ProductReview review = productReviewMapper.findById(reviewId);
-        if (review == null) {
+        if (applyModeration(List.of(reviewId), ProductReview.ReviewStatus.REJECTED).getNotFound() > 0) {
             throw new ResourceNotFoundException("Review not found");
         }
-
-        productReviewMapper.updateStatus(reviewId, "REJECTED");
         log.info("Review rejected: {}", reviewId);
     }
 
+    public BulkReviewModerationResponse moderateReviews(List<Long> reviewIds, ProductReview.ReviewStatus status) {
+        if (!SecurityUtils.isAdmin()) {
+            throw new UnauthorizedException("Only admins can moderate reviews");
+        }
+
+        BulkReviewModerationResponse result = applyModeration(reviewIds, status);
+        log.info("Moderated reviews to {}: {} of {} updated", status, result.getUpdated(), result.getRequested());
+        return result;
+    }
+
+    /**
+     * Applies one moderation decision to many reviews without a permission check; callers
+     * authorize. Reviews are locked and read in chunks, changed with one set-based update
+     * per chunk, and the rating aggregates of products whose approved reviews changed are
+     * recomputed with one statement per chunk.
+     */
+    public BulkReviewModerationResponse applyModeration(Collection<Long> reviewIds, ProductReview.ReviewStatus status) {
+        if (status == ProductReview.ReviewStatus.PENDING) {
+            throw new IllegalArgumentException("Reviews can only be approved or rejected");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(reviewIds));
+
+        Map<Long, ProductReview> current = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : chunks(ids)) {
+            for (ProductReview review : productReviewMapper.findStatusByIdsForUpdate(chunk)) {
+                current.put(review.getId(), review);
+            }
+        }
+
+        List<Long> changed = new ArrayList<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            ProductReview review = current.get(id);
+            if (review == null || review.getStatus() == status) {
+                continue;
+            }
+            changed.add(id);
+            // Aggregates only move when a review enters or leaves APPROVED
+            if (status == ProductReview.ReviewStatus.APPROVED || review.getStatus() == ProductReview.ReviewStatus.APPROVED) {
+                productIds.add(review.getProductId());
+            }
+        }
+
+        int updated = 0;
+        for (List<Long> chunk : chunks(changed)) {
+            updated += productReviewMapper.updateStatusBatch(chunk, status.name());
+        }
+        for (List<Long> chunk : chunks(new ArrayList<>(productIds))) {
+            productReviewMapper.refreshRatingStats(chunk);
+        }
+
+        return BulkReviewModerationResponse.builder()
+                .targetStatus(status.name())
+                .requested(ids.size())
+                .updated(updated)
+                .unchanged(current.size() - updated)
+                .notFound(ids.size() - current.size())
+                .build();
+    }
+
     public void deleteReview(Long reviewId) {
         ProductReview review = productReviewMapper.findById(reviewId);
         if (review == null) {
@@ -175,10 +278,21 @@ public class ProductReviewService {
         }
 
         productReviewMapper.delete(reviewId);
+        if (review.getStatus() == ProductReview.ReviewStatus.APPROVED) {
+            productReviewMapper.refreshRatingStats(List.of(review.getProductId()));
+        }
         log.info("Review deleted: {}", reviewId);
     }
 
     public Map<String, Object> getProductRatingStats(Long productId) {
         return productReviewMapper.getProductRatingStats(productId);
     }
+
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + BULK_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,11 +28,15 @@ public class ProductService {
     
     private final ProductMapper productMapper;
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryProductCounts categoryProductCounts;
+    private final StorefrontCache storefrontCache;
     private final ProductImageMapper productImageMapper;
     private final ProductTagMapper productTagMapper;
     private final ProductAttributeMapper productAttributeMapper;
     private final ProductVariantMapper productVariantMapper;
     private final InventoryService inventoryService;
+    private final WishlistAlertMatcher wishlistAlertMatcher;
     
     @Transactional
     public ProductDto createProduct(CreateProductRequest request) {
@@ -64,6 +69,8 @@ public class ProductService {
                 .build();
         
         productMapper.insert(product);
+        categoryProductCounts.productChanged(null, null, product.getCategoryId(), product.getStatus());
+        storefrontCache.evict(product.getStoreId());
         
         // Add images
         if (request.getImages() != null && !request.getImages().isEmpty()) {
@@ -109,6 +116,10 @@ public class ProductService {
         if (!product.getSellerId().equals(currentUserId) && !SecurityUtils.isAdmin()) {
             throw new UnauthorizedException("You don't have permission to update this product");
         }
+        Long previousCategoryId = product.getCategoryId();
+        Product.ProductStatus previousStatus = product.getStatus();
+        BigDecimal previousPrice = product.getPrice();
+        Integer previousQuantity = product.getQuantity();
         
         // Update basic fields
         if (request.getName() != null) {
@@ -180,6 +191,10 @@ public class ProductService {
         }
         
         productMapper.update(product);
+        categoryProductCounts.productChanged(previousCategoryId, previousStatus,
+                product.getCategoryId(), product.getStatus());
+        storefrontCache.evict(product.getStoreId());
+        wishlistAlertMatcher.productUpdated(product, previousPrice, previousQuantity);
         
         // Update images
         if (request.getImages() != null) {
@@ -215,7 +230,7 @@ public class ProductService {
         product.setAttributes(productAttributeMapper.findByProductId(productId));
         product.setVariants(productVariantMapper.findByProductId(productId));
         product.setSeller(new User()); // Load from UserMapper if needed
-        product.setCategory(categoryMapper.findById(product.getCategoryId()));
+        product.setCategory(categoryTreeCache.get().get(product.getCategoryId()));
         
         return ProductDto.fromProduct(product);
     }
@@ -257,7 +272,7 @@ public class ProductService {
     }
     
     public List<ProductDto> getProductsByCategory(Long categoryId) {
-        List<Product> products = productMapper.findByCategoryId(categoryId);
+        List<Product> products = productMapper.findByCategorySubtree(categoryId);
         return products.stream()
                 .map(ProductDto::fromProduct)
                 .collect(Collectors.toList());
@@ -291,6 +306,8 @@ public class ProductService {
         }
         
         productMapper.delete(productId);
+        categoryProductCounts.productChanged(product.getCategoryId(), product.getStatus(), null, null);
+        storefrontCache.evict(product.getStoreId());
         log.info("Product deleted successfully: {}", productId);
     }
     
@@ -0,0 +1,97 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.BulkReviewModerationResponse;
+import com.ecommerce.mapper.ProductReviewMapper;
+import com.ecommerce.model.ProductReview;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Background rejection of review spam: pending reviews whose text was posted by at least
+ * {@code app.reviews.auto-moderation.min-authors} different accounts are rejected in bulk.
+ *
+ * Texts are compared by {@link #contentHash}, which {@link ProductReviewService} stores
+ * with every review it writes. Short texts get no hash, so brief reviews such as
+ * "Great product!" are never treated as duplicates. Off unless
+ * {@code app.reviews.auto-moderation.enabled} is set.
+ */
+@Slf4j
+@Component
+public class ReviewAutoModerator {
+
+    static final int MIN_HASHED_LENGTH = 20;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductReviewMapper productReviewMapper;
+    private final ProductReviewService productReviewService;
+    private final boolean enabled;
+    private final int minAuthors;
+    private final int batchSize;
+    private final Counter rejected;
+
+    public ReviewAutoModerator(ProductReviewMapper productReviewMapper, ProductReviewService productReviewService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.reviews.auto-moderation.enabled:false}") boolean enabled,
+                               @Value("${app.reviews.auto-moderation.min-authors:3}") int minAuthors,
+                               @Value("${app.reviews.auto-moderation.batch-size:100}") int batchSize) {
+        this.productReviewMapper = productReviewMapper;
+        this.productReviewService = productReviewService;
+        this.enabled = enabled;
+        this.minAuthors = minAuthors;
+        this.batchSize = batchSize;
+        this.rejected = Counter.builder("reviews.auto_moderation.rejected")
+                .description("Pending reviews rejected as duplicated text")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects pending reviews for up to {@code batch-size} duplicated texts per run.
+     * Safe to run on several nodes: reviews already rejected are left alone.
+     */
+    @Scheduled(fixedDelayString = "${app.reviews.auto-moderation.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        List<String> hashes = productReviewMapper.findDuplicatePendingHashes(minAuthors, batchSize);
+        if (hashes.isEmpty()) {
+            return;
+        }
+        List<Long> reviewIds = productReviewMapper.findPendingIdsByContentHashes(hashes);
+        BulkReviewModerationResponse result =
+                productReviewService.applyModeration(reviewIds, ProductReview.ReviewStatus.REJECTED);
+        rejected.increment(result.getUpdated());
+        log.info("Auto-rejected {} pending reviews sharing {} duplicated texts", result.getUpdated(), hashes.size());
+    }
+
+    /**
+     * SHA-256 of the title and comment lower-cased with punctuation and whitespace runs
+     * collapsed, or null when the normalized text is shorter than {@value #MIN_HASHED_LENGTH}.
+     */
+    public static String contentHash(String title, String comment) {
+        String text = ((title != null ? title : "") + " " + (comment != null ? comment : "")).toLowerCase(Locale.ROOT);
+        String normalized = SEPARATORS.matcher(text).replaceAll(" ").trim();
+        if (normalized.length() < MIN_HASHED_LENGTH) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
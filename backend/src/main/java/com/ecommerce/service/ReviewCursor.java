@@ -0,0 +1,46 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ReviewSort;
+import com.ecommerce.model.ProductReview;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last review on a page: its sort key and id, encoded as an opaque
+ * URL-safe token. A cursor is only meaningful for the sort it was issued for.
+ */
+record ReviewCursor(ReviewSort sort, Integer value, LocalDateTime createdAt, Long id) {
+
+    static ReviewCursor after(ProductReview review, ReviewSort sort) {
+        return switch (sort) {
+            case HIGHEST_RATED, LOWEST_RATED -> new ReviewCursor(sort, review.getRating(), null, review.getId());
+            case MOST_HELPFUL -> new ReviewCursor(sort, review.getHelpfulCount(), null, review.getId());
+            case NEWEST -> new ReviewCursor(sort, null, review.getCreatedAt(), review.getId());
+        };
+    }
+
+    String encode() {
+        String key = sort == ReviewSort.NEWEST ? String.valueOf(createdAt) : String.valueOf(value);
+        String token = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ReviewCursor decode(String cursor, ReviewSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !sort.name().equals(parts[0])) {
+                throw new IllegalArgumentException("Cursor does not belong to sort " + sort);
+            }
+            Long id = Long.valueOf(parts[2]);
+            return sort == ReviewSort.NEWEST
+                    ? new ReviewCursor(sort, null, LocalDateTime.parse(parts[1]), id)
+                    : new ReviewCursor(sort, Integer.valueOf(parts[1]), null, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid review cursor", e);
+        }
+    }
+}
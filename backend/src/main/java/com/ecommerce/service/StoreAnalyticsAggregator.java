@@ -0,0 +1,346 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.OrderEvent;
+import com.ecommerce.event.OrderEventListener;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.AnalyticsOrderLedger;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.StoreAnalytics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the per-store daily {@code store_analytics} rows from live traffic and order
+ * events instead of relying on externally seeded data.
+ *
+ * Order events contribute orders, revenue and units: booked when the order is placed,
+ * reversed on cancellation, and reduced by the refunded amount on refund (split across
+ * stores by their share of the order). Payment events carry nothing the placement did
+ * not already count.
+ *
+ * Each order event is applied before {@link #onEvent} returns, as additive upserts of the
+ * daily row and its weekly and monthly rollups in one transaction. That transaction also
+ * records the event's outbox id, and an already-recorded id is skipped, so the
+ * at-least-once bus never double counts and never acknowledges an event that is not yet
+ * stored. The same transaction keeps a per-order ledger of revenue already reversed, so
+ * a refund after a cancellation, or a cancellation after a partial refund, never takes
+ * back more than the order booked.
+ *
+ * Store and product page views are counted in memory and flushed periodically. A node
+ * crash loses at most one flush interval of views.
+ */
+@Slf4j
+@Component
+public class StoreAnalyticsAggregator implements OrderEventListener {
+
+    private final StoreMapper storeMapper;
+    private final OrderMapper orderMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<BucketKey, Traffic> traffic = new ConcurrentHashMap<>();
+    private final Counter flushedRows;
+    private final Counter duplicateEvents;
+
+    public StoreAnalyticsAggregator(StoreMapper storeMapper, OrderMapper orderMapper,
+                                    PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.storeMapper = storeMapper;
+        this.orderMapper = orderMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushedRows = Counter.builder("store.analytics.flushed_rows")
+                .description("Store/day rows upserted by order events and the traffic flush")
+                .register(meterRegistry);
+        this.duplicateEvents = Counter.builder("store.analytics.duplicate_events")
+                .description("Redelivered order events skipped because they were already applied")
+                .register(meterRegistry);
+    }
+
+    public void recordStoreVisit(Long storeId) {
+        if (storeId != null) {
+            Traffic t = traffic.computeIfAbsent(new BucketKey(storeId, LocalDate.now()), k -> new Traffic());
+            t.visits.incrementAndGet();
+            t.pageViews.incrementAndGet();
+        }
+    }
+
+    public void recordProductView(Long storeId) {
+        if (storeId != null) {
+            Traffic t = traffic.computeIfAbsent(new BucketKey(storeId, LocalDate.now()), k -> new Traffic());
+            t.visits.incrementAndGet();
+            t.pageViews.incrementAndGet();
+            t.productsViewed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        boolean affectsRevenue = switch (event.getType()) {
+            case ORDER_CREATED, ORDER_CANCELLED, ORDER_REFUNDED -> true;
+            case ORDER_STATUS_CHANGED -> Order.OrderStatus.CANCELLED.name().equals(event.get("toStatus"));
+            default -> false;
+        };
+        if (affectsRevenue) {
+            // A failure propagates so the bus redelivers the event
+            transactionTemplate.executeWithoutResult(status -> apply(event));
+        }
+    }
+
+    /**
+     * Writes page views counted since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<BucketKey, StoreAnalytics> trafficDeltas = drainTraffic();
+        if (trafficDeltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> trafficDeltas.values().forEach(this::upsert));
+        } catch (RuntimeException e) {
+            // Keep the counts for the next attempt
+            trafficDeltas.forEach(this::restoreTraffic);
+            log.warn("Store analytics flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.applied-events-cleanup-cron:0 30 4 * * *}")
+    public void purgeAppliedEvents() {
+        // Redelivery only happens within minutes of a crash; a week is ample
+        storeMapper.deleteAppliedAnalyticsEventsBefore(LocalDateTime.now().minusDays(7));
+    }
+
+    private void apply(OrderEvent event) {
+        if (storeMapper.insertAppliedAnalyticsEvent(event.getOutboxId()) == 0) {
+            duplicateEvents.increment();
+            return;
+        }
+        List<Delta> deltas = switch (event.getType()) {
+            case ORDER_CREATED -> placed(event);
+            case ORDER_REFUNDED -> refunded(event);
+            default -> cancelled(event);
+        };
+        Map<BucketKey, StoreAnalytics> rows = new LinkedHashMap<>();
+        for (Delta d : deltas) {
+            StoreAnalytics row = rows.computeIfAbsent(d.key, StoreAnalyticsAggregator::emptyRow);
+            row.setTotalOrders(row.getTotalOrders() + d.orders);
+            row.setTotalRevenue(row.getTotalRevenue().add(d.revenue));
+            row.setProductsPurchased(row.getProductsPurchased() + d.units);
+        }
+        rows.values().forEach(this::upsert);
+    }
+
+    private void upsert(StoreAnalytics row) {
+        // Ratios for a newly inserted row; existing rows recompute them in SQL
+        row.setAvgOrderValue(row.getTotalOrders() > 0
+            ? row.getTotalRevenue().divide(BigDecimal.valueOf(row.getTotalOrders()), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO);
+        row.setConversionRate(row.getTotalVisits() > 0
+            ? BigDecimal.valueOf(Math.min(100.0, row.getTotalOrders() * 100.0 / row.getTotalVisits()))
+                .setScale(2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO);
+        storeMapper.upsertAnalyticsDelta(row);
+        storeMapper.upsertAnalyticsRollupDelta(row, "WEEK", AnalyticsRangePlan.weekStart(row.getDate()));
+        storeMapper.upsertAnalyticsRollupDelta(row, "MONTH", AnalyticsRangePlan.monthStart(row.getDate()));
+        flushedRows.increment();
+    }
+
+    private Map<BucketKey, StoreAnalytics> drainTraffic() {
+        Map<BucketKey, StoreAnalytics> drained = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<BucketKey, Traffic> entry : traffic.entrySet()) {
+            Traffic t = entry.getValue();
+            long visits = t.visits.getAndSet(0);
+            long pageViews = t.pageViews.getAndSet(0);
+            long productsViewed = t.productsViewed.getAndSet(0);
+            if (visits != 0 || pageViews != 0 || productsViewed != 0) {
+                StoreAnalytics row = emptyRow(entry.getKey());
+                row.setTotalVisits((int) visits);
+                row.setPageViews((int) pageViews);
+                row.setProductsViewed((int) productsViewed);
+                drained.put(entry.getKey(), row);
+            }
+            if (entry.getKey().date.isBefore(today)) {
+                // No more views are recorded against past days
+                traffic.remove(entry.getKey(), t);
+            }
+        }
+        return drained;
+    }
+
+    private void restoreTraffic(BucketKey key, StoreAnalytics row) {
+        Traffic t = traffic.computeIfAbsent(key, k -> new Traffic());
+        t.visits.addAndGet(row.getTotalVisits());
+        t.pageViews.addAndGet(row.getPageViews());
+        t.productsViewed.addAndGet(row.getProductsViewed());
+    }
+
+    private List<Delta> placed(OrderEvent event) {
+        Object items = event.get("items");
+        if (!(items instanceof List<?> lines)) {
+            return List.of();
+        }
+        LocalDate date = event.getOccurredAt().toLocalDate();
+        Map<Long, Delta> byStore = new LinkedHashMap<>();
+        for (Object line : lines) {
+            if (line instanceof Map<?, ?> item && item.get("storeId") != null) {
+                Long storeId = ((Number) item.get("storeId")).longValue();
+                Delta d = byStore.computeIfAbsent(storeId, id -> new Delta(new BucketKey(id, date), 1));
+                d.revenue = d.revenue.add(decimal(item.get("totalPrice")));
+                d.units += item.get("quantity") != null ? ((Number) item.get("quantity")).intValue() : 0;
+            }
+        }
+        return new ArrayList<>(byStore.values());
+    }
+
+    /**
+     * Reverses the order count, units and whatever revenue is still booked after earlier
+     * refunds. A repeated cancellation reverses nothing.
+     */
+    private List<Delta> cancelled(OrderEvent event) {
+        AnalyticsOrderLedger ledger = ledger(event.getOrderId());
+        if (Boolean.TRUE.equals(ledger.getCancelled())) {
+            return List.of();
+        }
+        List<Delta> shares = storeShares(event.getOrderId(), event.getOccurredAt().toLocalDate());
+        BigDecimal booked = total(shares).subtract(ledger.getRefundedRevenue()).max(BigDecimal.ZERO);
+        List<BigDecimal> parts = split(booked, shares);
+        List<Delta> deltas = new ArrayList<>(shares.size());
+        for (int i = 0; i < shares.size(); i++) {
+            Delta reversal = new Delta(shares.get(i).key, -1);
+            reversal.revenue = parts.get(i).negate();
+            reversal.units = -shares.get(i).units;
+            deltas.add(reversal);
+        }
+        ledger.setCancelled(true);
+        storeMapper.upsertAnalyticsOrderLedger(ledger);
+        return deltas;
+    }
+
+    /**
+     * Takes the refunded amount out of revenue, capped at what the order still has booked;
+     * a cancelled order has nothing left to refund.
+     */
+    private List<Delta> refunded(OrderEvent event) {
+        AnalyticsOrderLedger ledger = ledger(event.getOrderId());
+        if (Boolean.TRUE.equals(ledger.getCancelled())) {
+            return List.of();
+        }
+        List<Delta> shares = storeShares(event.getOrderId(), event.getOccurredAt().toLocalDate());
+        BigDecimal booked = total(shares).subtract(ledger.getRefundedRevenue());
+        BigDecimal refund = decimal(event.get("refundAmount")).min(booked);
+        if (refund.signum() <= 0) {
+            return List.of();
+        }
+        List<BigDecimal> parts = split(refund, shares);
+        List<Delta> deltas = new ArrayList<>(shares.size());
+        for (int i = 0; i < shares.size(); i++) {
+            Delta d = new Delta(shares.get(i).key, 0);
+            d.revenue = parts.get(i).negate();
+            deltas.add(d);
+        }
+        ledger.setRefundedRevenue(ledger.getRefundedRevenue().add(refund));
+        storeMapper.upsertAnalyticsOrderLedger(ledger);
+        return deltas;
+    }
+
+    private AnalyticsOrderLedger ledger(Long orderId) {
+        AnalyticsOrderLedger ledger = storeMapper.lockAnalyticsOrderLedger(orderId);
+        return ledger != null ? ledger : AnalyticsOrderLedger.builder().orderId(orderId).build();
+    }
+
+    /**
+     * Splits an amount across stores by their share of the order's revenue.
+     */
+    private static List<BigDecimal> split(BigDecimal amount, List<Delta> shares) {
+        BigDecimal total = total(shares);
+        List<BigDecimal> parts = new ArrayList<>(shares.size());
+        BigDecimal remaining = amount;
+        for (int i = 0; i < shares.size(); i++) {
+            // Last store takes the rounding remainder so the parts sum to the amount
+            BigDecimal part = i == shares.size() - 1 || total.signum() == 0
+                ? remaining
+                : amount.multiply(shares.get(i).revenue).divide(total, 2, RoundingMode.HALF_UP);
+            remaining = remaining.subtract(part);
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private static BigDecimal total(List<Delta> shares) {
+        return shares.stream().map(d -> d.revenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Per-store revenue and units of an order, read from its items.
+     */
+    private List<Delta> storeShares(Long orderId, LocalDate date) {
+        Map<Long, Delta> byStore = new LinkedHashMap<>();
+        for (OrderItem item : orderMapper.findOrderItemsByOrderId(orderId)) {
+            if (item.getStoreId() == null) {
+                continue;
+            }
+            Delta d = byStore.computeIfAbsent(item.getStoreId(), id -> new Delta(new BucketKey(id, date), 1));
+            d.revenue = d.revenue.add(item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO);
+            d.units += item.getQuantity() != null ? item.getQuantity() : 0;
+        }
+        return new ArrayList<>(byStore.values());
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal d ? d : new BigDecimal(value.toString());
+    }
+
+    private static StoreAnalytics emptyRow(BucketKey key) {
+        return StoreAnalytics.builder()
+                .storeId(key.storeId)
+                .date(key.date)
+                .totalVisits(0)
+                .pageViews(0)
+                .totalOrders(0)
+                .totalRevenue(BigDecimal.ZERO)
+                .productsViewed(0)
+                .productsPurchased(0)
+                .build();
+    }
+
+    private record BucketKey(Long storeId, LocalDate date) {
+    }
+
+    private static final class Traffic {
+        private final AtomicLong visits = new AtomicLong();
+        private final AtomicLong pageViews = new AtomicLong();
+        private final AtomicLong productsViewed = new AtomicLong();
+    }
+
+    private static final class Delta {
+        private final BucketKey key;
+        private final int orders;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private int units;
+
+        Delta(BucketKey key, int orders) {
+            this.key = key;
+            this.orders = orders;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.Store;
+import com.ecommerce.util.RankedSkipList;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of top-rated stores, so the home page reads the top k in O(k) and a
+ * store's position in O(log n) instead of sorting the stores table on every request.
+ *
+ * A store is ranked while it is active, verified and has at least {@value #MIN_REVIEWS}
+ * reviews, ordered by rating, then review count, then sales. {@link StoreService} re-reads
+ * a store into the ranking once a transaction that changes it commits; the whole ranking
+ * is also rebuilt at startup and on a schedule to pick up metrics recalculated outside the
+ * application and changes made on other nodes.
+ */
+@Slf4j
+@Component
+public class StoreLeaderboard {
+
+    static final int MIN_REVIEWS = 10;
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::rating, Comparator.reverseOrder())
+            .thenComparing(Entry::totalReviews, Comparator.reverseOrder())
+            .thenComparing(Entry::totalSales, Comparator.reverseOrder())
+            .thenComparing(Entry::storeId);
+
+    private final StoreMapper storeMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Both guarded by lock
+    private RankedSkipList<Entry> ranking = new RankedSkipList<>(ORDER);
+    private Map<Long, Entry> entries = new HashMap<>();
+
+    public StoreLeaderboard(StoreMapper storeMapper) {
+        this.storeMapper = storeMapper;
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not build store leaderboard at startup, will retry on next refresh", e);
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} ranked stores, best first.
+     */
+    public List<Store> top(int limit) {
+        lock.readLock().lock();
+        try {
+            return ranking.first(limit).stream().map(Entry::store).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the store's 1-based position, or null when it is not ranked.
+     */
+    public Integer rankOf(Long storeId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(storeId);
+            return entry != null ? ranking.rank(entry) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the store once the current transaction commits, or immediately outside one.
+     */
+    public void storeChanged(Long storeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(storeId);
+                }
+            });
+        } else {
+            reload(storeId);
+        }
+    }
+
+    private void reload(Long storeId) {
+        try {
+            storeMapper.findById(storeId).ifPresentOrElse(this::update, () -> remove(storeId));
+        } catch (RuntimeException e) {
+            log.warn("Could not update store {} in leaderboard, will be corrected on next refresh", storeId, e);
+        }
+    }
+
+    void update(Store store) {
+        Entry entry = isRanked(store) ? Entry.of(store) : null;
+        lock.writeLock().lock();
+        try {
+            Entry previous = entry != null ? entries.put(store.getId(), entry) : entries.remove(store.getId());
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            if (entry != null) {
+                ranking.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long storeId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(storeId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the ranking from the active stores and swaps it in. Single-store updates
+     * committed while the query runs may be lost until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.stores.leaderboard-refresh-interval-ms:300000}",
+               initialDelayString = "${app.stores.leaderboard-refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        RankedSkipList<Entry> rebuilt = new RankedSkipList<>(ORDER);
+        Map<Long, Entry> rebuiltEntries = new HashMap<>();
+        for (Store store : storeMapper.findActiveStores()) {
+            if (isRanked(store)) {
+                Entry entry = Entry.of(store);
+                rebuilt.add(entry);
+                rebuiltEntries.put(store.getId(), entry);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            ranking = rebuilt;
+            entries = rebuiltEntries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isRanked(Store store) {
+        return Boolean.TRUE.equals(store.getIsActive())
+                && Boolean.TRUE.equals(store.getIsVerified())
+                && store.getTotalReviews() != null
+                && store.getTotalReviews() >= MIN_REVIEWS;
+    }
+
+    /**
+     * Ranking key captured when the store was read; {@code store} is shared by readers and
+     * must not be modified.
+     */
+    private record Entry(Long storeId, BigDecimal rating, int totalReviews, int totalSales, Store store) {
+
+        static Entry of(Store store) {
+            return new Entry(store.getId(),
+                    store.getRating() != null ? store.getRating() : BigDecimal.ZERO,
+                    store.getTotalReviews() != null ? store.getTotalReviews() : 0,
+                    store.getTotalSales() != null ? store.getTotalSales() : 0,
+                    store);
+        }
+    }
+}
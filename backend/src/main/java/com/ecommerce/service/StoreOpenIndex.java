@@ -0,0 +1,127 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.Store;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled weekly schedules for every store that has operating hours, so open-now badges
+ * and filters over a whole listing are answered from memory without loading hours per store.
+ *
+ * {@link StoreService#updateOperatingHours} recompiles a store once its transaction
+ * commits. The whole index is also rebuilt at startup and on a schedule to pick up changes
+ * made on other nodes. Stores without hours are unknown rather than closed.
+ */
+@Slf4j
+@Component
+public class StoreOpenIndex {
+
+    private final StoreMapper storeMapper;
+    private volatile Map<Long, WeeklySchedule> schedules = new ConcurrentHashMap<>();
+
+    public StoreOpenIndex(StoreMapper storeMapper) {
+        this.storeMapper = storeMapper;
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not build store open-now index at startup, will retry on next refresh", e);
+        }
+    }
+
+    /**
+     * Returns whether the store is open at {@code instant}, or null when it has no operating hours.
+     */
+    public Boolean isOpenAt(Long storeId, Instant instant) {
+        WeeklySchedule schedule = schedules.get(storeId);
+        return schedule != null ? schedule.isOpenAt(instant) : null;
+    }
+
+    /**
+     * Open state of each store at {@code instant}, in the given order; stores without hours map to null.
+     */
+    public Map<Long, Boolean> openAt(Collection<Long> storeIds, Instant instant) {
+        Map<Long, WeeklySchedule> current = schedules;
+        Map<Long, Boolean> open = new LinkedHashMap<>();
+        for (Long storeId : storeIds) {
+            WeeklySchedule schedule = current.get(storeId);
+            open.put(storeId, schedule != null ? schedule.isOpenAt(instant) : null);
+        }
+        return open;
+    }
+
+    /**
+     * Keeps the stores that are open at {@code instant}, preserving order.
+     */
+    public List<Store> filterOpenAt(List<Store> stores, Instant instant) {
+        Map<Long, WeeklySchedule> current = schedules;
+        return stores.stream()
+                .filter(store -> {
+                    WeeklySchedule schedule = current.get(store.getId());
+                    return schedule != null && schedule.isOpenAt(instant);
+                })
+                .toList();
+    }
+
+    /**
+     * Recompiles the store once the current transaction commits, or immediately outside one.
+     */
+    public void hoursChanged(Long storeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(storeId);
+                }
+            });
+        } else {
+            reload(storeId);
+        }
+    }
+
+    private void reload(Long storeId) {
+        try {
+            List<Store> stores = storeMapper.findStoreHours(storeId);
+            if (stores.isEmpty()) {
+                schedules.remove(storeId);
+            } else {
+                schedules.put(storeId, compile(stores.get(0)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not recompile hours of store {}, will be corrected on next refresh", storeId, e);
+        }
+    }
+
+    /**
+     * Rebuilds every schedule from one query and swaps them in. Single-store updates
+     * committed while the query runs may be lost until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.stores.open-index-refresh-interval-ms:300000}",
+               initialDelayString = "${app.stores.open-index-refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        Map<Long, WeeklySchedule> rebuilt = new ConcurrentHashMap<>();
+        for (Store store : storeMapper.findStoreHours(null)) {
+            rebuilt.put(store.getId(), compile(store));
+        }
+        schedules = rebuilt;
+    }
+
+    private static WeeklySchedule compile(Store store) {
+        return WeeklySchedule.compile(store.getTimezone(), store.getOperatingHours());
+    }
+}
@@ -1,30 +1,49 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.mapper.ProductMapper;
 import com.ecommerce.mapper.StoreMapper;
 import com.ecommerce.model.*;
 import com.ecommerce.util.SlugUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class StoreService {
     
+    private static final int DEFAULT_STOREFRONT_PRODUCTS = 20;
+    
     private final StoreMapper storeMapper;
+    private final ProductMapper productMapper;
     private final FileUploadService fileUploadService;
+    private final StorefrontCache storefrontCache;
+    private final DashboardCounters dashboardCounters;
+    private final StoreLeaderboard storeLeaderboard;
+    private final StoreOpenIndex storeOpenIndex;
     
-    public StoreService(StoreMapper storeMapper, FileUploadService fileUploadService) {
+    public StoreService(StoreMapper storeMapper, ProductMapper productMapper, FileUploadService fileUploadService,
+                        StorefrontCache storefrontCache, DashboardCounters dashboardCounters,
+                        StoreLeaderboard storeLeaderboard, StoreOpenIndex storeOpenIndex) {
         this.storeMapper = storeMapper;
+        this.productMapper = productMapper;
         this.fileUploadService = fileUploadService;
+        this.storefrontCache = storefrontCache;
+        this.dashboardCounters = dashboardCounters;
+        this.storeLeaderboard = storeLeaderboard;
+        this.storeOpenIndex = storeOpenIndex;
     }
     
     public Store createStore(Long sellerId, CreateStoreRequest request) {
@@ -67,6 +86,7 @@ public class StoreService {
                 .build();
         
         storeMapper.insert(store);
+        dashboardCounters.storeCreated(store);
         
         // Create default customization
         StoreCustomization customization = StoreCustomization.builder()
@@ -176,6 +196,8 @@ public class StoreService {
         }
         
         storeMapper.update(store);
+        storefrontCache.evict(storeId);
+        storeLeaderboard.storeChanged(storeId);
         
         return store;
     }
@@ -192,6 +214,8 @@ public class StoreService {
             String logoUrl = fileUploadService.uploadStoreImage(file);
             store.setLogoUrl(logoUrl);
             storeMapper.update(store);
+            storefrontCache.evict(storeId);
+            storeLeaderboard.storeChanged(storeId);
             return logoUrl;
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload logo: " + e.getMessage());
@@ -210,6 +234,8 @@ public class StoreService {
             String bannerUrl = fileUploadService.uploadStoreImage(file);
             store.setBannerUrl(bannerUrl);
             storeMapper.update(store);
+            storefrontCache.evict(storeId);
+            storeLeaderboard.storeChanged(storeId);
             return bannerUrl;
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload banner: " + e.getMessage());
@@ -275,6 +301,7 @@ public class StoreService {
         }
         
         storeMapper.updateCustomization(customization);
+        storefrontCache.evict(storeId);
         
         return customization;
     }
@@ -311,6 +338,8 @@ public class StoreService {
                 storeMapper.insertOperatingHours(hours);
             }
         }
+        storefrontCache.evict(storeId);
+        storeOpenIndex.hoursChanged(storeId);
     }
     
     public Store findById(Long id) {
@@ -329,10 +358,57 @@ public class StoreService {
         return storeMapper.findBySlug(slug).orElse(null);
     }
     
+    /**
+     * The serialized store page, built from the store, its details and its first page of
+     * active products and then served from {@link StorefrontCache}. Null for unknown stores.
+     * Runs without a transaction so a cache hit never checks out a connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public StorefrontCache.Storefront getStorefront(Long storeId) {
+        return storefrontCache.get(storeId, this::buildStorefront);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public StorefrontCache.Storefront getStorefrontBySlug(String slug) {
+        Long storeId = storefrontCache.storeIdForSlug(slug,
+                s -> storeMapper.findBySlug(s).map(Store::getId).orElse(null));
+        return storeId != null ? getStorefront(storeId) : null;
+    }
+    
+    private StorefrontResponse buildStorefront(Long storeId) {
+        Store store = storeMapper.findByIdWithDetails(storeId).orElse(null);
+        if (store == null) {
+            return null;
+        }
+        int limit = store.getCustomization() != null && store.getCustomization().getProductsPerPage() != null
+                ? store.getCustomization().getProductsPerPage()
+                : DEFAULT_STOREFRONT_PRODUCTS;
+        List<ProductDto> products = productMapper.findActiveByStoreId(storeId, limit).stream()
+                .map(ProductDto::fromProduct)
+                .collect(Collectors.toList());
+        return StorefrontResponse.builder()
+                .store(store)
+                .products(products)
+                .build();
+    }
+    
     public List<Store> findActiveStores() {
         return storeMapper.findActiveStores();
     }
     
+    /**
+     * Keeps the stores open right now according to their operating hours and timezone.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Store> filterOpenNow(List<Store> stores) {
+        return storeOpenIndex.filterOpenAt(stores, Instant.now());
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<Long, Boolean> getOpenNow(List<Long> storeIds) {
+        return storeOpenIndex.openAt(storeIds, Instant.now());
+    }
+    
     public List<Store> findVerifiedStores() {
         return storeMapper.findVerifiedStores();
     }
@@ -345,8 +421,18 @@ public class StoreService {
         return storeMapper.searchByName(searchTerm);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Store> findTopRatedStores(int limit) {
-        return storeMapper.findTopRatedStores(limit);
+        return storeLeaderboard.top(limit);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public StoreRankResponse getStoreRank(Long storeId) {
+        return StoreRankResponse.builder()
+                .storeId(storeId)
+                .rank(storeLeaderboard.rankOf(storeId))
+                .rankedStores(storeLeaderboard.size())
+                .build();
     }
     
     public StoreAnalytics getAnalytics(Long storeId, Long sellerId, LocalDate date) {
@@ -372,52 +458,57 @@ public class StoreService {
     }
     
     public void updateVerificationStatus(Long storeId, Store.VerificationStatus status, Long reviewerId) {
+        Store store = storeMapper.findById(storeId)
+                .orElseThrow(() -> new RuntimeException("Store not found"));
         storeMapper.updateVerificationStatus(storeId, status, LocalDateTime.now());
+        dashboardCounters.storeVerificationChanged(store, status);
+        storefrontCache.evict(storeId);
+        storeLeaderboard.storeChanged(storeId);
     }
     
     public void updateStoreStatus(Long storeId, boolean isActive) {
+        Store store = storeMapper.findById(storeId)
+                .orElseThrow(() -> new RuntimeException("Store not found"));
         storeMapper.updateStatus(storeId, isActive);
+        dashboardCounters.storeStatusChanged(store, isActive);
+        storefrontCache.evict(storeId);
+        storeLeaderboard.storeChanged(storeId);
     }
     
     public StoreStatsResponse getStoreStats() {
-        return StoreStatsResponse.builder()
-                .totalStores(storeMapper.countAll())
-                .activeStores(storeMapper.countActive())
-                .verifiedStores(storeMapper.countVerified())
-                .pendingVerification(storeMapper.countByVerificationStatus(Store.VerificationStatus.PENDING))
-                .build();
+        return dashboardCounters.getStoreStats();
     }
     
-    public AnalyticsSummaryResponse calculateAnalyticsSummary(List<StoreAnalytics> analytics, LocalDate startDate, LocalDate endDate) {
-        AnalyticsSummaryResponse summary = new AnalyticsSummaryResponse();
+    public StoreDashboardStatsResponse getStoreDashboardStats(Long storeId, Long sellerId) {
+        Store store = storeMapper.findById(storeId)
+                .orElseThrow(() -> new RuntimeException("Store not found"));
         
-        if (analytics.isEmpty()) {
-            summary.setTotalRevenue(BigDecimal.ZERO);
-            summary.setTotalOrders(0);
-            summary.setAvgOrderValue(BigDecimal.ZERO);
-            summary.setConversionRate(0.0);
-            summary.setRevenueChange(0.0);
-            summary.setOrdersChange(0.0);
-            summary.setConversionChange(0.0);
-            return summary;
+        if (!store.getSellerId().equals(sellerId)) {
+            throw new RuntimeException("Unauthorized to view this store's statistics");
         }
         
-        // Calculate current period metrics
-        BigDecimal totalRevenue = analytics.stream()
-                .map(StoreAnalytics::getTotalRevenue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return dashboardCounters.getStoreDashboardStats(storeId);
+    }
+    
+    /**
+     * Totals for the range and growth against the preceding period of the same length.
+     * Each period is summed from the day, week and month buckets chosen by
+     * {@link AnalyticsRangePlan}, so long ranges read a few dozen rows rather than one per day.
+     */
+    public AnalyticsSummaryResponse calculateAnalyticsSummary(Long storeId, LocalDate startDate, LocalDate endDate) {
+        AnalyticsSummaryResponse summary = new AnalyticsSummaryResponse();
+        
+        StoreAnalytics current = sumAnalytics(storeId, startDate, endDate);
         
-        Integer totalOrders = analytics.stream()
-                .mapToInt(StoreAnalytics::getTotalOrders)
-                .sum();
+        // Calculate current period metrics
+        BigDecimal totalRevenue = current.getTotalRevenue();
+        Integer totalOrders = current.getTotalOrders();
         
         BigDecimal avgOrderValue = totalOrders > 0 
                 ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
         
-        Integer totalVisits = analytics.stream()
-                .mapToInt(StoreAnalytics::getTotalVisits)
-                .sum();
+        Integer totalVisits = current.getTotalVisits();
         
         Double conversionRate = totalVisits > 0
                 ? (double) totalOrders / totalVisits * 100
@@ -433,47 +524,52 @@ public class StoreService {
         LocalDate prevEndDate = startDate.minusDays(1);
         LocalDate prevStartDate = prevEndDate.minusDays(periodDays);
         
-        List<StoreAnalytics> prevAnalytics = storeMapper.findAnalyticsByStoreAndDateRange(
-                analytics.get(0).getStoreId(), prevStartDate, prevEndDate);
+        StoreAnalytics previous = sumAnalytics(storeId, prevStartDate, prevEndDate);
         
-        if (!prevAnalytics.isEmpty()) {
-            BigDecimal prevRevenue = prevAnalytics.stream()
-                    .map(StoreAnalytics::getTotalRevenue)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            Integer prevOrders = prevAnalytics.stream()
-                    .mapToInt(StoreAnalytics::getTotalOrders)
-                    .sum();
-            
-            Integer prevVisits = prevAnalytics.stream()
-                    .mapToInt(StoreAnalytics::getTotalVisits)
-                    .sum();
-            
-            Double prevConversionRate = prevVisits > 0
-                    ? (double) prevOrders / prevVisits * 100
-                    : 0.0;
-            
-            // Calculate percentage changes
-            summary.setRevenueChange(prevRevenue.compareTo(BigDecimal.ZERO) > 0
-                    ? totalRevenue.subtract(prevRevenue)
-                            .divide(prevRevenue, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100))
-                            .doubleValue()
-                    : 0.0);
-            
-            summary.setOrdersChange(prevOrders > 0
-                    ? ((double) totalOrders - prevOrders) / prevOrders * 100
-                    : 0.0);
-            
-            summary.setConversionChange(prevConversionRate > 0
-                    ? (conversionRate - prevConversionRate) / prevConversionRate * 100
-                    : 0.0);
-        } else {
-            summary.setRevenueChange(0.0);
-            summary.setOrdersChange(0.0);
-            summary.setConversionChange(0.0);
-        }
+        BigDecimal prevRevenue = previous.getTotalRevenue();
+        Integer prevOrders = previous.getTotalOrders();
+        Integer prevVisits = previous.getTotalVisits();
+        
+        Double prevConversionRate = prevVisits > 0
+                ? (double) prevOrders / prevVisits * 100
+                : 0.0;
+        
+        // Calculate percentage changes
+        summary.setRevenueChange(prevRevenue.compareTo(BigDecimal.ZERO) > 0
+                ? totalRevenue.subtract(prevRevenue)
+                        .divide(prevRevenue, 4, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(100))
+                        .doubleValue()
+                : 0.0);
+        
+        summary.setOrdersChange(prevOrders > 0
+                ? ((double) totalOrders - prevOrders) / prevOrders * 100
+                : 0.0);
+        
+        summary.setConversionChange(prevConversionRate > 0
+                ? (conversionRate - prevConversionRate) / prevConversionRate * 100
+                : 0.0);
         
         return summary;
     }
+    
+    private StoreAnalytics sumAnalytics(Long storeId, LocalDate startDate, LocalDate endDate) {
+        AnalyticsRangePlan plan = AnalyticsRangePlan.of(startDate, endDate);
+        StoreAnalytics totals = plan.isEmpty()
+                ? null
+                : storeMapper.sumAnalyticsBuckets(storeId, plan.getDays(), plan.getWeeks(), plan.getMonths());
+        if (totals == null) {
+            totals = StoreAnalytics.builder().storeId(storeId).build();
+        }
+        if (totals.getTotalRevenue() == null) {
+            totals.setTotalRevenue(BigDecimal.ZERO);
+        }
+        if (totals.getTotalOrders() == null) {
+            totals.setTotalOrders(0);
+        }
+        if (totals.getTotalVisits() == null) {
+            totals.setTotalVisits(0);
+        }
+        return totals;
+    }
 }
\ No newline at end of file
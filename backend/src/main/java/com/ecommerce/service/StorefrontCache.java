@@ -0,0 +1,131 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ApiResponse;
+import com.ecommerce.dto.StorefrontResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of rendered storefront pages keyed by store id. Each entry is the
+ * complete JSON response serialized once, together with its ETag, so a cached store
+ * page is written straight from bytes without touching the database or Jackson.
+ *
+ * {@link StoreService} and {@link ProductService} evict a store when its details,
+ * customization, hours or products change. Entries also expire after
+ * {@code app.storefront-cache.ttl} to pick up changes made elsewhere (ratings, stock,
+ * other nodes). Hit and miss counts are published under the {@code store.storefront}
+ * cache metrics.
+ */
+@Component
+public class StorefrontCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Storefront> storefronts;
+    private final Cache<String, Long> storeIdsBySlug;
+    /** Bumped on every eviction so a build racing with it is not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StorefrontCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.storefront-cache.max-size:1000}") long maxSize,
+                           @Value("${app.storefront-cache.ttl:2m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.storefronts = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Slugs never change once assigned, so this only needs bounding
+        this.storeIdsBySlug = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, storefronts, "store.storefront");
+    }
+
+    /**
+     * Returns the cached storefront, or builds and serializes it with {@code loader}.
+     * A null result (unknown store) is not cached.
+     */
+    public Storefront get(Long storeId, Function<Long, StorefrontResponse> loader) {
+        Storefront storefront = storefronts.getIfPresent(storeId);
+        if (storefront != null) {
+            return storefront;
+        }
+        long seen = evictions.get();
+        StorefrontResponse response = loader.apply(storeId);
+        if (response == null) {
+            return null;
+        }
+        storefront = serialize(storeId, response);
+        if (evictions.get() == seen) {
+            storefronts.put(storeId, storefront);
+        }
+        return storefront;
+    }
+
+    /**
+     * Resolves a store slug to its id, loading unknown slugs with {@code loader}.
+     */
+    public Long storeIdForSlug(String slug, Function<String, Long> loader) {
+        Long storeId = storeIdsBySlug.getIfPresent(slug);
+        if (storeId == null) {
+            storeId = loader.apply(slug);
+            if (storeId != null) {
+                storeIdsBySlug.put(slug, storeId);
+            }
+        }
+        return storeId;
+    }
+
+    /**
+     * Drops the store's entry now and, when called inside a transaction, again after it
+     * completes so a request that rebuilt it from the old rows in between cannot keep it.
+     */
+    public void evict(Long storeId) {
+        if (storeId == null) {
+            return;
+        }
+        invalidate(storeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(storeId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long storeId) {
+        evictions.incrementAndGet();
+        storefronts.invalidate(storeId);
+    }
+
+    private Storefront serialize(Long storeId, StorefrontResponse response) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(
+                    ApiResponse.success("Storefront retrieved successfully", response));
+            return new Storefront(storeId, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize storefront", e);
+        }
+    }
+
+    /**
+     * A serialized storefront response and its strong ETag.
+     */
+    public record Storefront(Long storeId, byte[] body, String etag) {
+    }
+}
@@ -4,10 +4,16 @@ import com.ecommerce.dto.UpdateProfileRequest;
 import com.ecommerce.mapper.UserMapper;
 import com.ecommerce.model.User;
 import com.ecommerce.security.UserPrincipal;
+import com.ecommerce.security.PasswordHasher;
+import com.ecommerce.security.TokenRevocationList;
+import com.ecommerce.security.UserPrincipalCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,19 +21,32 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional
 public class UserService implements UserDetailsService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final EmailService emailService;
+    private final UserPrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    /** Runs what follows a hash off the {@link PasswordHasher} pool, whose threads are sized for CPU work only. */
+    private final Executor taskExecutor;
     
-    public UserService(UserMapper userMapper, PasswordEncoder passwordEncoder, EmailService emailService) {
+    public UserService(UserMapper userMapper, PasswordHasher passwordHasher, EmailService emailService,
+                       UserPrincipalCache principalCache, TokenRevocationList revocationList,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
         this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.emailService = emailService;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
+        this.taskExecutor = taskExecutor;
     }
     
     @Override
@@ -39,12 +58,13 @@ public class UserService implements UserDetailsService {
         return UserPrincipal.create(userOpt.get());
     }
     
+    /**
+     * Resolves the principal for an authenticated request. Served from
+     * {@link UserPrincipalCache}; every method below that changes a field the
+     * principal carries evicts the user's entry.
+     */
     public UserDetails loadUserById(Long id) {
-        Optional<User> userOpt = userMapper.findById(id);
-        if (userOpt.isEmpty()) {
-            return null;
-        }
-        return UserPrincipal.create(userOpt.get());
+        return principalCache.get(id, userId -> userMapper.findById(userId).map(UserPrincipal::create).orElse(null));
     }
     
     public User registerUser(String email, String password, String firstName, String lastName, User.UserRole role) {
@@ -54,7 +74,7 @@ public class UserService implements UserDetailsService {
         }
         
         // Create new user
-        User user = new User(email, passwordEncoder.encode(password), firstName, lastName, role);
+        User user = new User(email, passwordHasher.encode(password), firstName, lastName, role);
         user.setStatus(User.UserStatus.ACTIVE);
         user.setEmailVerified(false);
         
@@ -83,6 +103,7 @@ public class UserService implements UserDetailsService {
         }
         
         userMapper.verifyEmail(user.getId());
+        principalCache.evict(user.getId());
         return true;
     }
     
@@ -107,29 +128,44 @@ public class UserService implements UserDetailsService {
         emailService.sendVerificationEmail(user.getEmail(), user.getFirstName(), verificationToken);
     }
     
-    public User authenticateUser(String email, String password) {
+    /**
+     * Checks the credentials with the password comparison running on the
+     * {@link PasswordHasher} pool, so the calling request thread is not held while
+     * BCrypt runs. Completes with null for an unknown email or wrong password.
+     * Only the comparison occupies a hashing thread: the future completes on the
+     * application task executor, so the caller's continuation (token issuance) and the
+     * hash upgrade write never hold the pool while waiting on the database.
+     */
+    public CompletableFuture<User> authenticateUserAsync(String email, String password) {
         Optional<User> userOpt = userMapper.findByEmail(email);
         if (userOpt.isEmpty()) {
-            System.out.println("DEBUG: User not found for email: " + email);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         
         User user = userOpt.get();
-        System.out.println("DEBUG: User found: " + user.getEmail() + ", status: " + user.getStatus());
-        System.out.println("DEBUG: Password hash: " + (user.getPasswordHash() != null ? "present" : "null"));
-        
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
-            System.out.println("DEBUG: Password does not match");
-            return null;
-        }
-        
-        if (user.getStatus() != User.UserStatus.ACTIVE) {
-            System.out.println("DEBUG: User status is not active: " + user.getStatus());
-            throw new RuntimeException("Account is not active");
+        return passwordHasher.matchesAsync(password, user.getPasswordHash()).thenApplyAsync(matches -> {
+            if (!matches) {
+                return null;
+            }
+            if (user.getStatus() != User.UserStatus.ACTIVE) {
+                throw new RuntimeException("Account is not active");
+            }
+            upgradePasswordHash(user, password);
+            return user;
+        }, taskExecutor);
+    }
+    
+    // Rehash in the background when the stored hash is cheaper than the current cost
+    private void upgradePasswordHash(User user, String password) {
+        if (!passwordHasher.needsUpgrade(user.getPasswordHash())) {
+            return;
         }
-        
-        System.out.println("DEBUG: Authentication successful");
-        return user;
+        passwordHasher.encodeAsync(password)
+            .thenAcceptAsync(hash -> userMapper.updatePassword(user.getId(), hash), taskExecutor)
+            .exceptionally(ex -> {
+                logger.debug("Skipped password hash upgrade for user {}: {}", user.getId(), ex.getMessage());
+                return null;
+            });
     }
     
     public void initiatePasswordReset(String email) {
@@ -160,9 +196,11 @@ public class UserService implements UserDetailsService {
             return false;
         }
         
-        String encodedPassword = passwordEncoder.encode(newPassword);
+        String encodedPassword = passwordHasher.encode(newPassword);
         userMapper.updatePassword(user.getId(), encodedPassword);
         userMapper.clearPasswordResetToken(user.getId());
+        principalCache.evict(user.getId());
+        revocationList.revoke(user.getId());
         
         return true;
     }
@@ -181,6 +219,7 @@ public class UserService implements UserDetailsService {
     
     public void updateProfile(Long userId, String firstName, String lastName, String phone) {
         userMapper.updateProfile(userId, firstName, lastName, phone);
+        principalCache.evict(userId);
     }
     
     public User updateProfile(String email, UpdateProfileRequest request) {
@@ -190,6 +229,7 @@ public class UserService implements UserDetailsService {
         }
         
         userMapper.updateProfile(user.getId(), request.getFirstName(), request.getLastName(), request.getPhone());
+        principalCache.evict(user.getId());
         
         // Return updated user
         return findById(user.getId());
@@ -217,6 +257,8 @@ public class UserService implements UserDetailsService {
         }
         
         userMapper.deleteById(id);
+        principalCache.evict(id);
+        revocationList.revoke(id);
     }
     
     public void changePassword(Long userId, String currentPassword, String newPassword) {
@@ -226,20 +268,26 @@ public class UserService implements UserDetailsService {
         }
         
         User user = userOpt.get();
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHasher.matches(currentPassword, user.getPasswordHash())) {
             throw new RuntimeException("Current password is incorrect");
         }
         
-        String encodedPassword = passwordEncoder.encode(newPassword);
+        String encodedPassword = passwordHasher.encode(newPassword);
         userMapper.updatePassword(userId, encodedPassword);
+        principalCache.evict(userId);
+        revocationList.revoke(userId);
     }
     
     public void updateUserRole(Long userId, User.UserRole role) {
         userMapper.updateRole(userId, role);
+        principalCache.evict(userId);
+        revocationList.revoke(userId);
     }
     
     public void updateUserStatus(Long userId, User.UserStatus status) {
         userMapper.updateStatus(userId, status);
+        principalCache.evict(userId);
+        revocationList.revoke(userId);
     }
     
     public List<User> findAllUsers() {
@@ -276,6 +324,7 @@ public class UserService implements UserDetailsService {
         
         for (User user : unverifiedUsers) {
             userMapper.deleteById(user.getId());
+            principalCache.evict(user.getId());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.StoreOperatingHours;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A store's operating hours compiled into one bit per minute of the week in the store's
+ * own timezone, so "is it open at this instant" is a zone conversion plus a bit lookup.
+ *
+ * Minute 0 is Sunday 00:00, matching {@code day_of_week} (0 = Sunday). A day whose close
+ * time is not after its open time runs past midnight into the next day (Saturday wraps to
+ * Sunday), so equal open and close times mean open all day. Closed days and rows missing a
+ * time contribute nothing. Because lookups use local wall-clock time, DST changes need no
+ * special handling.
+ */
+@Slf4j
+public final class WeeklySchedule {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final ZoneId zone;
+    private final BitSet openMinutes;
+
+    private WeeklySchedule(ZoneId zone, BitSet openMinutes) {
+        this.zone = zone;
+        this.openMinutes = openMinutes;
+    }
+
+    public static WeeklySchedule compile(String timezone, List<StoreOperatingHours> hours) {
+        BitSet openMinutes = new BitSet(MINUTES_PER_WEEK);
+        for (StoreOperatingHours day : hours) {
+            if (Boolean.TRUE.equals(day.getIsClosed()) || day.getOpenTime() == null || day.getCloseTime() == null
+                    || day.getDayOfWeek() == null || day.getDayOfWeek() < 0 || day.getDayOfWeek() > 6) {
+                continue;
+            }
+            int open = day.getDayOfWeek() * MINUTES_PER_DAY + minuteOfDay(day.getOpenTime());
+            int length = minuteOfDay(day.getCloseTime()) - minuteOfDay(day.getOpenTime());
+            if (length <= 0) {
+                length += MINUTES_PER_DAY;
+            }
+            int close = open + length;
+            openMinutes.set(open, Math.min(close, MINUTES_PER_WEEK));
+            if (close > MINUTES_PER_WEEK) {
+                openMinutes.set(0, close - MINUTES_PER_WEEK);
+            }
+        }
+        return new WeeklySchedule(zone(timezone), openMinutes);
+    }
+
+    public boolean isOpenAt(Instant instant) {
+        LocalDateTime local = LocalDateTime.ofInstant(instant, zone);
+        int minute = (local.getDayOfWeek().getValue() % 7) * MINUTES_PER_DAY
+                + local.getHour() * 60 + local.getMinute();
+        return openMinutes.get(minute);
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static ZoneId zone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            log.warn("Unknown store timezone '{}', evaluating hours in UTC", timezone);
+            return ZoneOffset.UTC;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.FlashSaleMapper;
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.mapper.WishlistAlertMapper;
+import com.ecommerce.mapper.WishlistMapper;
+import com.ecommerce.model.FlashSale;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Wishlist;
+import com.ecommerce.model.WishlistAlert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells users when a product on their wishlist drops in price, comes back in stock or
+ * goes on flash sale.
+ *
+ * Producers only queue a row in {@code wishlist_alerts}: {@link ProductService} does so
+ * inside the seller's update transaction, and a periodic scan does so for flash sales that
+ * have just started. The fan-out runs here in the background. Alerts are claimed one at a
+ * time and leased like {@link MailDispatcher} leases emails; every page extends the lease,
+ * and a matcher whose lease has been taken over drops the page rather than sending it
+ * again. An alert claimed {@code app.wishlist.alerts.max-attempts} times without finishing
+ * is marked FAILED. Watchers are paged through the wishlist's
+ * product index, and each page of emails goes into {@code mail_outbox} with one insert, in
+ * the same transaction that advances the alert's cursor. A product wishlisted by 100k users
+ * therefore costs the seller a single insert, and a fan-out interrupted by a crash resumes
+ * at the next unsent page once its lease expires.
+ *
+ * New alerts wait {@code app.wishlist.alerts.delay} before fanning out, so successive edits
+ * collapse into one email. Each alert is re-checked against the product before sending, so
+ * a price that has gone back up or a product that sold out again sends nothing.
+ */
+@Slf4j
+@Service
+public class WishlistAlertMatcher {
+
+    /** Flash sales that started longer ago than this are not alerted; must stay below the purge age. */
+    private static final Duration FLASH_SALE_LOOKBACK = Duration.ofDays(1);
+    private static final Duration RETENTION = Duration.ofDays(7);
+    private static final DateTimeFormatter SALE_END_FORMAT = DateTimeFormatter.ofPattern("MMMM d 'at' HH:mm", Locale.ENGLISH);
+
+    private final WishlistAlertMapper wishlistAlertMapper;
+    private final WishlistMapper wishlistMapper;
+    private final ProductMapper productMapper;
+    private final FlashSaleMapper flashSaleMapper;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration delay;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter notified;
+    private final Counter failed;
+
+    public WishlistAlertMatcher(WishlistAlertMapper wishlistAlertMapper, WishlistMapper wishlistMapper,
+                                ProductMapper productMapper, FlashSaleMapper flashSaleMapper,
+                                EmailService emailService, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.wishlist.alerts.enabled:true}") boolean enabled,
+                                @Value("${app.wishlist.alerts.delay:1m}") Duration delay,
+                                @Value("${app.wishlist.alerts.batch-size:500}") int batchSize,
+                                @Value("${app.wishlist.alerts.lease:5m}") Duration lease,
+                                @Value("${app.wishlist.alerts.max-attempts:5}") int maxAttempts) {
+        this.wishlistAlertMapper = wishlistAlertMapper;
+        this.wishlistMapper = wishlistMapper;
+        this.productMapper = productMapper;
+        this.flashSaleMapper = flashSaleMapper;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.delay = delay;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("wishlist.alerts.pending", pending, AtomicLong::get)
+                .description("Wishlist alerts not yet fanned out, as of the last dispatch run")
+                .register(meterRegistry);
+        this.notified = Counter.builder("wishlist.alerts.notified")
+                .description("Wishlist alert emails queued")
+                .register(meterRegistry);
+        this.failed = Counter.builder("wishlist.alerts.failed")
+                .description("Wishlist alerts given up on after max-attempts claims")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues alerts for a product just saved by its seller, given its price and quantity
+     * before the change. Joins the caller's transaction, so an update that rolls back
+     * alerts nobody.
+     */
+    public void productUpdated(Product product, BigDecimal previousPrice, Integer previousQuantity) {
+        if (!enabled) {
+            return;
+        }
+        if (previousPrice != null && product.getPrice() != null && product.getPrice().compareTo(previousPrice) < 0) {
+            queue(product, WishlistAlert.AlertType.PRICE_DROP, previousPrice);
+        }
+        if (Boolean.TRUE.equals(product.getTrackQuantity()) && previousQuantity != null && previousQuantity <= 0
+                && inStock(product)) {
+            queue(product, WishlistAlert.AlertType.BACK_IN_STOCK, null);
+        }
+    }
+
+    /**
+     * Queues alerts for flash sales that have started since the last scan. Repeat scans and
+     * several nodes scanning at once queue each sale's products only once.
+     */
+    @Scheduled(fixedDelayString = "${app.wishlist.alerts.flash-sale-scan-interval-ms:60000}")
+    public void scanFlashSales() {
+        if (!enabled) {
+            return;
+        }
+        int queued = wishlistAlertMapper.insertFlashSaleAlerts(LocalDateTime.now().minus(FLASH_SALE_LOOKBACK));
+        if (queued > 0) {
+            log.info("Queued wishlist alerts for {} flash sale products", queued);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.wishlist.alerts.dispatch-interval-ms:5000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        // One at a time: a claimed alert's lease only has to cover its own fan-out
+        WishlistAlert alert;
+        while ((alert = claim()) != null) {
+            try {
+                fanOut(alert);
+            } catch (RuntimeException e) {
+                // Left PROCESSING; picked up again from its cursor once the lease expires
+                log.error("Wishlist alert {} for product {} failed after notifying up to wishlist row {}",
+                        alert.getId(), alert.getProductId(), alert.getLastWishlistId(), e);
+            }
+        }
+        pending.set(wishlistAlertMapper.countPending());
+    }
+
+    @Scheduled(cron = "${app.wishlist.alerts.cleanup-cron:0 15 4 * * *}")
+    public void purgeDone() {
+        LocalDateTime before = LocalDateTime.now().minus(RETENTION);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = wishlistAlertMapper.deleteDoneBefore(before, 5000);
+            total += deleted;
+        } while (deleted == 5000);
+        if (total > 0) {
+            log.info("Purged {} completed wishlist alerts", total);
+        }
+    }
+
+    void fanOut(WishlistAlert alert) {
+        Product product = productMapper.findById(alert.getProductId());
+        Map<String, Object> model = model(alert, product);
+        if (model == null) {
+            wishlistAlertMapper.markDone(alert.getId(), alert.getAttempts());
+            log.debug("Wishlist alert {} no longer applies to product {}", alert.getId(), alert.getProductId());
+            return;
+        }
+
+        String template = template(alert.getAlertType());
+        long after = alert.getLastWishlistId();
+        List<Wishlist> watchers;
+        do {
+            watchers = wishlistMapper.findWatchers(alert.getProductId(), after, batchSize);
+            if (watchers.isEmpty()) {
+                break;
+            }
+            long last = watchers.get(watchers.size() - 1).getId();
+            List<Wishlist> page = watchers;
+            Integer queued = transactionTemplate.execute(status -> {
+                // Advanced first so the row stays locked while the page is queued
+                if (wishlistAlertMapper.advance(alert.getId(), alert.getAttempts(), last, page.size(),
+                        LocalDateTime.now().plus(lease)) == 0) {
+                    return null;
+                }
+                return emailService.sendWishlistAlertEmails(template, product.getSlug(), model, page);
+            });
+            if (queued == null) {
+                log.warn("Lost the lease on wishlist alert {} after wishlist row {}; another matcher carries on",
+                        alert.getId(), alert.getLastWishlistId());
+                return;
+            }
+            notified.increment(queued);
+            after = last;
+            alert.setLastWishlistId(last);
+        } while (watchers.size() == batchSize);
+
+        wishlistAlertMapper.markDone(alert.getId(), alert.getAttempts());
+        log.info("Wishlist alert {} ({}) for product {} fanned out", alert.getId(), alert.getAlertType(),
+                alert.getProductId());
+    }
+
+    /**
+     * Claims the next due alert, or returns null when none is left. Alerts already claimed
+     * {@code maxAttempts} times are marked FAILED on the way.
+     */
+    private WishlistAlert claim() {
+        return transactionTemplate.execute(status -> {
+            List<WishlistAlert> due;
+            while (!(due = wishlistAlertMapper.lockDue(1)).isEmpty()) {
+                WishlistAlert alert = due.get(0);
+                if (alert.getAttempts() >= maxAttempts) {
+                    wishlistAlertMapper.markFailed(alert.getId());
+                    failed.increment();
+                    log.error("Giving up on wishlist alert {} for product {} after {} attempts, notified up to wishlist row {}",
+                            alert.getId(), alert.getProductId(), alert.getAttempts(), alert.getLastWishlistId());
+                    continue;
+                }
+                alert.setAttempts(alert.getAttempts() + 1);
+                wishlistAlertMapper.lease(alert.getId(), alert.getAttempts(), LocalDateTime.now().plus(lease));
+                return alert;
+            }
+            return null;
+        });
+    }
+
+    private void queue(Product product, WishlistAlert.AlertType type, BigDecimal previousPrice) {
+        wishlistAlertMapper.insertUnlessPending(WishlistAlert.builder()
+                .productId(product.getId())
+                .alertType(type)
+                .previousPrice(previousPrice)
+                .price(product.getPrice())
+                .nextAttemptAt(LocalDateTime.now().plus(delay))
+                .build());
+    }
+
+    /**
+     * Template model for an alert, or null if the product has changed so that the alert
+     * no longer holds.
+     */
+    private Map<String, Object> model(WishlistAlert alert, Product product) {
+        if (product == null || product.getStatus() != Product.ProductStatus.ACTIVE) {
+            return null;
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("productName", product.getName());
+        switch (alert.getAlertType()) {
+            case PRICE_DROP -> {
+                if (alert.getPreviousPrice() == null || product.getPrice().compareTo(alert.getPreviousPrice()) >= 0) {
+                    return null;
+                }
+                model.put("previousPrice", money(alert.getPreviousPrice()));
+                model.put("price", money(product.getPrice()));
+            }
+            case BACK_IN_STOCK -> {
+                if (!inStock(product)) {
+                    return null;
+                }
+                model.put("price", money(product.getPrice()));
+            }
+            case FLASH_SALE -> {
+                FlashSale sale = alert.getFlashSaleId() != null ? flashSaleMapper.findById(alert.getFlashSaleId()) : null;
+                if (sale == null || !sale.isCurrentlyActive()) {
+                    return null;
+                }
+                model.put("saleName", sale.getName());
+                model.put("saleEndsAt", SALE_END_FORMAT.format(sale.getEndTime()));
+                model.put("previousPrice", money(alert.getPreviousPrice()));
+                model.put("price", money(alert.getPrice()));
+            }
+        }
+        return model;
+    }
+
+    private static String template(WishlistAlert.AlertType type) {
+        return switch (type) {
+            case PRICE_DROP -> "wishlist-price-drop";
+            case BACK_IN_STOCK -> "wishlist-back-in-stock";
+            case FLASH_SALE -> "wishlist-flash-sale";
+        };
+    }
+
+    private static boolean inStock(Product product) {
+        return !Boolean.TRUE.equals(product.getTrackQuantity())
+                || (product.getQuantity() != null && product.getQuantity() > 0);
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.service;
+
+import com.ecommerce.util.SortedLongSet;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of each user's wishlisted product ids as a compact sorted set, so heart
+ * icons across a product listing, membership checks and wishlist counts are answered from
+ * memory.
+ *
+ * The wishlist service applies its own adds and removes to cached sets once the
+ * transaction commits. Entries expire after {@code app.wishlist.membership-cache.ttl} to
+ * pick up rows removed by product deletion and changes made on other nodes. Hit and miss
+ * counts are published under the {@code wishlist.membership} cache metrics.
+ */
+@Component
+public class WishlistMembershipCache {
+
+    private final Cache<Long, SortedLongSet> cache;
+    /** Bumped on every change so a load racing with it is not cached. */
+    private final AtomicLong changes = new AtomicLong();
+
+    public WishlistMembershipCache(MeterRegistry meterRegistry,
+                                   @Value("${app.wishlist.membership-cache.max-size:50000}") long maxSize,
+                                   @Value("${app.wishlist.membership-cache.ttl:10m}") Duration ttl) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "wishlist.membership");
+    }
+
+    /**
+     * Returns the user's product ids, loading them with {@code loader} on a miss.
+     */
+    public SortedLongSet get(Long userId, Function<Long, List<Long>> loader) {
+        SortedLongSet products = cache.getIfPresent(userId);
+        if (products != null) {
+            return products;
+        }
+        long seen = changes.get();
+        products = SortedLongSet.of(loader.apply(userId));
+        if (changes.get() == seen) {
+            cache.put(userId, products);
+        }
+        return products;
+    }
+
+    public void added(Long userId, Long productId) {
+        afterCommit(userId, products -> products.with(productId));
+    }
+
+    public void removed(Long userId, Long productId) {
+        afterCommit(userId, products -> products.without(productId));
+    }
+
+    /**
+     * Updates a cached set once the current transaction commits, or immediately outside
+     * one. Users not in the cache are left to load the committed rows on their next read.
+     */
+    private void afterCommit(Long userId, UnaryOperator<SortedLongSet> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, change);
+                }
+            });
+        } else {
+            apply(userId, change);
+        }
+    }
+
+    private void apply(Long userId, UnaryOperator<SortedLongSet> change) {
+        changes.incrementAndGet();
+        cache.asMap().computeIfPresent(userId, (id, products) -> change.apply(products));
+    }
+}
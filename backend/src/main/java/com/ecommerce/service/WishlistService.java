@@ -12,6 +12,7 @@ public interface WishlistService {
     PaginationResponse<WishlistResponse> getUserWishlist(Long userId, int page, int size);
     boolean isProductInWishlist(Long userId, Long productId);
     List<Long> getUserWishlistProductIds(Long userId);
+    List<Long> findWishlistedProducts(Long userId, List<Long> productIds);
     long getWishlistCount(Long userId);
     void updateWishlistItem(Long userId, Long productId, WishlistRequest request);
     long getProductWishlistCount(Long productId);
@@ -4,15 +4,16 @@ import com.ecommerce.dto.PaginationResponse;
 import com.ecommerce.dto.request.WishlistRequest;
 import com.ecommerce.dto.response.WishlistResponse;
 import com.ecommerce.exception.ResourceNotFoundException;
-import com.ecommerce.mapper.ProductMapper;
-import com.ecommerce.mapper.UserMapper;
 import com.ecommerce.mapper.WishlistMapper;
-import com.ecommerce.model.Product;
-import com.ecommerce.model.User;
 import com.ecommerce.model.Wishlist;
+import com.ecommerce.service.WishlistMembershipCache;
 import com.ecommerce.service.WishlistService;
+import com.ecommerce.util.SortedLongSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,65 +27,64 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class WishlistServiceImpl implements WishlistService {
     
+    private static final String PRODUCT_FOREIGN_KEY = "fk_wishlist_product";
+    
     private final WishlistMapper wishlistMapper;
-    private final UserMapper userMapper;
-    private final ProductMapper productMapper;
+    private final WishlistMembershipCache membershipCache;
     
     @Override
     @Transactional
     public WishlistResponse addToWishlist(Long userId, WishlistRequest request) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        Product product = productMapper.findById(request.getProductId());
-        if (product == null) {
-            throw new ResourceNotFoundException("Product not found");
-        }
-        
-        // Check if already in wishlist
-        if (wishlistMapper.existsByUserAndProduct(userId, request.getProductId())) {
-            log.info("Product {} already in user {} wishlist", request.getProductId(), userId);
-            Wishlist existing = wishlistMapper.findByUserAndProduct(userId, request.getProductId());
-            return convertToResponse(existing);
+        Long productId = request.getProductId();
+        if (membership(userId).contains(productId)) {
+            Wishlist existing = wishlistMapper.findByUserAndProduct(userId, productId);
+            if (existing != null) {
+                log.info("Product {} already in user {} wishlist", productId, userId);
+                return convertToResponse(existing);
+            }
         }
         
         Wishlist wishlist = Wishlist.builder()
                 .userId(userId)
-                .productId(request.getProductId())
+                .productId(productId)
                 .notes(request.getNotes())
                 .priority(request.getPriority() != null ? request.getPriority() : 0)
                 .createdAt(LocalDateTime.now())
                 .build();
-                
-        wishlistMapper.insert(wishlist);
-        log.info("Added product {} to user {} wishlist", request.getProductId(), userId);
         
-        // Fetch the inserted record with joined data
-        wishlist = wishlistMapper.findByUserAndProduct(userId, request.getProductId());
+        // The unique key and product foreign key stand in for existence checks
+        try {
+            wishlistMapper.insert(wishlist);
+        } catch (DuplicateKeyException e) {
+            membershipCache.added(userId, productId);
+            log.info("Product {} already in user {} wishlist", productId, userId);
+            return convertToResponse(wishlistMapper.findByUserAndProduct(userId, productId));
+        } catch (DataIntegrityViolationException e) {
+            // Only a missing product means 404; anything else (e.g. a deleted user) is a real error
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (cause != null && cause.contains(PRODUCT_FOREIGN_KEY)) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            throw e;
+        }
+        membershipCache.added(userId, productId);
+        log.info("Added product {} to user {} wishlist", productId, userId);
+        
         return convertToResponse(wishlist);
     }
     
     @Override
     @Transactional
     public void removeFromWishlist(Long userId, Long productId) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        Product product = productMapper.findById(productId);
-        if (product == null) {
-            throw new ResourceNotFoundException("Product not found");
+        if (wishlistMapper.deleteByUserAndProduct(userId, productId) > 0) {
+            membershipCache.removed(userId, productId);
+            log.info("Removed product {} from user {} wishlist", productId, userId);
         }
-                
-        wishlistMapper.deleteByUserAndProduct(userId, productId);
-        log.info("Removed product {} from user {} wishlist", productId, userId);
     }
     
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<WishlistResponse> getUserWishlist(Long userId, int page, int size) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
         int offset = page * size;
         List<Wishlist> wishlistItems = wishlistMapper.findByUserWithProducts(userId, size, offset);
         long totalElements = wishlistMapper.countByUserForPagination(userId);
@@ -106,67 +106,48 @@ public class WishlistServiceImpl implements WishlistService {
     }
     
     @Override
-    @Transactional(readOnly = true)
     public boolean isProductInWishlist(Long userId, Long productId) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        Product product = productMapper.findById(productId);
-        if (product == null) {
-            throw new ResourceNotFoundException("Product not found");
-        }
-                
-        return wishlistMapper.existsByUserAndProduct(userId, productId);
+        return membership(userId).contains(productId);
     }
     
     @Override
-    @Transactional(readOnly = true)
     public List<Long> getUserWishlistProductIds(Long userId) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        return wishlistMapper.findProductIdsByUser(userId);
+        return membership(userId).toList();
+    }
+    
+    @Override
+    public List<Long> findWishlistedProducts(Long userId, List<Long> productIds) {
+        SortedLongSet membership = membership(userId);
+        return productIds.stream()
+                .filter(productId -> productId != null && membership.contains(productId))
+                .distinct()
+                .collect(Collectors.toList());
     }
     
     @Override
-    @Transactional(readOnly = true)
     public long getWishlistCount(Long userId) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        return wishlistMapper.countByUser(userId);
+        return membership(userId).size();
     }
     
     @Override
     @Transactional
     public void updateWishlistItem(Long userId, Long productId, WishlistRequest request) {
-        User user = userMapper.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                
-        Product product = productMapper.findById(productId);
-        if (product == null) {
-            throw new ResourceNotFoundException("Product not found");
-        }
-                
-        if (!wishlistMapper.existsByUserAndProduct(userId, productId)) {
+        if (wishlistMapper.updateByUserAndProduct(userId, productId, request.getNotes(), request.getPriority()) == 0) {
             throw new ResourceNotFoundException("Wishlist item not found");
         }
-        
-        wishlistMapper.updateByUserAndProduct(userId, productId, request.getNotes(), request.getPriority());
         log.info("Updated wishlist item for product {} and user {}", productId, userId);
     }
     
     @Override
     @Transactional(readOnly = true)
     public long getProductWishlistCount(Long productId) {
-        Product product = productMapper.findById(productId);
-        if (product == null) {
-            throw new ResourceNotFoundException("Product not found");
-        }
-                
         return wishlistMapper.countByProduct(productId);
     }
     
+    private SortedLongSet membership(Long userId) {
+        return membershipCache.get(userId, wishlistMapper::findProductIdsByUser);
+    }
+    
     private WishlistResponse convertToResponse(Wishlist wishlist) {
         return WishlistResponse.builder()
                 .id(wishlist.getId())
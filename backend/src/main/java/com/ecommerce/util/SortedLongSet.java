@@ -0,0 +1,65 @@
+package com.ecommerce.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of longs kept as one sorted primitive array: 8 bytes per element and
+ * O(log n) lookups, against roughly 50 bytes per element for a {@code HashSet<Long>}.
+ * Meant for small, read-mostly sets; {@link #with} and {@link #without} copy the array.
+ */
+public final class SortedLongSet {
+
+    private static final SortedLongSet EMPTY = new SortedLongSet(new long[0]);
+
+    private final long[] values;
+
+    private SortedLongSet(long[] values) {
+        this.values = values;
+    }
+
+    public static SortedLongSet of(Collection<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return sorted.length == 0 ? EMPTY : new SortedLongSet(sorted);
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public SortedLongSet with(long value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, insertAt);
+        copy[insertAt] = value;
+        System.arraycopy(values, insertAt, copy, insertAt + 1, values.length - insertAt);
+        return new SortedLongSet(copy);
+    }
+
+    public SortedLongSet without(long value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index < 0) {
+            return this;
+        }
+        if (values.length == 1) {
+            return EMPTY;
+        }
+        long[] copy = new long[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, index);
+        System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+        return new SortedLongSet(copy);
+    }
+
+    public List<Long> toList() {
+        return Arrays.stream(values).boxed().toList();
+    }
+}
@@ -0,0 +1,17 @@
+-- Transactional outbox for order lifecycle events.
+-- Rows are written in the same transaction as the order/payment change and
+-- relayed to the in-process event bus by OutboxRelay.
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSON NULL,
+    status ENUM('PENDING', 'PUBLISHED') NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    published_at TIMESTAMP(3) NULL
+);
+
+-- Relay polls pending rows in id order; cleanup deletes old published rows
+CREATE INDEX idx_outbox_status_id ON outbox_events(status, id);
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at);
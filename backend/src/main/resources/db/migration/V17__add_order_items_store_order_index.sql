@@ -0,0 +1,2 @@
+-- Lets store order exports walk order_items by (store_id, order_id) without a filesort
+CREATE INDEX idx_order_items_store_order ON order_items(store_id, order_id, id);
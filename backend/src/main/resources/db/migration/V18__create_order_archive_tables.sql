@@ -0,0 +1,24 @@
+-- Cold storage for closed orders (DELIVERED/CANCELLED/REFUNDED past retention).
+-- Archive tables mirror the hot tables column-for-column so rows can be moved with
+-- INSERT ... SELECT * and read back through UNION ALL. They carry no foreign keys.
+CREATE TABLE orders_archive LIKE orders;
+CREATE TABLE order_items_archive LIKE order_items;
+CREATE TABLE payments_archive LIKE payments;
+
+-- Archiver candidate scan: closed orders by last update
+CREATE INDEX idx_orders_status_updated ON orders(status, updated_at);
+
+-- coupon_usages must keep its rows when an order moves to the archive (per-user
+-- coupon limits count them), so drop its cascading foreign key to orders.
+SET @fk_name := (
+    SELECT CONSTRAINT_NAME FROM information_schema.KEY_COLUMN_USAGE
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'coupon_usages'
+      AND COLUMN_NAME = 'order_id'
+      AND REFERENCED_TABLE_NAME = 'orders'
+    LIMIT 1
+);
+SET @drop_fk := IF(@fk_name IS NULL, 'SELECT 1', CONCAT('ALTER TABLE coupon_usages DROP FOREIGN KEY ', @fk_name));
+PREPARE drop_fk_stmt FROM @drop_fk;
+EXECUTE drop_fk_stmt;
+DEALLOCATE PREPARE drop_fk_stmt;
@@ -0,0 +1,12 @@
+-- Per-user access token epoch. Tokens carry the epoch current when they were issued;
+-- bumping it (disable, demote, password change, delete) rejects every older token.
+-- Only users that have ever been revoked have a row, so nodes can hold the whole
+-- table in memory. No FK to users: the row must outlive a deleted account.
+CREATE TABLE token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    epoch INT NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- TokenRevocationList syncs incrementally by updated_at
+CREATE INDEX idx_token_revocations_updated_at ON token_revocations(updated_at);
@@ -0,0 +1,19 @@
+-- Outgoing email queue. EmailService inserts rows in the caller's transaction;
+-- MailDispatcher claims due rows, sends them in batches over one SMTP connection
+-- and reschedules failures with exponential backoff.
+CREATE TABLE mail_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    to_address VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status ENUM('PENDING', 'SENT', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(500) NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    sent_at TIMESTAMP(3) NULL
+);
+
+-- Dispatcher polls due pending rows; cleanup deletes old sent rows
+CREATE INDEX idx_mail_outbox_status_next ON mail_outbox(status, next_attempt_at);
+CREATE INDEX idx_mail_outbox_sent_at ON mail_outbox(sent_at);
@@ -0,0 +1,2 @@
+-- HTML alternative rendered alongside the plain-text body; NULL for text-only emails
+ALTER TABLE mail_outbox ADD COLUMN html_body MEDIUMTEXT NULL AFTER body;
@@ -0,0 +1,22 @@
+-- Transitive closure of the category hierarchy: one row per (ancestor, descendant) pair,
+-- including each category paired with itself at depth 0. Maintained by CategoryService
+-- on create and move; rows go away with the category through the cascades.
+CREATE TABLE category_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_category_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES categories(id) ON DELETE CASCADE,
+    CONSTRAINT fk_category_closure_descendant FOREIGN KEY (descendant_id) REFERENCES categories(id) ON DELETE CASCADE,
+    INDEX idx_category_closure_descendant (descendant_id, depth)
+);
+
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT p.ancestor_id, c.id, p.depth + 1
+    FROM paths p
+    JOIN categories c ON c.parent_id = p.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM paths;
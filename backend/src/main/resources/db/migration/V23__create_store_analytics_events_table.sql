@@ -0,0 +1,7 @@
+-- Outbox events already folded into store_analytics. Written in the same transaction as
+-- the aggregate upserts so a redelivered event is never counted twice.
+CREATE TABLE store_analytics_events (
+    outbox_id BIGINT PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_store_analytics_events_applied (applied_at)
+);
@@ -0,0 +1,33 @@
+-- Weekly (ISO, starting Monday) and monthly sums of the additive store_analytics counters.
+-- Updated in the same transaction as the daily rows by StoreAnalyticsAggregator so that a
+-- range can be answered from the coarsest buckets that cover it (see AnalyticsRangePlan).
+CREATE TABLE store_analytics_rollups (
+    store_id BIGINT NOT NULL,
+    granularity ENUM('WEEK', 'MONTH') NOT NULL,
+    period_start DATE NOT NULL,
+    total_visits INT NOT NULL DEFAULT 0,
+    page_views INT NOT NULL DEFAULT 0,
+    total_orders INT NOT NULL DEFAULT 0,
+    total_revenue DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    products_viewed INT NOT NULL DEFAULT 0,
+    products_purchased INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (store_id, granularity, period_start),
+    CONSTRAINT fk_store_analytics_rollups_store FOREIGN KEY (store_id) REFERENCES stores(id) ON DELETE CASCADE
+);
+
+INSERT INTO store_analytics_rollups (store_id, granularity, period_start, total_visits, page_views,
+                                     total_orders, total_revenue, products_viewed, products_purchased)
+SELECT store_id, 'WEEK', DATE_SUB(date, INTERVAL WEEKDAY(date) DAY),
+       SUM(COALESCE(total_visits, 0)), SUM(COALESCE(page_views, 0)), SUM(COALESCE(total_orders, 0)),
+       SUM(COALESCE(total_revenue, 0)), SUM(COALESCE(products_viewed, 0)), SUM(COALESCE(products_purchased, 0))
+FROM store_analytics
+GROUP BY store_id, DATE_SUB(date, INTERVAL WEEKDAY(date) DAY);
+
+INSERT INTO store_analytics_rollups (store_id, granularity, period_start, total_visits, page_views,
+                                     total_orders, total_revenue, products_viewed, products_purchased)
+SELECT store_id, 'MONTH', DATE_FORMAT(date, '%Y-%m-01'),
+       SUM(COALESCE(total_visits, 0)), SUM(COALESCE(page_views, 0)), SUM(COALESCE(total_orders, 0)),
+       SUM(COALESCE(total_revenue, 0)), SUM(COALESCE(products_viewed, 0)), SUM(COALESCE(products_purchased, 0))
+FROM store_analytics
+GROUP BY store_id, DATE_FORMAT(date, '%Y-%m-01');
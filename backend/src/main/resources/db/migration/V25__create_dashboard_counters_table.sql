@@ -0,0 +1,10 @@
+-- Last persisted values of the in-memory dashboard counters (see DashboardCounters).
+-- store_id 0 holds the platform-wide counters. Loaded at startup so counters are served
+-- straight away; the source tables remain authoritative and are reconciled against.
+CREATE TABLE dashboard_counters (
+    store_id BIGINT NOT NULL,
+    name VARCHAR(40) NOT NULL,
+    value DECIMAL(18,2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (store_id, name)
+);
@@ -0,0 +1,20 @@
+-- Helpful votes on product reviews, one per user, counted on the review so listings can
+-- sort by helpfulness without aggregating votes.
+ALTER TABLE product_reviews
+    ADD COLUMN helpful_count INT NOT NULL DEFAULT 0 AFTER status;
+
+CREATE TABLE product_review_votes (
+    review_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (review_id, user_id),
+    CONSTRAINT fk_product_review_votes_review FOREIGN KEY (review_id) REFERENCES product_reviews(id) ON DELETE CASCADE,
+    CONSTRAINT fk_product_review_votes_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Keyset pagination: each listing seeks on its sort key with id as the tie-breaker
+CREATE INDEX idx_product_reviews_product_recent ON product_reviews (product_id, status, created_at, id);
+CREATE INDEX idx_product_reviews_product_rating ON product_reviews (product_id, status, rating, id);
+CREATE INDEX idx_product_reviews_product_helpful ON product_reviews (product_id, status, helpful_count, id);
+CREATE INDEX idx_product_reviews_user_recent ON product_reviews (user_id, created_at, id);
+CREATE INDEX idx_product_reviews_status_recent ON product_reviews (status, created_at, id);
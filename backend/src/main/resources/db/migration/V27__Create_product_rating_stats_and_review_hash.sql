@@ -0,0 +1,23 @@
+-- Approved-review aggregates per product, refreshed by ProductReviewService whenever
+-- moderation, edits or deletes change a product's approved reviews. Product reads join
+-- this table instead of aggregating product_reviews per row.
+CREATE TABLE product_rating_stats (
+    product_id BIGINT NOT NULL PRIMARY KEY,
+    review_count INT NOT NULL DEFAULT 0,
+    rating_sum INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_product_rating_stats_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
+
+INSERT INTO product_rating_stats (product_id, review_count, rating_sum)
+SELECT product_id, COUNT(*), SUM(rating)
+FROM product_reviews
+WHERE status = 'APPROVED'
+GROUP BY product_id;
+
+-- SHA-256 of the normalized title and comment, used by ReviewAutoModerator to spot the
+-- same text posted from many accounts. NULL for short texts and reviews written before
+-- this column existed.
+ALTER TABLE product_reviews
+    ADD COLUMN content_hash CHAR(64) NULL AFTER comment,
+    ADD INDEX idx_product_reviews_content_hash (content_hash, status);
@@ -0,0 +1,24 @@
+-- Price drops, restocks and flash-sale starts waiting to be fanned out to everyone who
+-- wishlisted the product. Writers add one row; WishlistAlertMatcher pages through the
+-- product's wishlist rows in the background, recording its progress in last_wishlist_id
+-- so an interrupted fan-out resumes where it stopped.
+CREATE TABLE wishlist_alerts (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    alert_type VARCHAR(20) NOT NULL, -- PRICE_DROP, BACK_IN_STOCK, FLASH_SALE
+    previous_price DECIMAL(10,2) NULL,
+    price DECIMAL(10,2) NULL,
+    flash_sale_id BIGINT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, PROCESSING, DONE
+    last_wishlist_id BIGINT NOT NULL DEFAULT 0,
+    notified INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    completed_at TIMESTAMP(3) NULL,
+    CONSTRAINT fk_wishlist_alerts_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    CONSTRAINT fk_wishlist_alerts_flash_sale FOREIGN KEY (flash_sale_id) REFERENCES flash_sales(id) ON DELETE CASCADE,
+    -- One alert per product per sale; NULLs (non-sale alerts) never collide
+    UNIQUE KEY uk_wishlist_alerts_flash_sale (flash_sale_id, product_id),
+    INDEX idx_wishlist_alerts_due (status, next_attempt_at),
+    INDEX idx_wishlist_alerts_product (product_id, alert_type, status)
+);
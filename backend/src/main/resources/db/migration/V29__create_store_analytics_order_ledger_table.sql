@@ -0,0 +1,9 @@
+-- Revenue already taken back out of store_analytics per order, so a cancellation and a
+-- refund of the same order never reverse more than the order booked. Written in the same
+-- transaction as the aggregate upserts it guards.
+CREATE TABLE store_analytics_order_ledger (
+    order_id BIGINT PRIMARY KEY,
+    cancelled BOOLEAN NOT NULL DEFAULT FALSE,
+    refunded_revenue DECIMAL(12,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
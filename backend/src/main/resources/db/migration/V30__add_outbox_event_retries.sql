@@ -0,0 +1,7 @@
+-- Events a listener keeps failing on stay PENDING and are relayed again after a backoff;
+-- after app.events.max-redeliveries attempts they move to DEAD for manual inspection.
+ALTER TABLE outbox_events
+    MODIFY COLUMN status ENUM('PENDING', 'PUBLISHED', 'DEAD') NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0 AFTER status,
+    ADD COLUMN next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) AFTER attempts,
+    ADD COLUMN last_error VARCHAR(500) NULL AFTER next_attempt_at;
@@ -0,0 +1,4 @@
+-- Counts how often an alert has been claimed. Each claim bumps it, so it also tells a matcher
+-- whether it still holds the lease; an alert claimed app.wishlist.alerts.max-attempts times
+-- without finishing is marked FAILED instead of being retried forever.
+ALTER TABLE wishlist_alerts ADD COLUMN attempts INT NOT NULL DEFAULT 0 AFTER status;
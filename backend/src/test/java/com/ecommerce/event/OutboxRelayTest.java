@@ -0,0 +1,110 @@
+package com.ecommerce.event;
+
+import com.ecommerce.mapper.OutboxEventMapper;
+import com.ecommerce.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private OutboxEventMapper mapper;
+    private OrderEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(OutboxEventMapper.class);
+        bus = mock(OrderEventBus.class);
+        when(bus.publish(any())).thenReturn(true);
+    }
+
+    @Test
+    void sweepPagesFromZeroUntilCaughtUp() {
+        OutboxRelay relay = relay(1);
+        when(mapper.findPendingAfter(0L, 2)).thenReturn(rows(0, 1, 2));
+        when(mapper.findPendingAfter(2L, 2)).thenReturn(rows(0, 3, 4));
+        when(mapper.findPendingAfter(4L, 2)).thenReturn(rows(0, 5));
+
+        relay.relay();
+
+        verify(mapper).findPendingAfter(4L, 2);
+        verify(bus, times(5)).publish(any());
+    }
+
+    @Test
+    void reschedulesAFailedEventWithBackoff() {
+        OutboxRelay relay = relay(100);
+        when(mapper.findPendingAfter(0L, 2)).thenReturn(rows(0, 1));
+        failOnce(1L);
+
+        relay.relay();
+
+        verify(mapper).markRetry(eq(1L), any(), eq("boom"));
+        verify(mapper, never()).markPublished(any());
+        verify(mapper, never()).markDead(anyLong(), any());
+    }
+
+    @Test
+    void marksAnEventDeadAfterTheLastRedelivery() {
+        OutboxRelay relay = relay(100);
+        when(mapper.findPendingAfter(0L, 2)).thenReturn(rows(2, 1));
+        failOnce(1L);
+
+        relay.relay();
+
+        verify(mapper).markDead(1L, "boom");
+        verify(mapper, never()).markRetry(anyLong(), any(), any());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        OutboxRelay relay = relay(100);
+
+        assertEquals(Duration.ofSeconds(5), relay.backoff(1));
+        assertEquals(Duration.ofSeconds(20), relay.backoff(3));
+        assertEquals(Duration.ofMinutes(1), relay.backoff(30));
+    }
+
+    private OutboxRelay relay(int sweepEvery) {
+        return new OutboxRelay(mapper, bus, new SimpleMeterRegistry(), 2, sweepEvery,
+                3, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private void failOnce(long outboxId) {
+        when(bus.drainFailed(any()))
+                .thenReturn(0)
+                .thenAnswer(invocation -> {
+                    invocation.<Collection<OrderEventBus.DeliveryFailure>>getArgument(0)
+                            .add(new OrderEventBus.DeliveryFailure(outboxId, "boom"));
+                    return 1;
+                })
+                .thenReturn(0);
+    }
+
+    private static List<OutboxEvent> rows(int attempts, long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .id(id)
+                        .aggregateType("ORDER")
+                        .aggregateId(100 + id)
+                        .eventType("ORDER_CREATED")
+                        .attempts(attempts)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.JwtConfig;
+import com.ecommerce.model.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtTokenProviderTest {
+
+    private static final int REQUESTS = 100;
+
+    private TokenRevocationList revocationList;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = mock(TokenRevocationList.class);
+        when(revocationList.currentEpoch(anyLong())).thenReturn(2);
+        user = new User("buyer@example.com", "hash", "Ada", "Lovelace", User.UserRole.BUYER);
+        user.setId(42L);
+    }
+
+    @Test
+    void verifiesIssuedTokenOnce() {
+        JwtTokenProvider provider = provider(60_000, 1000);
+        String token = provider.generateAccessToken(user);
+
+        Claims claims = provider.verify(token);
+
+        assertNotNull(claims);
+        assertEquals("42", claims.getSubject());
+        assertEquals("BUYER", claims.get("role", String.class));
+        assertEquals(2, provider.getEpoch(claims));
+        // Subsequent lookups are served from the verified-token cache
+        assertSame(claims, provider.verify(token));
+        assertEquals(42L, provider.getUserIdFromToken(token));
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        JwtTokenProvider provider = provider(60_000, 1000);
+        String token = provider.generateAccessToken(user);
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertNull(provider.verify(tampered));
+        assertFalse(provider.validateToken(tampered));
+        assertNull(provider.verify(""));
+    }
+
+    @Test
+    void doesNotServeCachedClaimsPastExpiry() throws InterruptedException {
+        JwtTokenProvider provider = provider(1_500, 1000);
+        String token = provider.generateAccessToken(user);
+        assertNotNull(provider.verify(token));
+
+        // exp is stored with second precision
+        TimeUnit.MILLISECONDS.sleep(2_100);
+
+        assertNull(provider.verify(token));
+    }
+
+    @Test
+    void verifiesTheSignatureOncePerCachedToken() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtTokenProvider provider = provider(60_000, 1000, registry);
+        String token = provider.generateAccessToken(user);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertNotNull(provider.verify(token));
+        }
+
+        // Every miss runs the HMAC check; hits are served from the verified-token cache
+        assertEquals(1, tokenCacheGets(registry, "miss"));
+        assertEquals(REQUESTS - 1, tokenCacheGets(registry, "hit"));
+    }
+
+    @Test
+    void verifiesTheSignatureOnEveryRequestWithoutACache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtTokenProvider provider = provider(60_000, 0, registry);
+        String token = provider.generateAccessToken(user);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertNotNull(provider.verify(token));
+        }
+
+        assertEquals(REQUESTS, tokenCacheGets(registry, "miss"));
+        assertEquals(0, tokenCacheGets(registry, "hit"));
+    }
+
+    private static long tokenCacheGets(SimpleMeterRegistry registry, String result) {
+        return (long) registry.get("cache.gets").tag("cache", "auth.token").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private JwtTokenProvider provider(long expirationMs, long cacheSize) {
+        return provider(expirationMs, cacheSize, new SimpleMeterRegistry());
+    }
+
+    private JwtTokenProvider provider(long expirationMs, long cacheSize, SimpleMeterRegistry registry) {
+        JwtConfig config = new JwtConfig();
+        config.setSecret("test-secret-0123456789012345678901234567890123456789012345678901234567890");
+        config.setExpiration(expirationMs);
+        config.setRefreshExpiration(expirationMs);
+        return new JwtTokenProvider(config, revocationList, registry,
+                cacheSize, Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the cost of a rate limit check with several threads sharing a key space.
+ * Excluded from the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=}. Results are published
+ * as JUnit report entries.
+ */
+@Tag("benchmark")
+class SlidingWindowRateLimiterBenchmark {
+
+    private static final int THREADS = 4;
+    private static final int WARMUP_CHECKS_PER_THREAD = 1_000_000;
+    private static final int CHECKS_PER_THREAD = 5_000_000;
+    private static final int KEYS = 4096;
+
+    @Test
+    void checkThroughput(TestReporter reporter) throws Exception {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(60_000);
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "u:" + i;
+        }
+
+        // Warm up the JIT and create every key before timing
+        run(limiter, keys, WARMUP_CHECKS_PER_THREAD);
+
+        long began = System.nanoTime();
+        long allowed = run(limiter, keys, CHECKS_PER_THREAD);
+        long elapsedNanos = System.nanoTime() - began;
+
+        long checks = (long) THREADS * CHECKS_PER_THREAD;
+        assertEquals(checks, allowed);
+        reporter.publishEntry("threads", String.valueOf(THREADS));
+        reporter.publishEntry("checks", String.valueOf(checks));
+        reporter.publishEntry("checksPerSecond", String.format("%.0f", checks / (elapsedNanos / 1_000_000_000.0)));
+        reporter.publishEntry("nanosPerCheck", String.format("%.1f", (double) elapsedNanos * THREADS / checks));
+    }
+
+    private static long run(SlidingWindowRateLimiter limiter, String[] keys, int checksPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * 997;
+            futures.add(pool.submit(() -> {
+                start.await();
+                long allowed = 0;
+                for (int i = 0; i < checksPerThread; i++) {
+                    // The limit is never reached, so every check takes the common allow path
+                    if (limiter.tryAcquire(keys[(i + offset) & (KEYS - 1)], Integer.MAX_VALUE) == 0) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        start.countDown();
+        long allowed = 0;
+        for (Future<Long> future : futures) {
+            allowed += future.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return allowed;
+    }
+}
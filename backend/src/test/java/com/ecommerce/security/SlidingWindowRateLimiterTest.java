@@ -0,0 +1,119 @@
+package com.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final int THREADS = 4;
+    private static final int CHECKS_PER_THREAD = 200_000;
+    private static final int KEYS = 256;
+    private static final int LIMIT = 100;
+
+    private final long[] clock = {1_700_000_000_000L};
+
+    private SlidingWindowRateLimiter limiter(long windowMillis) {
+        return new SlidingWindowRateLimiter(windowMillis) {
+            @Override
+            protected long currentMillis() {
+                return clock[0];
+            }
+        };
+    }
+
+    @Test
+    void allowsUpToLimitThenReportsWait() {
+        SlidingWindowRateLimiter limiter = limiter(1_000);
+
+        int allowed = 0;
+        for (int i = 0; i < 15; i++) {
+            if (limiter.tryAcquire("client", 10) == 0) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+        long wait = limiter.tryAcquire("client", 10);
+        assertTrue(wait > 0);
+        clock[0] += wait;
+        assertEquals(0, limiter.tryAcquire("client", 10));
+    }
+
+    @Test
+    void previousWindowDecaysAcrossBoundary() {
+        SlidingWindowRateLimiter limiter = limiter(1_000);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("client", 10);
+        }
+
+        // Half way through the next window, half of the previous count still applies
+        clock[0] += 1_500;
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("client", 10) == 0) {
+                allowed++;
+            }
+        }
+        assertEquals(5, allowed);
+    }
+
+    @Test
+    void keysAreIndependentAndIdleKeysEvicted() {
+        SlidingWindowRateLimiter limiter = limiter(1_000);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a", 5);
+        }
+        assertTrue(limiter.tryAcquire("a", 5) > 0);
+        assertEquals(0, limiter.tryAcquire("b", 5));
+
+        clock[0] += 2_000;
+        assertEquals(2, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void neverAllowsMoreThanTheLimitUnderContention() throws Exception {
+        SlidingWindowRateLimiter limiter = limiter(60_000);
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "u:" + i;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * 997;
+            futures.add(pool.submit(() -> {
+                start.await();
+                long allowed = 0;
+                for (int i = 0; i < CHECKS_PER_THREAD; i++) {
+                    if (limiter.tryAcquire(keys[(i + offset) & (KEYS - 1)], LIMIT) == 0) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+
+        start.countDown();
+        long allowed = 0;
+        for (Future<Long> future : futures) {
+            allowed += future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Every key is tried far more often than its limit, so each lets exactly LIMIT through
+        assertEquals((long) KEYS * LIMIT, allowed);
+    }
+}
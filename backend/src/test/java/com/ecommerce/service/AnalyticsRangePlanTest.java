@@ -0,0 +1,54 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyticsRangePlanTest {
+
+    @Test
+    void usesMonthsThenWeeksThenDays() {
+        // Wed 2024-01-24 .. Mon 2024-03-18
+        AnalyticsRangePlan plan = AnalyticsRangePlan.of(LocalDate.of(2024, 1, 24), LocalDate.of(2024, 3, 18));
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 1)), plan.getMonths());
+        assertEquals(List.of(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11)), plan.getWeeks());
+        assertEquals(12, plan.getDays().size());
+    }
+
+    @Test
+    void coversEveryRangeExactlyOnce() {
+        LocalDate origin = LocalDate.of(2023, 12, 1);
+        for (int offset = 0; offset < 60; offset++) {
+            for (int length = 1; length <= 400; length += 7) {
+                LocalDate start = origin.plusDays(offset);
+                LocalDate end = start.plusDays(length - 1);
+                assertEquals(datesBetween(start, end), expand(AnalyticsRangePlan.of(start, end)), start + ".." + end);
+            }
+        }
+    }
+
+    @Test
+    void keepsLongRangesToAFewRows() {
+        AnalyticsRangePlan year = AnalyticsRangePlan.of(LocalDate.of(2024, 1, 17), LocalDate.of(2025, 1, 16));
+        assertTrue(year.bucketCount() <= 40, "buckets: " + year.bucketCount());
+        assertTrue(AnalyticsRangePlan.of(LocalDate.of(2024, 2, 2), LocalDate.of(2024, 2, 1)).isEmpty());
+    }
+
+    private static List<LocalDate> expand(AnalyticsRangePlan plan) {
+        List<LocalDate> dates = new ArrayList<>(plan.getDays());
+        plan.getWeeks().forEach(week -> dates.addAll(datesBetween(week, week.plusDays(6))));
+        plan.getMonths().forEach(month -> dates.addAll(datesBetween(month, month.plusMonths(1).minusDays(1))));
+        dates.sort(null);
+        return dates;
+    }
+
+    private static List<LocalDate> datesBetween(LocalDate start, LocalDate end) {
+        return start.datesUntil(end.plusDays(1)).toList();
+    }
+}
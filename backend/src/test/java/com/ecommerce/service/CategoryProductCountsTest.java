@@ -0,0 +1,94 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product.ProductStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryProductCountsTest {
+
+    private ProductMapper productMapper;
+    private CategoryTreeCache treeCache;
+    private CategoryProductCounts counts;
+
+    @BeforeEach
+    void setUp() {
+        productMapper = mock(ProductMapper.class);
+        treeCache = mock(CategoryTreeCache.class);
+        // electronics(1) > phones(2) > android(3); books(4)
+        when(treeCache.get()).thenReturn(tree(category(1L, null), category(2L, 1L), category(3L, 2L),
+            category(4L, null)));
+        when(productMapper.countActiveGroupByCategory()).thenReturn(List.of(row(2L, 3), row(3L, 2), row(4L, 1)));
+
+        counts = new CategoryProductCounts(productMapper, treeCache, new SimpleMeterRegistry());
+        counts.load();
+    }
+
+    @Test
+    void rollsDirectCountsUpToAncestors() {
+        assertEquals(0, counts.activeCount(1L));
+        assertEquals(5, counts.subtreeCount(1L));
+        assertEquals(5, counts.subtreeCount(2L));
+        assertEquals(2, counts.subtreeCount(3L));
+        assertEquals(1, counts.subtreeCount(4L));
+    }
+
+    @Test
+    void appliesProductWritesIncrementally() {
+        counts.productChanged(null, null, 3L, ProductStatus.ACTIVE);
+        counts.productChanged(2L, ProductStatus.ACTIVE, 4L, ProductStatus.ACTIVE);
+        counts.productChanged(4L, ProductStatus.ACTIVE, 4L, ProductStatus.INACTIVE);
+        counts.productChanged(3L, ProductStatus.DRAFT, null, null);
+
+        assertEquals(2, counts.activeCount(2L));
+        assertEquals(3, counts.activeCount(3L));
+        assertEquals(5, counts.subtreeCount(1L));
+        assertEquals(1, counts.subtreeCount(4L));
+    }
+
+    @Test
+    void rebuildsTotalsWhenTreeChanges() {
+        // android moves under books
+        when(treeCache.get()).thenReturn(tree(category(1L, null), category(2L, 1L), category(3L, 4L),
+            category(4L, null)));
+
+        assertEquals(3, counts.subtreeCount(1L));
+        assertEquals(3, counts.subtreeCount(4L));
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        counts.productChanged(null, null, 4L, ProductStatus.ACTIVE);
+        assertEquals(2, counts.activeCount(4L));
+
+        when(productMapper.countActiveGroupByCategory()).thenReturn(List.of(row(2L, 3), row(3L, 2)));
+        counts.reconcile();
+
+        assertEquals(0, counts.activeCount(4L));
+        assertEquals(0, counts.subtreeCount(4L));
+        assertEquals(5, counts.subtreeCount(1L));
+    }
+
+    private static CategoryTree tree(Category... categories) {
+        return CategoryTree.build(List.of(categories));
+    }
+
+    private static Category category(Long id, Long parentId) {
+        return Category.builder().id(id).parentId(parentId).slug("c" + id).displayOrder(0).isActive(true).build();
+    }
+
+    private static ProductMapper.CategoryCount row(Long categoryId, int count) {
+        ProductMapper.CategoryCount row = new ProductMapper.CategoryCount();
+        row.setCategoryId(categoryId);
+        row.setCount(count);
+        return row;
+    }
+}
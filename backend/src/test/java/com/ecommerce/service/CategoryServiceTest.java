@@ -0,0 +1,152 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.UpdateCategoryRequest;
+import com.ecommerce.mapper.CategoryClosureMapper;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryServiceTest {
+
+    private final Map<Long, Category> categories = new HashMap<>();
+    private final InMemoryClosure closure = new InMemoryClosure();
+    private CategoryService service;
+
+    @BeforeEach
+    void setUp() {
+        CategoryMapper categoryMapper = mock(CategoryMapper.class);
+        when(categoryMapper.findById(anyLong())).thenAnswer(invocation -> categories.get(invocation.<Long>getArgument(0)));
+        service = new CategoryService(categoryMapper, closure, mock(CategoryTreeCache.class),
+                mock(CategoryProductCounts.class));
+
+        // electronics > phones > android, books
+        add(1L, null);
+        add(2L, 1L);
+        add(3L, 2L);
+        add(4L, null);
+    }
+
+    @Test
+    void movesASubtreeUnderANewParent() {
+        service.updateCategory(2L, UpdateCategoryRequest.builder().parentId(4L).build());
+
+        assertEquals(4L, categories.get(2L).getParentId());
+        assertEquals(Set.of(
+                path(1L, 1L, 0), path(2L, 2L, 0), path(3L, 3L, 0), path(4L, 4L, 0),
+                path(2L, 3L, 1),
+                path(4L, 2L, 1), path(4L, 3L, 2)
+        ), closure.paths);
+    }
+
+    @Test
+    void movesASubtreeToTheRoot() {
+        service.updateCategory(2L, UpdateCategoryRequest.builder().parentId(0L).build());
+
+        assertNull(categories.get(2L).getParentId());
+        assertEquals(Set.of(
+                path(1L, 1L, 0), path(2L, 2L, 0), path(3L, 3L, 0), path(4L, 4L, 0),
+                path(2L, 3L, 1)
+        ), closure.paths);
+    }
+
+    @Test
+    void rejectsMovingACategoryUnderItsOwnDescendant() {
+        Set<Path> before = Set.copyOf(closure.paths);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.updateCategory(1L, UpdateCategoryRequest.builder().parentId(3L).build()));
+
+        assertNull(categories.get(1L).getParentId());
+        assertEquals(before, closure.paths);
+    }
+
+    @Test
+    void insertsPathsForANewLeaf() {
+        assertEquals(Set.of(
+                path(1L, 1L, 0), path(2L, 2L, 0), path(3L, 3L, 0), path(4L, 4L, 0),
+                path(1L, 2L, 1), path(1L, 3L, 2), path(2L, 3L, 1)
+        ), closure.paths);
+    }
+
+    private void add(Long id, Long parentId) {
+        categories.put(id, Category.builder().id(id).name("Category " + id).slug("category-" + id)
+                .parentId(parentId).isActive(true).displayOrder(0).build());
+        closure.insertPaths(id, parentId);
+    }
+
+    private static Path path(Long ancestorId, Long descendantId, int depth) {
+        return new Path(ancestorId, descendantId, depth);
+    }
+
+    private record Path(Long ancestorId, Long descendantId, int depth) {
+    }
+
+    /**
+     * Applies each statement of {@link CategoryClosureMapper} to an in-memory set of rows,
+     * mirroring the joins of its SQL.
+     */
+    private static class InMemoryClosure implements CategoryClosureMapper {
+        final Set<Path> paths = new HashSet<>();
+
+        @Override
+        public void insertPaths(Long categoryId, Long parentId) {
+            for (Path up : List.copyOf(paths)) {
+                if (up.descendantId().equals(parentId)) {
+                    paths.add(path(up.ancestorId(), categoryId, up.depth() + 1));
+                }
+            }
+            paths.add(path(categoryId, categoryId, 0));
+        }
+
+        @Override
+        public int detachSubtree(Long categoryId) {
+            Set<Long> subtree = new HashSet<>();
+            for (Path p : paths) {
+                if (p.ancestorId().equals(categoryId)) {
+                    subtree.add(p.descendantId());
+                }
+            }
+            // Rows ending inside the subtree whose ancestor lies outside it
+            int before = paths.size();
+            paths.removeIf(p -> subtree.contains(p.descendantId()) && !subtree.contains(p.ancestorId()));
+            return before - paths.size();
+        }
+
+        @Override
+        public int attachSubtree(Long categoryId, Long parentId) {
+            int inserted = 0;
+            for (Path up : List.copyOf(paths)) {
+                if (!up.descendantId().equals(parentId)) {
+                    continue;
+                }
+                for (Path down : List.copyOf(paths)) {
+                    if (down.ancestorId().equals(categoryId)
+                            && paths.add(path(up.ancestorId(), down.descendantId(), up.depth() + down.depth() + 1))) {
+                        inserted++;
+                    }
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        public boolean isDescendant(Long descendantId, Long ancestorId) {
+            return paths.stream().anyMatch(p -> p.ancestorId().equals(ancestorId)
+                    && p.descendantId().equals(descendantId) && p.depth() > 0);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryTreeTest {
+
+    private final CategoryTree tree = CategoryTree.build(List.of(
+        category(1L, null, "electronics", 2, true),
+        category(2L, null, "books", 1, true),
+        category(3L, 1L, "phones", 1, true),
+        category(4L, 1L, "laptops", 0, true),
+        category(5L, 3L, "android", 0, true),
+        category(6L, 1L, "retired", 2, false)
+    ));
+
+    @Test
+    void ordersRootsAndChildrenByDisplayOrder() {
+        assertEquals(List.of(2L, 1L), ids(tree.roots(true)));
+        assertEquals(List.of(4L, 3L, 6L), ids(tree.children(1L, false)));
+        assertEquals(List.of(4L, 3L), ids(tree.children(1L, true)));
+        assertTrue(tree.children(99L, true).isEmpty());
+    }
+
+    @Test
+    void looksUpByIdSlugAndParent() {
+        assertSame(tree.get(5L), tree.getBySlug("android"));
+        assertEquals("phones", tree.getParent(5L).getSlug());
+        assertNull(tree.getParent(1L));
+        assertNull(tree.getBySlug("missing"));
+        assertEquals(5, tree.all(true).size());
+    }
+
+    @Test
+    void resolvesPathsAndAncestry() {
+        assertEquals(List.of(1L, 3L, 5L), ids(tree.path(5L)));
+        assertTrue(tree.path(99L).isEmpty());
+        assertTrue(tree.isDescendantOf(5L, 1L));
+        assertFalse(tree.isDescendantOf(1L, 5L));
+        assertFalse(tree.isDescendantOf(4L, 3L));
+    }
+
+    private static Category category(Long id, Long parentId, String slug, int displayOrder, boolean active) {
+        return Category.builder()
+            .id(id)
+            .parentId(parentId)
+            .name(slug)
+            .slug(slug)
+            .displayOrder(displayOrder)
+            .isActive(active)
+            .build();
+    }
+
+    private static List<Long> ids(List<Category> categories) {
+        return categories.stream().map(Category::getId).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.StoreStatsResponse;
+import com.ecommerce.mapper.DashboardCounterMapper;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Store;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardCountersTest {
+
+    private StoreMapper storeMapper;
+    private OrderMapper orderMapper;
+    private DashboardCounterMapper dashboardCounterMapper;
+    private DashboardCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        storeMapper = mock(StoreMapper.class);
+        orderMapper = mock(OrderMapper.class);
+        dashboardCounterMapper = mock(DashboardCounterMapper.class);
+        when(dashboardCounterMapper.findAll()).thenReturn(List.of(
+            new DashboardCounterMapper.CounterRow(7L, DashboardCounters.ORDERS, new BigDecimal("3"))));
+        when(storeMapper.countStoreTotals()).thenReturn(new StoreStatsResponse(5L, 4L, 2L, 1L));
+        when(orderMapper.sumOrdersGroupByStore()).thenReturn(List.of(totals(7L, 10L, "250.50")));
+
+        counters = new DashboardCounters(storeMapper, orderMapper, dashboardCounterMapper, new SimpleMeterRegistry());
+        counters.load();
+    }
+
+    @Test
+    void startsFromReconciledValues() {
+        assertEquals(new StoreStatsResponse(5L, 4L, 2L, 1L), counters.getStoreStats());
+        assertEquals(10L, counters.getStoreDashboardStats(7L).getTotalOrders());
+        assertEquals(new BigDecimal("250.50"), counters.getStoreDashboardStats(7L).getTotalRevenue());
+        assertEquals(0L, counters.getStoreDashboardStats(8L).getTotalOrders());
+    }
+
+    @Test
+    void tracksStoreLifecycle() {
+        Store pending = Store.builder().isActive(true).isVerified(false)
+            .verificationStatus(Store.VerificationStatus.PENDING).build();
+        counters.storeCreated(pending);
+        counters.storeVerificationChanged(pending, Store.VerificationStatus.APPROVED);
+        counters.storeStatusChanged(pending, false);
+
+        assertEquals(new StoreStatsResponse(6L, 4L, 3L, 1L), counters.getStoreStats());
+    }
+
+    @Test
+    void tracksOrdersAndPaidRevenuePerStore() {
+        List<OrderItem> items = List.of(item(7L, "19.99"), item(7L, "5.01"), item(8L, "40.00"));
+        counters.orderPlaced(items);
+        counters.orderPaid(items);
+
+        assertEquals(11L, counters.getStoreDashboardStats(7L).getTotalOrders());
+        assertEquals(new BigDecimal("275.50"), counters.getStoreDashboardStats(7L).getTotalRevenue());
+        assertEquals(new BigDecimal("40.00"), counters.getStoreDashboardStats(8L).getTotalRevenue());
+
+        counters.orderPaymentReversed(items);
+        assertEquals(new BigDecimal("250.50"), counters.getStoreDashboardStats(7L).getTotalRevenue());
+        assertEquals(1L, counters.getStoreDashboardStats(8L).getTotalOrders());
+    }
+
+    @Test
+    void persistsPlatformAndChangedStoreCounters() {
+        counters.persist();
+        counters.orderPlaced(List.of(item(8L, "1.00")));
+        counters.persist();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DashboardCounterMapper.CounterRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(dashboardCounterMapper, times(2)).upsertAll(rows.capture());
+        // First run: platform counters plus store 7 corrected by reconciliation
+        assertEquals(6, rows.getAllValues().get(0).size());
+        List<DashboardCounterMapper.CounterRow> second = rows.getAllValues().get(1);
+        assertEquals(6, second.size());
+        assertTrue(second.stream().anyMatch(row -> row.getStoreId() == 8L
+            && DashboardCounters.ORDERS.equals(row.getName()) && row.getValue().longValue() == 1L));
+    }
+
+    private static OrderMapper.StoreOrderTotals totals(Long storeId, Long orders, String revenue) {
+        OrderMapper.StoreOrderTotals row = new OrderMapper.StoreOrderTotals();
+        row.setStoreId(storeId);
+        row.setOrderCount(orders);
+        row.setPaidRevenue(new BigDecimal(revenue));
+        return row;
+    }
+
+    private static OrderItem item(Long storeId, String totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setStoreId(storeId);
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+}
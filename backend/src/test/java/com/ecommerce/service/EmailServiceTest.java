@@ -0,0 +1,64 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.MailOutboxMapper;
+import com.ecommerce.model.OutboundEmail;
+import com.ecommerce.model.Wishlist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class EmailServiceTest {
+
+    private MailOutboxMapper mailOutboxMapper;
+    private EmailTemplateEngine engine;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        mailOutboxMapper = mock(MailOutboxMapper.class);
+        engine = new EmailTemplateEngine();
+        engine.load();
+        emailService = new EmailService(mailOutboxMapper, engine);
+    }
+
+    @Test
+    void queuesRenderedEmail() {
+        emailService.sendWelcomeEmail("ada@example.com", "Ada");
+
+        ArgumentCaptor<OutboundEmail> queued = ArgumentCaptor.forClass(OutboundEmail.class);
+        verify(mailOutboxMapper).insert(queued.capture());
+        assertEquals("ada@example.com", queued.getValue().getToAddress());
+    }
+
+    @Test
+    void skipsEmailsThatCannotBeRenderedInsteadOfFailingTheCaller() {
+        engine.register("welcome", "en", "Welcome\n\nHi {{nickname}}", null);
+
+        emailService.sendWelcomeEmail("ada@example.com", "Ada");
+
+        verify(mailOutboxMapper, never()).insert(any());
+    }
+
+    @Test
+    void skipsWishlistEmailsThatCannotBeRendered() {
+        engine.register("price-alert", "en", "{{productName}} for {{firstName}}\n\n{{productUrl}}", null);
+        List<Wishlist> watchers = List.of(
+                Wishlist.builder().id(1L).userEmail("a@example.com").userFirstName("Ada").build(),
+                Wishlist.builder().id(2L).userEmail("b@example.com").userFirstName("Bob").build());
+
+        assertEquals(2, emailService.sendWishlistAlertEmails("price-alert", "lamp", Map.of("productName", "Lamp"), watchers));
+        assertEquals(0, emailService.sendWishlistAlertEmails("price-alert", "lamp", Map.of(), watchers));
+
+        verify(mailOutboxMapper).insertBatch(anyList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.service;
+
+import com.ecommerce.service.EmailTemplateEngine.EmailTemplate;
+import com.ecommerce.service.EmailTemplateEngine.RenderedEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailTemplateEngineTest {
+
+    private static final int RENDERS = 100;
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new EmailTemplateEngine();
+        engine.load();
+    }
+
+    @Test
+    void rendersBundledTemplates() {
+        RenderedEmail email = engine.render("verification", Locale.ENGLISH,
+            Map.of("firstName", "Ada", "verificationUrl", "http://localhost:3000/verify-email?token=abc"));
+
+        assertEquals("Verify Your Email - E-Commerce Store", email.subject());
+        assertTrue(email.text().startsWith("Hi Ada,\n\n"));
+        assertTrue(email.text().contains("http://localhost:3000/verify-email?token=abc"));
+        assertTrue(email.html().contains("href=\"http://localhost:3000/verify-email?token=abc\""));
+    }
+
+    @Test
+    void escapesValuesInHtmlOnly() {
+        engine.register("note", "en", "Note for {{name}}\n\nHello {{name}}", "<p>Hello {{ name }}</p>");
+
+        RenderedEmail email = engine.render("note", Locale.ENGLISH, Map.of("name", "<Tom & \"Jerry\">"));
+
+        assertEquals("Note for <Tom & \"Jerry\">", email.subject());
+        assertEquals("Hello <Tom & \"Jerry\">", email.text());
+        assertEquals("<p>Hello &lt;Tom &amp; &quot;Jerry&quot;&gt;</p>", email.html());
+    }
+
+    @Test
+    void fallsBackFromRegionToLanguageToDefault() {
+        EmailTemplate english = engine.register("greeting", "en", "Hi\n\nHello", null);
+        EmailTemplate portuguese = engine.register("greeting", "pt", "Oi\n\nOlá", null);
+        EmailTemplate brazilian = engine.register("greeting", "pt-BR", "Oi\n\nOi, tudo bem?", null);
+
+        assertSame(brazilian, engine.resolve("greeting", Locale.forLanguageTag("pt-BR")));
+        assertSame(portuguese, engine.resolve("greeting", Locale.forLanguageTag("pt-PT")));
+        assertSame(english, engine.resolve("greeting", Locale.FRENCH));
+        assertNull(engine.render(english, Map.of()).html());
+    }
+
+    @Test
+    void rejectsMissingValuesAndMalformedTemplates() {
+        engine.register("order", "en", "Order {{orderNumber}}\n\nThanks", null);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.render("order", Locale.ENGLISH, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> engine.resolve("missing", Locale.ENGLISH));
+        assertThrows(IllegalStateException.class, () -> engine.register("bad", "en", "Subject {{x\n\nBody", null));
+    }
+
+    @Test
+    void rendersEachModelIntoItsOwnEmail() {
+        EmailTemplate template = engine.resolve("welcome", Locale.ENGLISH);
+        Map<String, Object> model = new HashMap<>();
+        model.put("storeUrl", "http://localhost:3000");
+
+        for (int i = 0; i < RENDERS; i++) {
+            model.put("firstName", "Customer " + i);
+            RenderedEmail email = engine.render(template, model);
+            assertTrue(email.text().startsWith("Hi Customer " + i + ",\n\n"));
+            assertTrue(email.html().contains("<p>Hi Customer " + i + ",</p>"));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.MailOutboxMapper;
+import com.ecommerce.model.OutboundEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailDispatcherTest {
+
+    private MailOutboxMapper mapper;
+    private JavaMailSender mailSender;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(MailOutboxMapper.class);
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        dispatcher = new MailDispatcher(mapper, mailSender, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), "noreply@example.com", 50, 3,
+                Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void sendsBatchInOneCallAndMarksSent() {
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(email(1L, 0), email(2L, 0)));
+
+        dispatcher.dispatch();
+
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        verify(mapper).markSent(List.of(email(1L, 1), email(2L, 1)));
+        verify(mapper, never()).markRetry(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void reschedulesOnlyTheMessagesThatFailed() {
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(email(1L, 0), email(2L, 0)));
+        doAnswer(invocation -> {
+            MimeMessage[] messages = (MimeMessage[]) invocation.getRawArguments()[0];
+            throw new MailSendException(Map.of(messages[1], new RuntimeException("mailbox full")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        verify(mapper).markSent(List.of(email(1L, 1)));
+        verify(mapper).markRetry(eq(2L), eq(1), any(), eq("mailbox full"));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(email(1L, 2)));
+        doThrow(new MailSendException("connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        verify(mapper).markFailed(eq(1L), eq(3), anyString());
+        verify(mapper, never()).markSent(any());
+    }
+
+    @Test
+    void fencesEveryWriteOnTheAttemptsOfItsClaim() {
+        OutboundEmail claimed = email(1L, 0);
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(claimed));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboundEmail>> marked = ArgumentCaptor.forClass(List.class);
+
+        dispatcher.dispatch();
+
+        verify(mapper).lease(eq(List.of(1L)), any());
+        verify(mapper).markSent(marked.capture());
+        assertEquals(1, marked.getValue().get(0).getAttempts());
+    }
+
+    @Test
+    void givesUpWithoutSendingWhenEveryLeaseExpired() {
+        // Claimed a fourth time: the previous three sends each outlived their lease
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(email(1L, 3)));
+
+        dispatcher.dispatch();
+
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+        verify(mapper).markFailed(eq(1L), eq(4), anyString());
+    }
+
+    @Test
+    void sendsHtmlAlternativeWhenPresent() throws Exception {
+        OutboundEmail email = email(1L, 0);
+        email.setHtmlBody("<p>Body 1</p>");
+        when(mapper.lockDue(anyInt())).thenReturn(List.of(email));
+        doAnswer(invocation -> {
+            MimeMessage message = ((MimeMessage[]) invocation.getRawArguments()[0])[0];
+            assertTrue(message.getContent() instanceof MimeMultipart);
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        verify(mapper).markSent(List.of(email(1L, 1)));
+    }
+
+    @Test
+    void backoffDoublesUpToCap() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(240), dispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(10));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(100));
+    }
+
+    private static OutboundEmail email(Long id, int attempts) {
+        return OutboundEmail.builder()
+                .id(id)
+                .toAddress("user" + id + "@example.com")
+                .subject("Subject " + id)
+                .body("Body " + id)
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void generatesUniqueIdsAcrossThreads() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, false);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int pos = 0;
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get(60, TimeUnit.SECONDS);
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "ids must increase within a thread");
+            }
+            System.arraycopy(ids, 0, all, pos, ids.length);
+            pos += ids.length;
+        }
+        pool.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id generated");
+        }
+    }
+
+    @Test
+    void orderNumbersSortInIssueOrder() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, false);
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+        assertTrue(previous.matches("ORD-\\d{8}-[0-9A-Z]{13}"), previous);
+    }
+
+    @Test
+    void staysMonotonicWhenClockMovesBackwards() {
+        long[] clock = {5_000};
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, false) {
+            @Override
+            protected long currentMillis() {
+                return clock[0];
+            }
+        };
+
+        long first = generator.nextId();
+        clock[0] = 4_000;
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(5_000 + OrderNumberGenerator.EPOCH_MILLIS, OrderNumberGenerator.extractTimestamp(second));
+    }
+
+    @Test
+    void requiresANodeIdUnlessDerivingIsEnabled() {
+        assertThrows(IllegalStateException.class, () -> new OrderNumberGenerator(-1, false));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1, false));
+
+        long derived = new OrderNumberGenerator(-1, true).nextId();
+        assertTrue(derived > 0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.BulkOrderStatusResponse;
+import com.ecommerce.event.OrderEventType;
+import com.ecommerce.mapper.AddressMapper;
+import com.ecommerce.mapper.CartMapper;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+    private OrderMapper orderMapper;
+    private OutboxService outboxService;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = mock(OrderMapper.class);
+        outboxService = mock(OutboxService.class);
+        orderService = new OrderService(orderMapper, mock(CartMapper.class), mock(ProductMapper.class),
+                mock(AddressMapper.class), mock(InventoryService.class), mock(CouponService.class),
+                mock(OrderNumberGenerator.class), outboxService, mock(DashboardCounters.class));
+    }
+
+    @Test
+    void bulkUpdateSkipsOrdersOfOtherStores() {
+        // Order 2 has no items from store 9, so the store-scoped lock does not return it
+        when(orderMapper.findOrdersByIdsForUpdate(List.of(1L, 2L), 9L)).thenReturn(List.of(order(1L)));
+
+        BulkOrderStatusResponse result = orderService.bulkUpdateOrderStatus(List.of(1L, 2L),
+                Order.OrderStatus.SHIPPED, 9L);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertEquals("Order not found in your store", result.getResults().get(1).getMessage());
+        verify(orderMapper).updateOrderStatusBatch(List.of(1L), Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Map<String, Object>>> events = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).recordOrderEvents(eq(OrderEventType.ORDER_STATUS_CHANGED), events.capture());
+        assertEquals(List.of(1L), List.copyOf(events.getValue().keySet()));
+    }
+
+    @Test
+    void bulkUpdateByAnAdminIsNotScopedToAStore() {
+        when(orderMapper.findOrdersByIdsForUpdate(List.of(1L, 2L), null)).thenReturn(List.of(order(1L), order(2L)));
+
+        BulkOrderStatusResponse result = orderService.bulkUpdateOrderStatus(List.of(1L, 2L),
+                Order.OrderStatus.SHIPPED, null);
+
+        assertEquals(2, result.getUpdated());
+        verify(orderMapper).updateOrderStatusBatch(List.of(1L, 2L), Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setUserId(100L + id);
+        order.setStatus(Order.OrderStatus.PROCESSING);
+        return order;
+    }
+}
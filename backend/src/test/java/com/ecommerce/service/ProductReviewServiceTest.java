@@ -0,0 +1,144 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.BulkReviewModerationResponse;
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.dto.ProductReviewDto;
+import com.ecommerce.dto.ReviewSort;
+import com.ecommerce.mapper.ProductReviewMapper;
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.ProductReview;
+import com.ecommerce.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductReviewServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private ProductReviewMapper productReviewMapper;
+    private UserMapper userMapper;
+    private ProductReviewService service;
+
+    @BeforeEach
+    void setUp() {
+        productReviewMapper = mock(ProductReviewMapper.class);
+        userMapper = mock(UserMapper.class);
+        service = new ProductReviewService(productReviewMapper, userMapper);
+        when(userMapper.findSummariesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(ProductReviewServiceTest::user).toList();
+        });
+    }
+
+    @Test
+    void loadsAPageOfReviewsWithTwoQueries() {
+        // 101 rows back for a page of 100: one extra row signals a next page
+        when(productReviewMapper.findPage(eq(9L), isNull(), eq("APPROVED"), eq("NEWEST"), isNull(), isNull(), isNull(), eq(101)))
+            .thenReturn(reviews(101, 7));
+
+        CursorPageResponse<ProductReviewDto> page = service.getProductReviews(9L, ReviewSort.NEWEST, null, 500);
+
+        assertEquals(100, page.getContent().size());
+        assertTrue(page.isHasMore());
+        assertEquals("User 3", page.getContent().get(3).getUserName());
+        verify(productReviewMapper, times(1)).findPage(any(), any(), any(), any(), any(), any(), any(), anyInt());
+        verify(userMapper, times(1)).findSummariesByIds(anyCollection());
+        verifyNoMoreInteractions(productReviewMapper, userMapper);
+    }
+
+    @Test
+    void continuesFromTheCursorOfThePreviousPage() {
+        List<ProductReview> rows = reviews(3, 3);
+        when(productReviewMapper.findPage(isNull(), eq(4L), isNull(), eq("HIGHEST_RATED"), isNull(), isNull(), isNull(), eq(3)))
+            .thenReturn(rows);
+        CursorPageResponse<ProductReviewDto> first = service.getUserReviews(4L, ReviewSort.HIGHEST_RATED, null, 2);
+
+        ProductReview last = rows.get(1);
+        when(productReviewMapper.findPage(isNull(), eq(4L), isNull(), eq("HIGHEST_RATED"), eq(last.getRating()), isNull(), eq(last.getId()), eq(3)))
+            .thenReturn(List.of(rows.get(2)));
+        CursorPageResponse<ProductReviewDto> second = service.getUserReviews(4L, ReviewSort.HIGHEST_RATED, first.getNextCursor(), 2);
+
+        assertEquals(List.of(3L), second.getContent().stream().map(ProductReviewDto::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void rejectsCursorsIssuedForAnotherSort() {
+        String cursor = ReviewCursor.after(reviews(1, 1).get(0), ReviewSort.MOST_HELPFUL).encode();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getProductReviews(9L, ReviewSort.NEWEST, cursor, 20));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getProductReviews(9L, ReviewSort.NEWEST, "not-a-cursor", 20));
+    }
+
+    @Test
+    void moderatesInOneSetBasedPassAndRefreshesOnlyAffectedProducts() {
+        when(productReviewMapper.findStatusByIdsForUpdate(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+            review(1L, 10L, ProductReview.ReviewStatus.PENDING),
+            review(2L, 20L, ProductReview.ReviewStatus.APPROVED),
+            review(3L, 30L, ProductReview.ReviewStatus.REJECTED)));
+        when(productReviewMapper.updateStatusBatch(List.of(1L, 2L), "REJECTED")).thenReturn(2);
+
+        BulkReviewModerationResponse result =
+            service.applyModeration(List.of(1L, 2L, 3L, 4L, 1L), ProductReview.ReviewStatus.REJECTED);
+
+        assertEquals(4, result.getRequested());
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getNotFound());
+        // Rejecting a pending review leaves product 10's approved aggregates as they were
+        verify(productReviewMapper).refreshRatingStats(List.of(20L));
+        verify(productReviewMapper).findStatusByIdsForUpdate(List.of(1L, 2L, 3L, 4L));
+        verify(productReviewMapper).updateStatusBatch(List.of(1L, 2L), "REJECTED");
+        verifyNoMoreInteractions(productReviewMapper);
+    }
+
+    private static ProductReview review(Long id, Long productId, ProductReview.ReviewStatus status) {
+        return ProductReview.builder().id(id).productId(productId).status(status).build();
+    }
+
+    private static User user(Long id) {
+        User user = new User(null, null, "User", String.valueOf(id), User.UserRole.BUYER);
+        user.setId(id);
+        return user;
+    }
+
+    private static List<ProductReview> reviews(int count, int authors) {
+        List<ProductReview> reviews = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reviews.add(ProductReview.builder()
+                .id((long) i + 1)
+                .productId(9L)
+                .userId((long) i % authors)
+                .rating(5 - i % 5)
+                .helpfulCount(i)
+                .status(ProductReview.ReviewStatus.APPROVED)
+                .createdAt(NOW.minusMinutes(i))
+                .build());
+        }
+        return reviews;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.BulkReviewModerationResponse;
+import com.ecommerce.mapper.ProductReviewMapper;
+import com.ecommerce.model.ProductReview;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReviewAutoModeratorTest {
+
+    private final ProductReviewMapper productReviewMapper = mock(ProductReviewMapper.class);
+    private final ProductReviewService productReviewService = mock(ProductReviewService.class);
+
+    @Test
+    void hashesNormalizedTextAndSkipsShortReviews() {
+        String hash = ReviewAutoModerator.contentHash("AMAZING deal!!", "Click   the link in my profile.");
+
+        assertEquals(hash, ReviewAutoModerator.contentHash("amazing deal", "click the link in my profile"));
+        assertNotEquals(hash, ReviewAutoModerator.contentHash("amazing deal", "click the link in your profile"));
+        assertEquals(64, hash.length());
+        assertNull(ReviewAutoModerator.contentHash("Great", "Love it!"));
+    }
+
+    @Test
+    void rejectsPendingReviewsSharingDuplicatedText() {
+        when(productReviewMapper.findDuplicatePendingHashes(3, 100)).thenReturn(List.of("abc"));
+        when(productReviewMapper.findPendingIdsByContentHashes(List.of("abc"))).thenReturn(List.of(5L, 6L, 7L));
+        when(productReviewService.applyModeration(List.of(5L, 6L, 7L), ProductReview.ReviewStatus.REJECTED))
+            .thenReturn(BulkReviewModerationResponse.builder().updated(3).build());
+
+        moderator(true).run();
+
+        verify(productReviewService).applyModeration(List.of(5L, 6L, 7L), ProductReview.ReviewStatus.REJECTED);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        moderator(false).run();
+
+        verifyNoInteractions(productReviewMapper, productReviewService);
+    }
+
+    private ReviewAutoModerator moderator(boolean enabled) {
+        return new ReviewAutoModerator(productReviewMapper, productReviewService, new SimpleMeterRegistry(), enabled, 3, 100);
+    }
+}
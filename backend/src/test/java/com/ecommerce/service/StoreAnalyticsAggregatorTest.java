@@ -0,0 +1,186 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.OrderEvent;
+import com.ecommerce.event.OrderEventType;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.AnalyticsOrderLedger;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.StoreAnalytics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreAnalyticsAggregatorTest {
+
+    private static final LocalDateTime PLACED_AT = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private StoreMapper storeMapper;
+    private OrderMapper orderMapper;
+    private StoreAnalyticsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        storeMapper = mock(StoreMapper.class);
+        orderMapper = mock(OrderMapper.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(storeMapper.insertAppliedAnalyticsEvent(any())).thenReturn(1);
+        // In-memory stand-in for store_analytics_order_ledger
+        Map<Long, AnalyticsOrderLedger> ledger = new HashMap<>();
+        when(storeMapper.lockAnalyticsOrderLedger(any())).thenAnswer(invocation -> ledger.get(invocation.<Long>getArgument(0)));
+        doAnswer(invocation -> {
+            AnalyticsOrderLedger row = invocation.getArgument(0);
+            ledger.put(row.getOrderId(), row);
+            return null;
+        }).when(storeMapper).upsertAnalyticsOrderLedger(any());
+
+        aggregator = new StoreAnalyticsAggregator(storeMapper, orderMapper, transactionManager,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void splitsPlacedOrderByStore() {
+        aggregator.onEvent(created(1L, 100L));
+
+        List<StoreAnalytics> rows = upserts(2);
+        assertRow(rows.get(0), 10L, 1, "50.00", 3);
+        assertRow(rows.get(1), 20L, 1, "15.50", 1);
+        assertEquals(PLACED_AT.toLocalDate(), rows.get(0).getDate());
+        verify(storeMapper).insertAppliedAnalyticsEvent(1L);
+    }
+
+    @Test
+    void skipsRedeliveredEvents() {
+        when(storeMapper.insertAppliedAnalyticsEvent(1L)).thenReturn(1, 0);
+        aggregator.onEvent(created(1L, 100L));
+        aggregator.onEvent(created(1L, 100L));
+
+        List<StoreAnalytics> rows = upserts(2);
+        assertRow(rows.get(0), 10L, 1, "50.00", 3);
+    }
+
+    @Test
+    void propagatesFailuresSoTheEventIsRedelivered() {
+        doThrow(new RuntimeException("db down")).when(storeMapper).upsertAnalyticsDelta(any());
+
+        assertThrows(RuntimeException.class, () -> aggregator.onEvent(created(1L, 100L)));
+    }
+
+    @Test
+    void splitsRefundByStoreShare() {
+        when(orderMapper.findOrderItemsByOrderId(100L)).thenReturn(List.of(
+            item(10L, 2, "75.00"), item(20L, 1, "25.00")));
+        aggregator.onEvent(refunded(3L, 100L, 10));
+
+        List<StoreAnalytics> rows = upserts(2);
+        assertRow(rows.get(0), 10L, 0, "-7.50", 0);
+        assertRow(rows.get(1), 20L, 0, "-2.50", 0);
+    }
+
+    @Test
+    void refundAfterCancellationReversesNothingMore() {
+        when(orderMapper.findOrderItemsByOrderId(100L)).thenReturn(List.of(
+            item(10L, 2, "75.00"), item(20L, 1, "25.00")));
+        aggregator.onEvent(new OrderEvent(3L, OrderEventType.ORDER_CANCELLED, 100L, Map.of(), PLACED_AT));
+        aggregator.onEvent(refunded(4L, 100L, 100));
+
+        List<StoreAnalytics> rows = upserts(2);
+        assertRow(rows.get(0), 10L, -1, "-75.00", -2);
+        assertRow(rows.get(1), 20L, -1, "-25.00", -1);
+    }
+
+    @Test
+    void cancellationAfterPartialRefundReversesOnlyWhatIsStillBooked() {
+        when(orderMapper.findOrderItemsByOrderId(100L)).thenReturn(List.of(
+            item(10L, 2, "75.00"), item(20L, 1, "25.00")));
+        aggregator.onEvent(refunded(3L, 100L, 10));
+        aggregator.onEvent(new OrderEvent(4L, OrderEventType.ORDER_CANCELLED, 100L, Map.of(), PLACED_AT));
+
+        ArgumentCaptor<StoreAnalytics> captor = ArgumentCaptor.forClass(StoreAnalytics.class);
+        verify(storeMapper, times(4)).upsertAnalyticsDelta(captor.capture());
+        BigDecimal revenue = captor.getAllValues().stream()
+            .map(StoreAnalytics::getTotalRevenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("-100.00").compareTo(revenue));
+        assertRow(captor.getAllValues().get(2), 10L, -1, "-67.50", -2);
+    }
+
+    @Test
+    void countsViewsAndKeepsThemWhenFlushFails() {
+        aggregator.recordStoreVisit(10L);
+        aggregator.recordProductView(10L);
+        doThrow(new RuntimeException("db down")).when(storeMapper).upsertAnalyticsDelta(any());
+        aggregator.flush();
+
+        doNothing().when(storeMapper).upsertAnalyticsDelta(any());
+        aggregator.recordProductView(10L);
+        aggregator.flush();
+
+        ArgumentCaptor<StoreAnalytics> captor = ArgumentCaptor.forClass(StoreAnalytics.class);
+        verify(storeMapper, times(2)).upsertAnalyticsDelta(captor.capture());
+        StoreAnalytics row = captor.getValue();
+        assertEquals(LocalDate.now(), row.getDate());
+        assertEquals(3, row.getTotalVisits());
+        assertEquals(3, row.getPageViews());
+        assertEquals(2, row.getProductsViewed());
+        verify(storeMapper, never()).insertAppliedAnalyticsEvent(any());
+    }
+
+    private List<StoreAnalytics> upserts(int expected) {
+        ArgumentCaptor<StoreAnalytics> captor = ArgumentCaptor.forClass(StoreAnalytics.class);
+        verify(storeMapper, times(expected)).upsertAnalyticsDelta(captor.capture());
+        return captor.getAllValues().stream().sorted(Comparator.comparing(StoreAnalytics::getStoreId)).toList();
+    }
+
+    private static void assertRow(StoreAnalytics row, Long storeId, int orders, String revenue, int units) {
+        assertEquals(storeId, row.getStoreId());
+        assertEquals(orders, row.getTotalOrders());
+        assertEquals(0, new BigDecimal(revenue).compareTo(row.getTotalRevenue()));
+        assertEquals(units, row.getProductsPurchased());
+    }
+
+    private static OrderEvent created(Long outboxId, Long orderId) {
+        // Numbers arrive as they come out of the JSON payload column
+        List<Map<String, Object>> items = List.of(
+            Map.of("productId", 1, "storeId", 10, "quantity", 2, "totalPrice", 30.0),
+            Map.of("productId", 2, "storeId", 20, "quantity", 1, "totalPrice", 15.5),
+            Map.of("productId", 3, "storeId", 10, "quantity", 1, "totalPrice", 20));
+        return new OrderEvent(outboxId, OrderEventType.ORDER_CREATED, orderId,
+            Map.of("orderNumber", "ORD-" + orderId, "items", items), PLACED_AT);
+    }
+
+    private static OrderEvent refunded(Long outboxId, Long orderId, Object amount) {
+        return new OrderEvent(outboxId, OrderEventType.ORDER_REFUNDED, orderId, Map.of("refundAmount", amount), PLACED_AT);
+    }
+
+    private static OrderItem item(Long storeId, int quantity, String totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setStoreId(storeId);
+        item.setQuantity(quantity);
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+}
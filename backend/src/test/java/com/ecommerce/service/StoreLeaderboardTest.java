@@ -0,0 +1,95 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.StoreMapper;
+import com.ecommerce.model.Store;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreLeaderboardTest {
+
+    private StoreMapper storeMapper;
+    private StoreLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        storeMapper = mock(StoreMapper.class);
+        when(storeMapper.findActiveStores()).thenReturn(List.of(
+            store(1L, "4.50", 20, 100),
+            store(2L, "4.90", 12, 5),
+            store(3L, "4.50", 20, 300),
+            store(4L, "5.00", 3, 0)));
+        leaderboard = new StoreLeaderboard(storeMapper);
+        leaderboard.load();
+    }
+
+    @Test
+    void ranksEligibleStoresByRatingReviewsAndSales() {
+        assertEquals(List.of(2L, 3L, 1L), ids(leaderboard.top(10)));
+        assertEquals(List.of(2L, 3L), ids(leaderboard.top(2)));
+        assertEquals(2, leaderboard.rankOf(3L));
+        // Too few reviews
+        assertNull(leaderboard.rankOf(4L));
+    }
+
+    @Test
+    void movesStoresWhenTheyChange() {
+        leaderboard.update(store(1L, "4.95", 25, 100));
+        leaderboard.update(store(4L, "5.00", 10, 0));
+        Store suspended = store(2L, "4.90", 12, 5);
+        suspended.setIsActive(false);
+        leaderboard.update(suspended);
+
+        assertEquals(List.of(4L, 1L, 3L), ids(leaderboard.top(10)));
+        assertNull(leaderboard.rankOf(2L));
+        assertEquals(3, leaderboard.size());
+    }
+
+    @Test
+    void ranksMatchASortedListUnderRandomUpdates() {
+        StoreLeaderboard leaderboard = new StoreLeaderboard(storeMapper);
+        Random random = new Random(42);
+        Map<Long, Store> current = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            Long id = (long) random.nextInt(300);
+            Store store = store(id, String.valueOf(random.nextInt(6)), 8 + random.nextInt(6), random.nextInt(4));
+            store.setIsVerified(random.nextInt(8) != 0);
+            leaderboard.update(store);
+            current.put(id, store);
+        }
+
+        List<Store> expected = new ArrayList<>(current.values().stream()
+            .filter(s -> s.getIsVerified() && s.getTotalReviews() >= StoreLeaderboard.MIN_REVIEWS)
+            .toList());
+        expected.sort(Comparator.comparing(Store::getRating).reversed()
+            .thenComparing(Store::getTotalReviews, Comparator.reverseOrder())
+            .thenComparing(Store::getTotalSales, Comparator.reverseOrder())
+            .thenComparing(Store::getId));
+
+        assertEquals(ids(expected), ids(leaderboard.top(expected.size() + 10)));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, leaderboard.rankOf(expected.get(i).getId()));
+        }
+    }
+
+    private static List<Long> ids(List<Store> stores) {
+        return stores.stream().map(Store::getId).toList();
+    }
+
+    private static Store store(Long id, String rating, int reviews, int sales) {
+        return Store.builder().id(id).isActive(true).isVerified(true)
+            .rating(new BigDecimal(rating)).totalReviews(reviews).totalSales(sales).build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.StorefrontResponse;
+import com.ecommerce.model.Store;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorefrontCacheTest {
+
+    private final StorefrontCache cache = new StorefrontCache(new ObjectMapper().findAndRegisterModules(),
+        new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    private final AtomicInteger builds = new AtomicInteger();
+    private String storeName = "Corner Shop";
+
+    @Test
+    void servesRepeatedReadsFromSerializedBytes() {
+        StorefrontCache.Storefront first = cache.get(1L, loader());
+        StorefrontCache.Storefront second = cache.get(1L, loader());
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("\"storeName\":\"Corner Shop\""));
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+    }
+
+    @Test
+    void rebuildsAfterEvictionWithNewEtag() {
+        String before = cache.get(1L, loader()).etag();
+        assertEquals(before, cache.get(1L, loader()).etag());
+
+        storeName = "Corner Shop & Cafe";
+        cache.evict(1L);
+        StorefrontCache.Storefront after = cache.get(1L, loader());
+
+        assertEquals(2, builds.get());
+        assertNotEquals(before, after.etag());
+    }
+
+    @Test
+    void doesNotCacheUnknownStoresOrBuildsRacingAnEviction() {
+        assertNull(cache.get(2L, id -> null));
+
+        cache.get(3L, id -> {
+            cache.evict(3L);
+            return loader().apply(id);
+        });
+        cache.get(3L, loader());
+        assertEquals(2, builds.get());
+    }
+
+    private Function<Long, StorefrontResponse> loader() {
+        return id -> {
+            builds.incrementAndGet();
+            return StorefrontResponse.builder()
+                .store(Store.builder().id(id).storeName(storeName).build())
+                .products(List.of())
+                .build();
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.User;
+import com.ecommerce.security.PasswordHasher;
+import com.ecommerce.security.TokenRevocationList;
+import com.ecommerce.security.UserPrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final AtomicInteger offloaded = new AtomicInteger();
+    private final Executor taskExecutor = task -> {
+        offloaded.incrementAndGet();
+        task.run();
+    };
+
+    private UserMapper userMapper;
+    private PasswordHasher passwordHasher;
+    private UserService userService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        passwordHasher = mock(PasswordHasher.class);
+        userService = new UserService(userMapper, passwordHasher, mock(EmailService.class),
+                mock(UserPrincipalCache.class), mock(TokenRevocationList.class), taskExecutor);
+        user = new User("buyer@example.com", "old-hash", "Ada", "Lovelace", User.UserRole.BUYER);
+        user.setId(42L);
+        when(userMapper.findByEmail("buyer@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void continuesOffTheHashingPoolAfterTheComparison() {
+        when(passwordHasher.matchesAsync("secret", "old-hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHasher.needsUpgrade("old-hash")).thenReturn(true);
+        when(passwordHasher.encodeAsync("secret")).thenReturn(CompletableFuture.completedFuture("new-hash"));
+
+        assertSame(user, userService.authenticateUserAsync("buyer@example.com", "secret").join());
+
+        // One hand-off for the caller's continuation, one for the rehash write
+        verify(userMapper).updatePassword(42L, "new-hash");
+        assertEquals(2, offloaded.get());
+    }
+}
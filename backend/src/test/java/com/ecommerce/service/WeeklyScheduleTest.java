@@ -0,0 +1,62 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.StoreOperatingHours;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyScheduleTest {
+
+    @Test
+    void evaluatesHoursInTheStoreTimezone() {
+        // Monday 09:00-17:00 in New York (UTC-5 in January)
+        WeeklySchedule schedule = WeeklySchedule.compile("America/New_York",
+            List.of(hours(1, "09:00", "17:00", false)));
+
+        assertFalse(schedule.isOpenAt(Instant.parse("2024-01-15T13:59:00Z")));
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-15T14:00:00Z")));
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-15T21:59:00Z")));
+        assertFalse(schedule.isOpenAt(Instant.parse("2024-01-15T22:00:00Z")));
+        // Same wall-clock hours after the DST change (UTC-4)
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-07-15T13:00:00Z")));
+    }
+
+    @Test
+    void runsOvernightHoursIntoTheNextDayAndWrapsTheWeek() {
+        WeeklySchedule schedule = WeeklySchedule.compile("UTC", List.of(
+            hours(6, "20:00", "02:00", false),
+            hours(3, "10:00", "10:00", false),
+            hours(2, "08:00", "18:00", true)));
+
+        // Saturday 2024-01-20 into Sunday
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-20T23:30:00Z")));
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-21T01:59:00Z")));
+        assertFalse(schedule.isOpenAt(Instant.parse("2024-01-21T02:00:00Z")));
+        // Wednesday open round the clock from 10:00, Tuesday closed
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-18T09:59:00Z")));
+        assertFalse(schedule.isOpenAt(Instant.parse("2024-01-18T10:00:00Z")));
+        assertFalse(schedule.isOpenAt(Instant.parse("2024-01-16T12:00:00Z")));
+    }
+
+    @Test
+    void fallsBackToUtcForUnknownTimezones() {
+        WeeklySchedule schedule = WeeklySchedule.compile("Mars/Olympus_Mons",
+            List.of(hours(1, "09:00", "10:00", false)));
+
+        assertTrue(schedule.isOpenAt(Instant.parse("2024-01-15T09:30:00Z")));
+    }
+
+    private static StoreOperatingHours hours(int day, String open, String close, boolean closed) {
+        return StoreOperatingHours.builder()
+            .dayOfWeek(day)
+            .openTime(LocalTime.parse(open))
+            .closeTime(LocalTime.parse(close))
+            .isClosed(closed)
+            .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.FlashSaleMapper;
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.mapper.WishlistAlertMapper;
+import com.ecommerce.mapper.WishlistMapper;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Wishlist;
+import com.ecommerce.model.WishlistAlert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WishlistAlertMatcherTest {
+
+    private WishlistAlertMapper alertMapper;
+    private WishlistMapper wishlistMapper;
+    private ProductMapper productMapper;
+    private EmailService emailService;
+    private WishlistAlertMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        alertMapper = mock(WishlistAlertMapper.class);
+        wishlistMapper = mock(WishlistMapper.class);
+        productMapper = mock(ProductMapper.class);
+        emailService = mock(EmailService.class);
+        matcher = new WishlistAlertMatcher(alertMapper, wishlistMapper, productMapper, mock(FlashSaleMapper.class),
+                emailService, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                true, Duration.ofMinutes(1), 2, Duration.ofMinutes(5), 3);
+        when(emailService.sendWishlistAlertEmails(any(), any(), any(), anyList()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(3).size());
+        when(alertMapper.advance(anyLong(), anyInt(), anyLong(), anyInt(), any())).thenReturn(1);
+    }
+
+    @Test
+    void queuesOnlyForPriceDropsAndRestocks() {
+        matcher.productUpdated(product("19.99", 0), new BigDecimal("19.99"), 0);
+        matcher.productUpdated(product("24.99", 5), new BigDecimal("19.99"), 5);
+        verify(alertMapper, never()).insertUnlessPending(any());
+
+        matcher.productUpdated(product("14.99", 3), new BigDecimal("19.99"), 0);
+
+        ArgumentCaptor<WishlistAlert> queued = ArgumentCaptor.forClass(WishlistAlert.class);
+        verify(alertMapper, times(2)).insertUnlessPending(queued.capture());
+        assertEquals(WishlistAlert.AlertType.PRICE_DROP, queued.getAllValues().get(0).getAlertType());
+        assertEquals(new BigDecimal("19.99"), queued.getAllValues().get(0).getPreviousPrice());
+        assertEquals(WishlistAlert.AlertType.BACK_IN_STOCK, queued.getAllValues().get(1).getAlertType());
+    }
+
+    @Test
+    void fansOutInPagesFromTheSavedCursor() {
+        when(productMapper.findById(7L)).thenReturn(product("14.99", 3));
+        when(wishlistMapper.findWatchers(7L, 40L, 2)).thenReturn(watchers(41, 42));
+        when(wishlistMapper.findWatchers(7L, 42L, 2)).thenReturn(watchers(45));
+
+        matcher.fanOut(alert(WishlistAlert.AlertType.PRICE_DROP, "19.99", 40L));
+
+        verify(emailService, times(2)).sendWishlistAlertEmails(eq("wishlist-price-drop"), eq("desk-lamp"),
+                eq(Map.of("productName", "Desk Lamp", "previousPrice", "19.99", "price", "14.99")), anyList());
+        verify(alertMapper).advance(eq(1L), eq(1), eq(42L), eq(2), any());
+        verify(alertMapper).advance(eq(1L), eq(1), eq(45L), eq(1), any());
+        verify(alertMapper).markDone(1L, 1);
+    }
+
+    @Test
+    void stopsWithoutSendingOnceTheLeaseIsLost() {
+        when(productMapper.findById(7L)).thenReturn(product("14.99", 3));
+        when(wishlistMapper.findWatchers(7L, 40L, 2)).thenReturn(watchers(41, 42));
+        when(alertMapper.advance(eq(1L), eq(1), eq(42L), eq(2), any())).thenReturn(0);
+
+        matcher.fanOut(alert(WishlistAlert.AlertType.PRICE_DROP, "19.99", 40L));
+
+        verify(emailService, never()).sendWishlistAlertEmails(any(), any(), any(), anyList());
+        verify(wishlistMapper, never()).findWatchers(7L, 42L, 2);
+        verify(alertMapper, never()).markDone(anyLong(), anyInt());
+    }
+
+    @Test
+    void claimsOneAlertAtATimeAndGivesUpAfterMaxAttempts() {
+        WishlistAlert exhausted = alert(WishlistAlert.AlertType.PRICE_DROP, "19.99", 0L);
+        exhausted.setAttempts(3);
+        WishlistAlert due = alert(WishlistAlert.AlertType.PRICE_DROP, "19.99", 0L);
+        due.setId(2L);
+        due.setAttempts(1);
+        when(alertMapper.lockDue(1)).thenReturn(List.of(exhausted), List.of(due), List.of());
+        // Price went back up, so the claimed alert finishes without sending
+        when(productMapper.findById(7L)).thenReturn(product("21.00", 3));
+
+        matcher.dispatch();
+
+        verify(alertMapper).markFailed(1L);
+        verify(alertMapper, never()).lease(eq(1L), anyInt(), any());
+        verify(alertMapper).lease(eq(2L), eq(2), any());
+        verify(alertMapper).markDone(2L, 2);
+    }
+
+    @Test
+    void dropsAlertsThatNoLongerHold() {
+        // Price went back up before the fan-out started
+        when(productMapper.findById(7L)).thenReturn(product("21.00", 3));
+
+        matcher.fanOut(alert(WishlistAlert.AlertType.PRICE_DROP, "19.99", 0L));
+
+        verify(wishlistMapper, never()).findWatchers(any(), anyLong(), anyInt());
+        verify(alertMapper).markDone(1L, 1);
+    }
+
+    private static WishlistAlert alert(WishlistAlert.AlertType type, String previousPrice, long cursor) {
+        return WishlistAlert.builder()
+                .id(1L)
+                .productId(7L)
+                .alertType(type)
+                .previousPrice(new BigDecimal(previousPrice))
+                .lastWishlistId(cursor)
+                .attempts(1)
+                .build();
+    }
+
+    private static Product product(String price, int quantity) {
+        Product product = new Product();
+        product.setId(7L);
+        product.setName("Desk Lamp");
+        product.setSlug("desk-lamp");
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(quantity);
+        product.setTrackQuantity(true);
+        product.setStatus(Product.ProductStatus.ACTIVE);
+        return product;
+    }
+
+    private static List<Wishlist> watchers(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> Wishlist.builder().id(id).userId(id * 10).productId(7L).userEmail("u" + id + "@example.com").build())
+                .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.service;
+
+import com.ecommerce.util.SortedLongSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WishlistMembershipCacheTest {
+
+    private final WishlistMembershipCache cache =
+        new WishlistMembershipCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceAndAppliesChangesToTheCachedSet() {
+        assertEquals(List.of(3L, 7L, 42L), cache.get(1L, this::load).toList());
+
+        cache.added(1L, 5L);
+        cache.removed(1L, 42L);
+        SortedLongSet products = cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of(3L, 5L, 7L), products.toList());
+        assertTrue(products.contains(5L));
+        assertFalse(products.contains(42L));
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedWithAChange() {
+        cache.get(2L, userId -> {
+            cache.added(2L, 9L);
+            return load(userId);
+        });
+        cache.get(2L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void leavesUncachedUsersToLoadFromTheDatabase() {
+        cache.removed(3L, 7L);
+
+        assertEquals(3, cache.get(3L, this::load).size());
+    }
+
+    private List<Long> load(Long userId) {
+        loads.incrementAndGet();
+        return List.of(42L, 3L, 7L, 3L);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.dto.request.WishlistRequest;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.mapper.WishlistMapper;
+import com.ecommerce.service.WishlistMembershipCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class WishlistServiceImplTest {
+
+    private WishlistMapper wishlistMapper;
+    private WishlistServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        wishlistMapper = mock(WishlistMapper.class);
+        service = new WishlistServiceImpl(wishlistMapper,
+                new WishlistMembershipCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void reportsAMissingProductAsNotFound() {
+        doThrow(violation("CONSTRAINT `fk_wishlist_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`)"))
+                .when(wishlistMapper).insert(any());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.addToWishlist(1L, request(7L)));
+    }
+
+    @Test
+    void letsOtherIntegrityViolationsPropagate() {
+        DataIntegrityViolationException violation =
+                violation("CONSTRAINT `fk_wishlist_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)");
+        doThrow(violation).when(wishlistMapper).insert(any());
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> service.addToWishlist(1L, request(7L))));
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("insert failed", new SQLIntegrityConstraintViolationException(
+                "Cannot add or update a child row: a foreign key constraint fails (`ecommerce`.`wishlist`, "
+                        + constraint + " ON DELETE CASCADE)"));
+    }
+
+    private static WishlistRequest request(Long productId) {
+        return WishlistRequest.builder().productId(productId).build();
+    }
+}
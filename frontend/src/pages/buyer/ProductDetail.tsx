@@ -44,18 +44,21 @@ interface Product {
 
 interface ProductReview {
   id: number
-  user: {
-    id: number
-    firstName: string
-    lastName: string
-  }
+  userId: number
+  userName: string
   rating: number
   title?: string
   comment: string
-  verifiedPurchase: boolean
+  isVerifiedPurchase: boolean
   createdAt: string
 }
 
+interface ReviewPage {
+  content: ProductReview[]
+  nextCursor: string | null
+  hasMore: boolean
+}
+
 export default function ProductDetail() {
   const { slug } = useParams<{ slug: string }>()
   const navigate = useNavigate()
@@ -63,6 +66,8 @@ export default function ProductDetail() {
   const { isInWishlist, toggleWishlist, isTogglingWishlist } = useWishlist()
   const [product, setProduct] = useState<Product | null>(null)
   const [reviews, setReviews] = useState<ProductReview[]>([])
+  const [reviewsCursor, setReviewsCursor] = useState<string | null>(null)
+  const [loadingMoreReviews, setLoadingMoreReviews] = useState(false)
   const [loading, setLoading] = useState(true)
   const [selectedImage, setSelectedImage] = useState(0)
   const [quantity, setQuantity] = useState(1)
@@ -85,13 +90,7 @@ export default function ProductDetail() {
       const response = await api.get(`/products/slug/${slug}`)
       setProduct(response.data.data)
       
-      // Fetch reviews
-      try {
-        const reviewsResponse = await api.get(`/products/${response.data.data.id}/reviews`)
-        setReviews(reviewsResponse.data.data || [])
-      } catch (error) {
-        console.error('Error fetching reviews:', error)
-      }
+      await fetchReviews(response.data.data.id)
     } catch (error) {
       console.error('Error fetching product:', error)
       toast.error('Failed to load product details')
@@ -102,6 +101,28 @@ export default function ProductDetail() {
   }
 
 
+  // Reviews are keyset-paged: each page carries the cursor for the next one
+  const fetchReviews = async (productId: number, cursor?: string) => {
+    try {
+      const reviewsResponse = await api.get(`/products/${productId}/reviews`, {
+        params: cursor ? { cursor } : undefined
+      })
+      const page: ReviewPage | undefined = reviewsResponse.data.data
+      const content = page?.content || []
+      setReviews((current) => (cursor ? [...current, ...content] : content))
+      setReviewsCursor(page?.hasMore ? page.nextCursor : null)
+    } catch (error) {
+      console.error('Error fetching reviews:', error)
+    }
+  }
+
+  const handleLoadMoreReviews = async () => {
+    if (!product || !reviewsCursor) return
+    setLoadingMoreReviews(true)
+    await fetchReviews(product.id, reviewsCursor)
+    setLoadingMoreReviews(false)
+  }
+
   const handleQuantityChange = (delta: number) => {
     const newQuantity = quantity + delta
     if (newQuantity >= 1 && newQuantity <= (product?.quantity || 1)) {
@@ -125,8 +146,7 @@ export default function ProductDetail() {
         setShowReviewForm(false)
         setReviewForm({ rating: 5, title: '', comment: '' })
         // Refresh reviews
-        const reviewsResponse = await api.get(`/products/${product.id}/reviews`)
-        setReviews(reviewsResponse.data.data || [])
+        await fetchReviews(product.id)
       }
     } catch (error) {
       console.error('Error submitting review:', error)
@@ -488,9 +508,9 @@ export default function ProductDetail() {
                 <div className="flex items-center justify-between mb-2">
                   <div className="flex items-center space-x-3">
                     <span className="font-medium text-gray-900">
-                      {review.user.firstName} {review.user.lastName}
+                      {review.userName}
                     </span>
-                    {review.verifiedPurchase && (
+                    {review.isVerifiedPurchase && (
                       <span className="text-xs bg-green-100 text-green-800 px-2 py-1 rounded">
                         Verified Purchase
                       </span>
@@ -509,6 +529,15 @@ export default function ProductDetail() {
                 <p className="text-gray-600">{review.comment}</p>
               </div>
             ))}
+            {reviewsCursor && (
+              <button
+                onClick={handleLoadMoreReviews}
+                disabled={loadingMoreReviews}
+                className="w-full py-2 border border-gray-300 rounded-lg text-gray-700 hover:bg-gray-50 disabled:opacity-50"
+              >
+                {loadingMoreReviews ? 'Loading...' : 'Load more reviews'}
+              </button>
+            )}
           </div>
         ) : (
           <p className="text-gray-500">No reviews yet. Be the first to review this product!</p>